@@ -0,0 +1,163 @@
+package me.Silverwolfg11.CommentConfig.processor;
+
+import javax.lang.model.util.Elements;
+import java.util.List;
+
+/**
+ * Writes the source of a generated codec.
+ */
+final class CodecWriter {
+
+    private final ConfigClass configClass;
+    private final String packageName;
+    private final String codecName;
+    private final Elements elements;
+
+    private final StringBuilder out = new StringBuilder();
+
+    CodecWriter(ConfigClass configClass, String packageName, String codecName, Elements elements) {
+        this.configClass = configClass;
+        this.packageName = packageName;
+        this.codecName = codecName;
+        this.elements = elements;
+    }
+
+    String write() {
+        String type = configClass.typeName;
+
+        if (!packageName.isEmpty())
+            line("package " + packageName + ";").line("");
+
+        line("import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;");
+        line("import me.Silverwolfg11.CommentConfig.serialization.ClassSerializer;");
+        line("import me.Silverwolfg11.CommentConfig.serialization.CodecContext;");
+        line("import me.Silverwolfg11.CommentConfig.serialization.CodecType;");
+        line("import me.Silverwolfg11.CommentConfig.serialization.ConfigCodec;");
+        line("");
+        line("import java.util.Map;");
+        line("");
+        line("/**");
+        line(" * Generated by the CommentConfig annotation processor. Do not edit.");
+        line(" */");
+        line("public final class " + codecName + " implements ConfigCodec<" + type + "> {");
+        line("");
+
+        writeConstants();
+
+        line("    @Override");
+        line("    public " + type + " newInstance() {");
+        line("        return new " + type + "();");
+        line("    }");
+        line("");
+
+        writeToNode(type);
+        writeFromMap(type);
+
+        line("}");
+        return out.toString();
+    }
+
+    private void writeConstants() {
+        if (configClass.headerComments != null)
+            line("    private static final String[] HEADER_COMMENTS = " + stringArray(configClass.headerComments) + ";");
+
+        List<ConfigClass.ConfigField> fields = configClass.fields;
+        for (int i = 0; i < fields.size(); i++) {
+            ConfigClass.ConfigField field = fields.get(i);
+            List<String> path = field.path;
+
+            line("    private static final String[] PATH_" + i + " = " + stringArray(path) + ";");
+            line("    private static final String[] PARENT_PATH_" + i + " = " + stringArray(path.subList(0, path.size() - 1)) + ";");
+            line("    private static final String[] COMMENTS_" + i + " = "
+                    + (field.comments != null ? stringArray(field.comments) : "null") + ";");
+            line("    private static final CodecType TYPE_" + i + " = " + field.codecType + ";");
+        }
+
+        line("");
+    }
+
+    private void writeToNode(String type) {
+        line("    @Override");
+        line("    public ParentConfigNode toNode(" + type + " object) {");
+        line("        ParentConfigNode root = ParentConfigNode.createRoot();");
+
+        List<ConfigClass.ConfigField> fields = configClass.fields;
+        for (int i = 0; i < fields.size(); i++) {
+            ConfigClass.ConfigField field = fields.get(i);
+            line("        ClassSerializer.serializeField(root, PARENT_PATH_" + i + ", "
+                    + literal(field.path.get(field.path.size() - 1)) + ", COMMENTS_" + i + ", "
+                    + field.snakeSerialize + ", " + field.sequenceComments + ", " + fieldAccess(field, "object") + ");");
+        }
+
+        if (configClass.headerComments != null)
+            line("        root.setComments(HEADER_COMMENTS);");
+
+        if (configClass.configVersion != null)
+            line("        root.addChild(\"config-version\", " + elements.getConstantExpression(configClass.configVersion)
+                    + ", \"Do not touch!!!\");");
+
+        line("        return root;");
+        line("    }");
+        line("");
+    }
+
+    private void writeFromMap(String type) {
+        line("    @Override");
+        line("    @SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line("    public " + type + " fromMap(Map<String, Object> map, " + type + " instance, CodecContext context) {");
+        line("        Object value;");
+
+        List<ConfigClass.ConfigField> fields = configClass.fields;
+        for (int i = 0; i < fields.size(); i++) {
+            ConfigClass.ConfigField field = fields.get(i);
+            // Static final fields cannot be set
+            if (field.isFinal)
+                continue;
+
+            String access = fieldAccess(field, "instance");
+            line("");
+            line("        value = context.convert(" + literal(field.name) + ", " + access
+                    + ", context.getNode(map, PATH_" + i + "), TYPE_" + i + ");");
+            line("        if (value != null)");
+            line("            " + access + " = " + convertValue(field) + ";");
+        }
+
+        line("");
+        line("        return instance;");
+        line("    }");
+    }
+
+    private String fieldAccess(ConfigClass.ConfigField field, String instanceName) {
+        return (field.isStatic ? configClass.typeName : instanceName) + "." + field.name;
+    }
+
+    private static String convertValue(ConfigClass.ConfigField field) {
+        if (field.primitiveKind == null)
+            return "(" + field.rawType + ") value";
+
+        String typeName = field.rawType;
+        String methodName = "to" + Character.toUpperCase(typeName.charAt(0)) + typeName.substring(1);
+        return "CodecContext." + methodName + "(value)";
+    }
+
+    private String stringArray(List<String> values) {
+        StringBuilder builder = new StringBuilder("{ ");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0)
+                builder.append(", ");
+
+            builder.append(literal(values.get(i)));
+        }
+
+        return builder.append(values.isEmpty() ? "}" : " }").toString();
+    }
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    private CodecWriter line(String line) {
+        out.append(line).append('\n');
+        return this;
+    }
+}
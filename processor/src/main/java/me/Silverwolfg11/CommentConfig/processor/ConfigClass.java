@@ -0,0 +1,228 @@
+package me.Silverwolfg11.CommentConfig.processor;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The serialization layout of a {@code @SerializableConfig} class,
+ * resolved from the source of the class.
+ */
+final class ConfigClass {
+
+    final TypeElement element;
+    final String typeName;
+    final List<String> headerComments;
+    final Double configVersion;
+    final List<ConfigField> fields;
+
+    private ConfigClass(TypeElement element, List<String> headerComments, Double configVersion, List<ConfigField> fields) {
+        this.element = element;
+        this.typeName = element.getQualifiedName().toString();
+        this.headerComments = headerComments;
+        this.configVersion = configVersion;
+        this.fields = fields;
+    }
+
+    static ConfigClass resolve(TypeElement element, PackageElement packageElement, Elements elements) throws UnsupportedClassException {
+        if (element.getNestingKind() != NestingKind.TOP_LEVEL && element.getNestingKind() != NestingKind.MEMBER)
+            throw new UnsupportedClassException("local and anonymous classes are not supported");
+
+        if (element.getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC))
+            throw new UnsupportedClassException("non-static inner classes need their enclosing instance to be constructed");
+
+        if (element.getModifiers().contains(Modifier.ABSTRACT))
+            throw new UnsupportedClassException("abstract classes cannot be constructed");
+
+        if (!element.getTypeParameters().isEmpty())
+            throw new UnsupportedClassException("generic classes are not supported");
+
+        if (!ConfigCodecProcessor.isAccessibleFrom(element, packageElement, elements))
+            throw new UnsupportedClassException("the class is not accessible from its package");
+
+        if (!ConfigCodecProcessor.hasAccessibleDefaultConstructor(element))
+            throw new UnsupportedClassException("the class does not have a non-private default constructor");
+
+        List<ConfigField> fields = new ArrayList<>();
+        for (VariableElement field : ConfigCodecProcessor.getFields(element)) {
+            fields.add(resolveField(field, packageElement, elements));
+        }
+
+        AnnotationMirror comment = findAnnotation(element, "Comment");
+        List<String> headerComments = comment != null ? getStringValues(comment, elements) : null;
+
+        AnnotationMirror version = findAnnotation(element, "ConfigVersion");
+        Double configVersion = version != null ? ((Number) getValue(version, elements)).doubleValue() : null;
+
+        return new ConfigClass(element, headerComments, configVersion, fields);
+    }
+
+    private static ConfigField resolveField(VariableElement field, PackageElement packageElement, Elements elements) throws UnsupportedClassException {
+        String fieldName = field.getSimpleName().toString();
+        if (field.getModifiers().contains(Modifier.PRIVATE))
+            throw new UnsupportedClassException("field '" + fieldName + "' is private");
+
+        boolean isStatic = field.getModifiers().contains(Modifier.STATIC);
+        boolean isFinal = field.getModifiers().contains(Modifier.FINAL);
+        if (isFinal && !isStatic)
+            throw new UnsupportedClassException("field '" + fieldName + "' is final");
+
+        TypeMirror type = field.asType();
+        String codecType = renderCodecType(type, packageElement, elements);
+        if (codecType == null)
+            throw new UnsupportedClassException("the type of field '" + fieldName + "' is not supported");
+
+        AnnotationMirror node = findAnnotation(field, "Node");
+        List<String> path = node != null ? getStringValues(node, elements) : Collections.singletonList(fieldName);
+        if (path.isEmpty())
+            throw new UnsupportedClassException("the '@Node' annotation on field '" + fieldName + "' is empty");
+
+        AnnotationMirror comment = findAnnotation(field, "Comment");
+        List<String> comments = comment != null ? getStringValues(comment, elements) : null;
+
+        boolean snakeSerialize = findAnnotation(field, "SnakeSerialize") != null;
+        boolean sequenceComments = findAnnotation(field, "SequenceComments") != null;
+
+        return new ConfigField(fieldName, isStatic, isFinal, type.getKind().isPrimitive() ? type.getKind() : null,
+                renderRawType(type), codecType, path, comments, snakeSerialize, sequenceComments);
+    }
+
+    // Render the expression that creates the CodecType of a type,
+    // or null if the type cannot be described.
+    private static String renderCodecType(TypeMirror type, PackageElement packageElement, Elements elements) {
+        if (type.getKind().isPrimitive() || type.getKind() == TypeKind.ARRAY) {
+            String rawType = renderRawType(type);
+            if (rawType == null || !isAccessible(type, packageElement, elements))
+                return null;
+
+            return "CodecType.of(" + rawType + ".class)";
+        }
+
+        if (type.getKind() != TypeKind.DECLARED)
+            return null;
+
+        DeclaredType declaredType = (DeclaredType) type;
+        if (!isAccessible(type, packageElement, elements))
+            return null;
+
+        StringBuilder builder = new StringBuilder("CodecType.of(").append(renderRawType(type)).append(".class");
+        for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+            String renderedArgument = renderCodecType(typeArgument, packageElement, elements);
+            if (renderedArgument == null || typeArgument.getKind().isPrimitive())
+                return null;
+
+            builder.append(", ").append(renderedArgument);
+        }
+
+        return builder.append(")").toString();
+    }
+
+    private static boolean isAccessible(TypeMirror type, PackageElement packageElement, Elements elements) {
+        if (type.getKind() == TypeKind.ARRAY)
+            return isAccessible(((ArrayType) type).getComponentType(), packageElement, elements);
+
+        if (type.getKind() == TypeKind.DECLARED)
+            return ConfigCodecProcessor.isAccessibleFrom(((DeclaredType) type).asElement(), packageElement, elements);
+
+        return type.getKind().isPrimitive();
+    }
+
+    // Render the erased source name of a type, or null if it can't be rendered.
+    static String renderRawType(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            String component = renderRawType(((ArrayType) type).getComponentType());
+            return component != null ? component + "[]" : null;
+        }
+
+        if (type.getKind() == TypeKind.DECLARED)
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+
+        return null;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String simpleName) {
+        String qualifiedName = ConfigCodecProcessor.ANNOTATIONS_PACKAGE + simpleName;
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(qualifiedName))
+                return mirror;
+        }
+
+        return null;
+    }
+
+    private static Object getValue(AnnotationMirror mirror, Elements elements) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value"))
+                return entry.getValue().getValue();
+        }
+
+        return null;
+    }
+
+    private static List<String> getStringValues(AnnotationMirror mirror, Elements elements) {
+        Object value = getValue(mirror, elements);
+        List<String> values = new ArrayList<>();
+
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                values.add((String) ((AnnotationValue) element).getValue());
+            }
+        }
+        else if (value instanceof String) {
+            values.add((String) value);
+        }
+
+        return values;
+    }
+
+    /**
+     * A serialized field of the class.
+     */
+    static final class ConfigField {
+        final String name;
+        final boolean isStatic;
+        final boolean isFinal;
+        // The primitive kind of the field or null if the field is not a primitive
+        final TypeKind primitiveKind;
+        final String rawType;
+        final String codecType;
+        final List<String> path;
+        final List<String> comments;
+        final boolean snakeSerialize;
+        final boolean sequenceComments;
+
+        ConfigField(String name, boolean isStatic, boolean isFinal, TypeKind primitiveKind, String rawType, String codecType,
+                    List<String> path, List<String> comments, boolean snakeSerialize, boolean sequenceComments) {
+            this.name = name;
+            this.isStatic = isStatic;
+            this.isFinal = isFinal;
+            this.primitiveKind = primitiveKind;
+            this.rawType = rawType;
+            this.codecType = codecType;
+            this.path = path;
+            this.comments = comments;
+            this.snakeSerialize = snakeSerialize;
+            this.sequenceComments = sequenceComments;
+        }
+    }
+}
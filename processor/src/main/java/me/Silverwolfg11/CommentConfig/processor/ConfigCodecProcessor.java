@@ -0,0 +1,140 @@
+package me.Silverwolfg11.CommentConfig.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates a {@code ConfigCodec} for every
+ * {@code @SerializableConfig} class that can be serialized without reflection.
+ * <br><br>
+ * A codec can only be generated if the class, its default constructor and all of
+ * its serialized fields are accessible from the class's package, and none of the
+ * serialized instance fields are {@code final}. For any other class a note is printed,
+ * and CommentConfig falls back to reflection at runtime.
+ */
+@SupportedAnnotationTypes(ConfigCodecProcessor.SERIALIZABLE_CONFIG)
+public class ConfigCodecProcessor extends AbstractProcessor {
+
+    static final String ANNOTATIONS_PACKAGE = "me.Silverwolfg11.CommentConfig.annotations.";
+    static final String SERIALIZABLE_CONFIG = ANNOTATIONS_PACKAGE + "SerializableConfig";
+
+    // Must match ConfigCodec.CODEC_SUFFIX
+    static final String CODEC_SUFFIX = "_CommentConfigCodec";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS)
+                    continue;
+
+                processClass((TypeElement) element);
+            }
+        }
+
+        return false;
+    }
+
+    private void processClass(TypeElement classElement) {
+        Elements elements = processingEnv.getElementUtils();
+        PackageElement packageElement = elements.getPackageOf(classElement);
+
+        ConfigClass configClass;
+        try {
+            configClass = ConfigClass.resolve(classElement, packageElement, elements);
+        } catch (UnsupportedClassException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Not generating a codec for " + classElement.getQualifiedName() + ": " + e.getMessage()
+                            + ". It will be serialized through reflection.", classElement);
+            return;
+        }
+
+        String codecName = getCodecSimpleName(classElement, packageElement);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String qualifiedCodecName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(qualifiedCodecName, classElement);
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(new CodecWriter(configClass, packageName, codecName, elements).write());
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write codec for " + classElement.getQualifiedName() + ": " + e.getMessage(), classElement);
+        }
+    }
+
+    // Flattens the binary name of the class, e.g. Outer$Inner -> Outer_Inner_CommentConfigCodec
+    private static String getCodecSimpleName(TypeElement classElement, PackageElement packageElement) {
+        List<String> names = new ArrayList<>();
+        Element current = classElement;
+        while (current != null && !current.equals(packageElement)) {
+            names.add(0, current.getSimpleName().toString());
+            current = current.getEnclosingElement();
+        }
+
+        return String.join("_", names) + CODEC_SUFFIX;
+    }
+
+    static boolean isAccessibleFrom(Element element, PackageElement fromPackage, Elements elements) {
+        // Walk through the element and all enclosing classes
+        Element current = element;
+        while (current != null && current.getKind() != ElementKind.PACKAGE) {
+            Set<Modifier> modifiers = current.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE))
+                return false;
+
+            if (!modifiers.contains(Modifier.PUBLIC) && !elements.getPackageOf(current).equals(fromPackage))
+                return false;
+
+            current = current.getEnclosingElement();
+        }
+
+        return true;
+    }
+
+    static boolean hasAccessibleDefaultConstructor(TypeElement classElement) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(classElement.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty())
+                return !constructor.getModifiers().contains(Modifier.PRIVATE);
+        }
+
+        return false;
+    }
+
+    static List<VariableElement> getFields(TypeElement classElement) {
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(classElement.getEnclosedElements())) {
+            // Transient fields are not serialized
+            if (field.getModifiers().contains(Modifier.TRANSIENT))
+                continue;
+
+            fields.add(field);
+        }
+
+        return fields;
+    }
+}
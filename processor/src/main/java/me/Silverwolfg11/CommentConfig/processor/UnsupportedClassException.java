@@ -0,0 +1,11 @@
+package me.Silverwolfg11.CommentConfig.processor;
+
+/**
+ * Thrown when a codec cannot be generated for a class.
+ */
+final class UnsupportedClassException extends Exception {
+
+    UnsupportedClassException(String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,211 @@
+package me.silverwolfg11.commentconfig.processor;
+
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import me.Silverwolfg11.CommentConfig.serialization.ClassSerializer;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test that the generated codecs serialize and deserialize exactly like reflection does.
+ * <br><br>
+ * The same sources are compiled once with the processor and once without it,
+ * and the output of both is compared.
+ */
+public class ConfigCodecProcessorTests {
+
+    private static final String SAMPLE_CONFIG = String.join("\n",
+            "package codectest;",
+            "",
+            "import me.Silverwolfg11.CommentConfig.annotations.*;",
+            "import java.util.*;",
+            "",
+            "@SerializableConfig",
+            "@ConfigVersion(2.0)",
+            "@Comment({\"The sample config\", \"\"})",
+            "public class SampleConfig {",
+            "    public enum Mode { FAST, SLOW }",
+            "",
+            "    @SerializableConfig",
+            "    static class Inner {",
+            "        @Comment(\"Inner value\")",
+            "        String value = \"inner\";",
+            "        int number = 3;",
+            "    }",
+            "",
+            "    @Comment(\"The name\")",
+            "    String name = \"sample\";",
+            "    int count = 5;",
+            "    long big = 12345678901L;",
+            "    double ratio = 0.5;",
+            "    boolean enabled = true;",
+            "    @Node({\"section\", \"nested\"})",
+            "    @Comment({\"A nested \\\"value\\\"\", \"on two lines\"})",
+            "    String nested = \"deep\";",
+            "    List<String> list = new ArrayList<>(Arrays.asList(\"a\", \"b\"));",
+            "    Map<String, Integer> map = new LinkedHashMap<>();",
+            "    Mode mode = Mode.SLOW;",
+            "    List<Mode> modes = new ArrayList<>(Arrays.asList(Mode.FAST, Mode.SLOW));",
+            "    Inner inner = new Inner();",
+            "    Map<Mode, Inner> innerMap = new EnumMap<>(Mode.class);",
+            "    int[] array = { 1, 2, 3 };",
+            "    @SnakeSerialize",
+            "    Mode rawMode = Mode.FAST;",
+            "    transient int skipped = 7;",
+            "",
+            "    SampleConfig() {",
+            "        map.put(\"one\", 1);",
+            "        map.put(\"two\", 2);",
+            "        innerMap.put(Mode.FAST, new Inner());",
+            "    }",
+            "}",
+            "");
+
+    private static final String PRIVATE_FIELD_CONFIG = String.join("\n",
+            "package codectest;",
+            "",
+            "import me.Silverwolfg11.CommentConfig.annotations.*;",
+            "",
+            "@SerializableConfig",
+            "public class PrivateFieldConfig {",
+            "    private String value = \"private\";",
+            "}",
+            "");
+
+    private static final String CHANGED_YAML = String.join("\n",
+            "name: changed",
+            "count: 10",
+            "big: 7",
+            "ratio: 2",
+            "enabled: false",
+            "section:",
+            "  nested: deeper",
+            "list:",
+            "- x",
+            "map:",
+            "  three: 3",
+            "mode: FAST",
+            "modes:",
+            "- SLOW",
+            "inner:",
+            "  value: changed inner",
+            "  number: 4",
+            "innerMap:",
+            "  SLOW:",
+            "    value: slow",
+            "array:",
+            "- 9",
+            "- 8",
+            "rawMode: SLOW",
+            "");
+
+    @TempDir
+    static Path tempDir;
+
+    private static ClassLoader codecLoader;
+    private static ClassLoader reflectionLoader;
+    private static List<Diagnostic<? extends JavaFileObject>> diagnostics;
+
+    @BeforeAll
+    static void compileSources() throws IOException {
+        Path sourceDir = Files.createDirectories(tempDir.resolve("src/codectest"));
+        Path sampleFile = Files.write(sourceDir.resolve("SampleConfig.java"), SAMPLE_CONFIG.getBytes(StandardCharsets.UTF_8));
+        Path privateFile = Files.write(sourceDir.resolve("PrivateFieldConfig.java"), PRIVATE_FIELD_CONFIG.getBytes(StandardCharsets.UTF_8));
+        List<File> sources = Arrays.asList(sampleFile.toFile(), privateFile.toFile());
+
+        Path codecOutput = Files.createDirectories(tempDir.resolve("codec"));
+        diagnostics = compile(sources, codecOutput, "-processor", "me.Silverwolfg11.CommentConfig.processor.ConfigCodecProcessor");
+
+        Path reflectionOutput = Files.createDirectories(tempDir.resolve("reflection"));
+        compile(sources, reflectionOutput, "-proc:none");
+
+        ClassLoader parent = ConfigCodecProcessorTests.class.getClassLoader();
+        codecLoader = new URLClassLoader(new URL[] { codecOutput.toUri().toURL() }, parent);
+        reflectionLoader = new URLClassLoader(new URL[] { reflectionOutput.toUri().toURL() }, parent);
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(List<File> sources, Path output, String... extraOptions) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+
+        List<String> options = new ArrayList<>(Arrays.asList(
+                "-d", output.toString(),
+                "-classpath", System.getProperty("java.class.path")
+        ));
+        options.addAll(Arrays.asList(extraOptions));
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(collector, null, StandardCharsets.UTF_8)) {
+            Boolean success = compiler.getTask(null, fileManager, collector, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(sources)).call();
+
+            Assertions.assertTrue(success, () -> "Compilation failed:\n" + collector.getDiagnostics().stream()
+                    .map(Object::toString)
+                    .collect(Collectors.joining("\n")));
+        }
+
+        return collector.getDiagnostics();
+    }
+
+    private static Object newInstance(ClassLoader loader, String className) throws ReflectiveOperationException {
+        Class<?> clazz = loader.loadClass(className);
+        java.lang.reflect.Constructor<?> constructor = clazz.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+
+    private static String serialize(Object obj) {
+        return new NodeSerializer().serializeToString(ClassSerializer.serializeClass(obj));
+    }
+
+    @Test
+    void generatesCodecsForSupportedClasses() {
+        Assertions.assertDoesNotThrow(() -> codecLoader.loadClass("codectest.SampleConfig_CommentConfigCodec"));
+        Assertions.assertDoesNotThrow(() -> codecLoader.loadClass("codectest.SampleConfig_Inner_CommentConfigCodec"));
+        Assertions.assertThrows(ClassNotFoundException.class, () -> codecLoader.loadClass("codectest.PrivateFieldConfig_CommentConfigCodec"));
+
+        boolean notedPrivateField = diagnostics.stream()
+                .anyMatch(d -> d.getKind() == Diagnostic.Kind.NOTE && d.getMessage(null).contains("PrivateFieldConfig"));
+        Assertions.assertTrue(notedPrivateField, "Expected a note about the unsupported class!");
+    }
+
+    @Test
+    void codecSerializationMatchesReflection() throws ReflectiveOperationException {
+        String codecYaml = serialize(newInstance(codecLoader, "codectest.SampleConfig"));
+        String reflectionYaml = serialize(newInstance(reflectionLoader, "codectest.SampleConfig"));
+
+        Assertions.assertEquals(reflectionYaml, codecYaml);
+    }
+
+    @Test
+    void codecDeserializationMatchesReflection() throws ClassNotFoundException {
+        ClassDeserializer deserializer = new ClassDeserializer();
+
+        Object codecObject = deserializer.deserializeClass(CHANGED_YAML, codecLoader.loadClass("codectest.SampleConfig"));
+        Object reflectionObject = deserializer.deserializeClass(CHANGED_YAML, reflectionLoader.loadClass("codectest.SampleConfig"));
+
+        String codecYaml = serialize(codecObject);
+        Assertions.assertEquals(serialize(reflectionObject), codecYaml);
+        Assertions.assertTrue(codecYaml.contains("nested: deeper"));
+        Assertions.assertTrue(codecYaml.contains("value: changed inner"));
+    }
+}
@@ -0,0 +1,16 @@
+package me.Silverwolfg11.CommentConfig.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Represent other names that an enum constant
+ * can be deserialized from.
+ * <br><br>
+ * The constant is still serialized using its name.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Alias {
+
+    String[] value();
+}
@@ -0,0 +1,16 @@
+package me.Silverwolfg11.CommentConfig.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Represent that the comments of the elements of a collection field should be written
+ * once above the sequence instead of for every element.
+ * <br><br>
+ * Only applies to elements that are {@link SerializableConfig} classes.
+ * The comments of the fields of an element are written as {@code path: comment} above the sequence,
+ * where the path is the node path of the field within the element.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SequenceComments {
+}
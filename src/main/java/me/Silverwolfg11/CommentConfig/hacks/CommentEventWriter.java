@@ -0,0 +1,293 @@
+package me.Silverwolfg11.CommentConfig.hacks;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.DocumentEndEvent;
+import org.yaml.snakeyaml.events.DocumentStartEvent;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+import org.yaml.snakeyaml.events.StreamEndEvent;
+import org.yaml.snakeyaml.events.StreamStartEvent;
+import org.yaml.snakeyaml.nodes.AnchorNode;
+import org.yaml.snakeyaml.nodes.CollectionNode;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+import org.yaml.snakeyaml.serializer.AnchorGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a YAML document by sending events straight to SnakeYAML's emitter,
+ * without building a node graph of the whole document first.
+ *
+ * Mappings, sequences and keys are emitted directly. Only the values passed to
+ * {@link #writeValue(Object)} are represented as a node graph, which is then serialized
+ * the same way SnakeYAML's serializer does it.
+ *
+ * Comments are injected exactly like {@link CommentYAML} injects them, so the output
+ * is the same as dumping the equivalent comment key map.
+ */
+public class CommentEventWriter {
+
+    private final CommentYAML yaml;
+    private final DumperOptions options;
+    private final Resolver resolver;
+    private final EmitterProxy emitterProxy;
+    private final Emitter emitter;
+    private final DumperOptions.FlowStyle flowStyle;
+
+    public CommentEventWriter(Writer writer, CommentYAML yaml) {
+        this.yaml = yaml;
+        this.options = yaml.getDumperOptions();
+        this.resolver = yaml.getResolver();
+        this.emitterProxy = new EmitterProxy(writer, options);
+        this.emitter = emitterProxy.getEmitter();
+
+        // The best flow style can't be known before the collection is written
+        DumperOptions.FlowStyle defaultFlowStyle = options.getDefaultFlowStyle();
+        this.flowStyle = defaultFlowStyle == DumperOptions.FlowStyle.AUTO ? DumperOptions.FlowStyle.BLOCK : defaultFlowStyle;
+    }
+
+    public void startDocument() throws IOException {
+        emitter.emit(new StreamStartEvent(null, null));
+        emitter.emit(new DocumentStartEvent(null, null, options.isExplicitStart(), options.getVersion(), options.getTags()));
+    }
+
+    /**
+     * End the document. The writer is flushed, but not closed.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public void endDocument() throws IOException {
+        emitter.emit(new DocumentEndEvent(null, null, options.isExplicitEnd()));
+        emitter.emit(new StreamEndEvent(null, null));
+    }
+
+    public void startMapping() throws IOException {
+        boolean implicit = Tag.MAP.equals(resolver.resolve(NodeId.mapping, null, true));
+        emitter.emit(new MappingStartEvent(null, Tag.MAP.getValue(), implicit, null, null, flowStyle));
+    }
+
+    public void endMapping() throws IOException {
+        emitter.emit(new MappingEndEvent(null, null));
+    }
+
+    public void startSequence() throws IOException {
+        boolean implicit = Tag.SEQ.equals(resolver.resolve(NodeId.sequence, null, true));
+        emitter.emit(new SequenceStartEvent(null, Tag.SEQ.getValue(), implicit, null, null, flowStyle));
+    }
+
+    public void endSequence() throws IOException {
+        emitter.emit(new SequenceEndEvent(null, null));
+    }
+
+    /**
+     * Write a mapping key.
+     *
+     * @param key Key to write.
+     * @param comments Comments to write before the key or {@code null}.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public void writeKey(String key, String[] comments) throws IOException {
+        DumperOptions.ScalarStyle style = options.getDefaultScalarStyle();
+        if (comments != null) {
+            // Same as what the CommentScalarNode of a CommentKey does
+            emitterProxy.addCommentEvent(new CommentEvent(comments));
+            style = DumperOptions.ScalarStyle.PLAIN;
+        }
+
+        emitScalar(null, Tag.STR, key, style);
+    }
+
+    /**
+     * Write a value through SnakeYAML's representer.
+     *
+     * @param value Value to write.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public void writeValue(Object value) throws IOException {
+        Node node = yaml.represent(value);
+
+        // Scalars can't be anchored
+        if (node instanceof ScalarNode) {
+            ScalarNode scalarNode = (ScalarNode) node;
+            emitScalar(null, node.getTag(), scalarNode.getValue(), scalarNode.getScalarStyle());
+            return;
+        }
+
+        Map<Node, String> anchors = new HashMap<>();
+        anchorNode(node, anchors, options.getAnchorGenerator());
+        serializeNode(node, anchors, new HashSet<>());
+    }
+
+    /**
+     * Write an int value without boxing it.
+     * The value is written the same way SnakeYAML represents an integer.
+     *
+     * @param value Value to write.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public void writeInt(int value) throws IOException {
+        if (yaml.hasSerializer(Integer.class)) {
+            writeValue(value);
+            return;
+        }
+
+        emitScalar(null, Tag.INT, String.valueOf(value), options.getDefaultScalarStyle());
+    }
+
+    /**
+     * Write a long value without boxing it.
+     * The value is written the same way SnakeYAML represents a long.
+     *
+     * @param value Value to write.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public void writeLong(long value) throws IOException {
+        if (yaml.hasSerializer(Long.class)) {
+            writeValue(value);
+            return;
+        }
+
+        emitScalar(null, Tag.INT, String.valueOf(value), options.getDefaultScalarStyle());
+    }
+
+    /**
+     * Write a double value without boxing it.
+     * The value is written the same way SnakeYAML represents a double.
+     *
+     * @param value Value to write.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public void writeDouble(double value) throws IOException {
+        if (yaml.hasSerializer(Double.class)) {
+            writeValue(value);
+            return;
+        }
+
+        String text;
+        if (Double.isNaN(value)) {
+            text = ".NaN";
+        }
+        else if (value == Double.POSITIVE_INFINITY) {
+            text = ".inf";
+        }
+        else if (value == Double.NEGATIVE_INFINITY) {
+            text = "-.inf";
+        }
+        else {
+            text = String.valueOf(value);
+        }
+
+        emitScalar(null, Tag.FLOAT, text, options.getDefaultScalarStyle());
+    }
+
+    /**
+     * Write a boolean value.
+     * The value is written the same way SnakeYAML represents a boolean.
+     *
+     * @param value Value to write.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public void writeBoolean(boolean value) throws IOException {
+        if (yaml.hasSerializer(Boolean.class)) {
+            writeValue(value);
+            return;
+        }
+
+        emitScalar(null, Tag.BOOL, value ? "true" : "false", options.getDefaultScalarStyle());
+    }
+
+    private void emitScalar(String anchor, Tag tag, String value, DumperOptions.ScalarStyle style) throws IOException {
+        Tag detectedTag = resolver.resolve(NodeId.scalar, value, true);
+        Tag defaultTag = resolver.resolve(NodeId.scalar, value, false);
+        ImplicitTuple tuple = new ImplicitTuple(tag.equals(detectedTag), tag.equals(defaultTag));
+        emitter.emit(new ScalarEvent(anchor, tag.getValue(), tuple, value, null, null, style));
+    }
+
+    // Anchors and serializes a value node the same way SnakeYAML's Serializer does.
+    private static void anchorNode(Node node, Map<Node, String> anchors, AnchorGenerator anchorGenerator) {
+        if (node.getNodeId() == NodeId.anchor) {
+            node = ((AnchorNode) node).getRealNode();
+        }
+
+        if (anchors.containsKey(node)) {
+            if (anchors.get(node) == null) {
+                anchors.put(node, anchorGenerator.nextAnchor(node));
+            }
+            return;
+        }
+
+        anchors.put(node, null);
+        if (node.getNodeId() == NodeId.sequence) {
+            for (Node item : ((SequenceNode) node).getValue()) {
+                anchorNode(item, anchors, anchorGenerator);
+            }
+        }
+        else if (node.getNodeId() == NodeId.mapping) {
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                anchorNode(tuple.getKeyNode(), anchors, anchorGenerator);
+                anchorNode(tuple.getValueNode(), anchors, anchorGenerator);
+            }
+        }
+    }
+
+    private void serializeNode(Node node, Map<Node, String> anchors, Set<Node> serializedNodes) throws IOException {
+        if (node.getNodeId() == NodeId.anchor) {
+            node = ((AnchorNode) node).getRealNode();
+        }
+
+        String anchor = anchors.get(node);
+        if (!serializedNodes.add(node)) {
+            emitter.emit(new AliasEvent(anchor, null, null));
+            return;
+        }
+
+        switch (node.getNodeId()) {
+            case scalar:
+                ScalarNode scalarNode = (ScalarNode) node;
+                emitScalar(anchor, node.getTag(), scalarNode.getValue(), scalarNode.getScalarStyle());
+                break;
+            case sequence:
+                boolean implicitS = node.getTag().equals(resolver.resolve(NodeId.sequence, null, true));
+                emitter.emit(new SequenceStartEvent(anchor, node.getTag().getValue(), implicitS,
+                        null, null, ((CollectionNode<?>) node).getFlowStyle()));
+                for (Node item : ((SequenceNode) node).getValue()) {
+                    serializeNode(item, anchors, serializedNodes);
+                }
+                emitter.emit(new SequenceEndEvent(null, null));
+                break;
+            default:
+                boolean implicitM = node.getTag().equals(resolver.resolve(NodeId.mapping, null, true));
+                emitter.emit(new MappingStartEvent(anchor, node.getTag().getValue(), implicitM,
+                        null, null, ((CollectionNode<?>) node).getFlowStyle()));
+                for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                    serializeNode(tuple.getKeyNode(), anchors, serializedNodes);
+                    serializeNode(tuple.getValueNode(), anchors, serializedNodes);
+                }
+                emitter.emit(new MappingEndEvent(null, null));
+        }
+    }
+}
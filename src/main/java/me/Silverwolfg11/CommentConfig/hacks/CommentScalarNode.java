@@ -16,6 +16,7 @@ import org.yaml.snakeyaml.nodes.Tag;
 public class CommentScalarNode extends ScalarNode {
     private boolean firstCall = true;
     protected Runnable run;
+    protected String[] comments;
 
     public CommentScalarNode(Tag tag, String value, Mark startMark, Mark endMark, DumperOptions.ScalarStyle style) {
         super(tag, value, startMark, endMark, style);
@@ -26,6 +27,25 @@ public class CommentScalarNode extends ScalarNode {
         return this;
     }
 
+    public CommentScalarNode withComments(String[] comments) {
+        this.comments = comments;
+        return this;
+    }
+
+    public String[] getComments() {
+        return comments;
+    }
+
+    /**
+     * Get the node value without running the first call function.
+     * Used by emitters that write the comments themselves.
+     *
+     * @return the node value.
+     */
+    public String getRawValue() {
+        return super.getValue();
+    }
+
     @Override
     public String getValue() {
         // Only run the function the first time getValue() is called
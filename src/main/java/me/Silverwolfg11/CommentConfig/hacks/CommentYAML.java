@@ -6,24 +6,70 @@ import org.yaml.snakeyaml.error.YAMLException;
 import org.yaml.snakeyaml.nodes.Node;
 import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.representer.Represent;
+import org.yaml.snakeyaml.resolver.Resolver;
 import org.yaml.snakeyaml.serializer.Serializer;
 
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
+/**
+ * A {@link Yaml} that dumps maps of {@link me.Silverwolfg11.CommentConfig.node.CommentKey}s with their comments.
+ * <br><br>
+ * SnakeYAML's representers keep state while representing an object, and the key representer
+ * keeps the emitter of the current dump. So every thread represents and dumps through its own representer,
+ * which makes dumping thread-safe.
+ */
 public class CommentYAML extends Yaml {
 
-    final KeyRepresenter keyRepresenter;
+    // Custom serializers by class. Replaced instead of modified, so that representers can tell if they're outdated.
+    private volatile Map<Class<?>, Represent> serializers = Collections.emptyMap();
+    private final ThreadLocal<KeyRepresenter> representers = new ThreadLocal<>();
 
     public CommentYAML(DumperOptions options) {
         super(new KeyRepresenter(options), options);
-        keyRepresenter = (KeyRepresenter) this.representer;
     }
 
-    public void addSerializer(Class<?> clazz, Represent representer) {
-        keyRepresenter.addRepresenter(clazz, representer);
+    public synchronized void addSerializer(Class<?> clazz, Represent representer) {
+        Map<Class<?>, Represent> newSerializers = new HashMap<>(serializers);
+        newSerializers.put(clazz, representer);
+        serializers = newSerializers;
+    }
+
+    // Get the representer of the current thread
+    KeyRepresenter getRepresenter() {
+        Map<Class<?>, Represent> currentSerializers = serializers;
+        KeyRepresenter representer = representers.get();
+        if (representer == null || representer.serializers != currentSerializers) {
+            representer = new KeyRepresenter(dumperOptions, currentSerializers);
+            representers.set(representer);
+        }
+
+        return representer;
+    }
+
+    // If values of a class are represented by a custom serializer
+    boolean hasSerializer(Class<?> clazz) {
+        return serializers.containsKey(clazz);
+    }
+
+    @Override
+    public Node represent(Object data) {
+        return getRepresenter().represent(data);
+    }
+
+    DumperOptions getDumperOptions() {
+        return dumperOptions;
+    }
+
+    Resolver getResolver() {
+        return resolver;
     }
 
     // Override the dump method to use our custom one
@@ -34,10 +80,21 @@ public class CommentYAML extends Yaml {
         return buffer.toString();
     }
 
+    @Override
+    public void dump(Object data, Writer output) {
+        this.dumpAll(Collections.singletonList(data).iterator(), output, (Tag)null);
+    }
+
+    @Override
+    public void dumpAll(Iterator<? extends Object> data, Writer output) {
+        this.dumpAll(data, output, (Tag)null);
+    }
+
     private void dumpAll(Iterator<? extends Object> data, Writer output, Tag rootTag) {
         // This dump method is exactly like SnakeYAML's but this method allows us to
         // capture the emitter for use.
         EmitterProxy emitterProxy = new EmitterProxy(output, this.dumperOptions);
+        KeyRepresenter keyRepresenter = getRepresenter();
         keyRepresenter.setEmitterProxy(emitterProxy);
         Serializer serializer = new Serializer(emitterProxy.getEmitter(), this.resolver, this.dumperOptions, rootTag);
 
@@ -45,7 +102,7 @@ public class CommentYAML extends Yaml {
             serializer.open();
 
             while(data.hasNext()) {
-                Node node = this.representer.represent(data.next());
+                Node node = keyRepresenter.represent(data.next());
                 serializer.serialize(node);
             }
 
@@ -55,6 +112,40 @@ public class CommentYAML extends Yaml {
         }
     }
 
+    /**
+     * Represent values with the representer of the current thread.
+     * The values are represented together, so a value that occurs more than once
+     * is represented by the same node and gets anchored when it's dumped.
+     *
+     * @param values Values to represent.
+     *
+     * @return the nodes of the values, in the same order.
+     */
+    public List<Node> representValues(List<?> values) {
+        return getRepresenter().representValues(values);
+    }
+
+    /**
+     * Dump a node graph that is built for this dump.
+     * The builder gets the representer of the current thread, and the comment keys it
+     * creates through {@link KeyRepresenter#representKey(String, String[])} write their comments into this dump.
+     *
+     * @param nodeBuilder Builds the node graph to dump.
+     * @param output Writer to dump to.
+     */
+    public void dumpNode(Function<KeyRepresenter, Node> nodeBuilder, Writer output) {
+        EmitterProxy emitterProxy = new EmitterProxy(output, this.dumperOptions);
+        KeyRepresenter keyRepresenter = getRepresenter();
+        keyRepresenter.setEmitterProxy(emitterProxy);
+        Serializer serializer = new Serializer(emitterProxy.getEmitter(), this.resolver, this.dumperOptions, null);
 
+        try {
+            serializer.open();
+            serializer.serialize(nodeBuilder.apply(keyRepresenter));
+            serializer.close();
+        } catch (IOException e) {
+            throw new YAMLException(e);
+        }
+    }
 
 }
@@ -9,78 +9,144 @@ import org.yaml.snakeyaml.events.SequenceStartEvent;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
 
 public class EmitterProxy {
 
+    // Handles to SnakeYAML's emitter internals, resolved once.
+    // A handle is null if the member could not be found, e.g. on a different SnakeYAML version.
+    private static final MethodHandle INDENT_GETTER;
+    private static final MethodHandle COLUMN_GETTER;
+    private static final MethodHandle EVENTS_SETTER;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        INDENT_GETTER = findGetter(lookup, "indent", Integer.class);
+        COLUMN_GETTER = findGetter(lookup, "column", int.class);
+        EVENTS_SETTER = findSetter(lookup, "events", Queue.class);
+    }
+
     protected final Queue<Event> eventQueue;
     protected final Emitter emitter;
     protected Writer writer;
     protected final char[] bestLineBreak;
     protected boolean firstLine = true;
-
-    // Reflection
-    private Field indent;
+    // If the comment queue replaced the emitter's event queue
+    private final boolean queueInserted;
 
     public EmitterProxy(Writer writer, DumperOptions options) {
         this.emitter = new Emitter(writer, options);
-        this.eventQueue = new CheckedABQ<>(100);
+        this.eventQueue = new CommentQueue();
         this.writer = writer;
         this.bestLineBreak = options.getLineBreak().getString().toCharArray();
-        setIndentField();
-        insertCustomQueue();
+        this.queueInserted = insertCustomQueue();
     }
 
-    private void setIndentField() {
+    private static Field findField(String name, Class<?> type) {
         try {
-            indent = emitter.getClass().getDeclaredField("indent");
-            indent.setAccessible(true);
-        } catch (ReflectiveOperationException ex) {
-            ex.printStackTrace();
+            Field field = Emitter.class.getDeclaredField(name);
+            if (field.getType() != type)
+                return null;
+
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
         }
     }
 
-    private int getIndent() {
+    // Getter of type (Emitter) -> type
+    private static MethodHandle findGetter(MethodHandles.Lookup lookup, String name, Class<?> type) {
+        Field field = findField(name, type);
+        if (field == null)
+            return null;
+
         try {
-            return (int) indent.get(emitter);
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
+            return lookup.unreflectGetter(field).asType(MethodType.methodType(type, Emitter.class));
+        } catch (IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    // Setter of type (Emitter, type) -> void
+    private static MethodHandle findSetter(MethodHandles.Lookup lookup, String name, Class<?> type) {
+        Field field = findField(name, type);
+        if (field == null)
+            return null;
+
+        MethodHandle setter;
+        try {
+            setter = lookup.unreflectSetter(field);
+        } catch (IllegalAccessException ex) {
+            // Some JVMs don't create setter handles for final fields, so set the field reflectively
+            try {
+                setter = lookup.findVirtual(Field.class, "set", MethodType.methodType(void.class, Object.class, Object.class))
+                        .bindTo(field);
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
         }
 
-        return -1;
+        return setter.asType(MethodType.methodType(void.class, Emitter.class, type));
     }
 
-    private int getColumn() {
+    // The emitter's indentation or 0 if it can't be read
+    private int getIndent() {
+        if (INDENT_GETTER == null)
+            return 0;
+
         try {
-            Field column = emitter.getClass().getDeclaredField("column");
-            column.setAccessible(true);
-            int col = (int) column.get(emitter);
-            column.setAccessible(false);
-            return col;
-        } catch (ReflectiveOperationException ex) {
-            ex.printStackTrace();
+            Integer indent = (Integer) INDENT_GETTER.invokeExact(emitter);
+            return indent != null ? indent : 0;
+        } catch (Throwable t) {
+            return 0;
         }
+    }
 
-        return -1;
+    // The emitter's column or -1 if it can't be read
+    private int getColumn() {
+        if (COLUMN_GETTER == null)
+            return -1;
+
+        try {
+            return (int) COLUMN_GETTER.invokeExact(emitter);
+        } catch (Throwable t) {
+            return -1;
+        }
     }
 
-    private void insertCustomQueue() {
+    private boolean insertCustomQueue() {
+        if (EVENTS_SETTER == null)
+            return false;
+
         try {
-            Field field = emitter.getClass().getDeclaredField("events");
-            field.setAccessible(true);
-            field.set(emitter, eventQueue);
-            field.setAccessible(false);
-        } catch (ReflectiveOperationException e) {
-            e.printStackTrace();
+            EVENTS_SETTER.invokeExact(emitter, (Queue) eventQueue);
+            return true;
+        } catch (Throwable t) {
+            return false;
         }
     }
 
+    /**
+     * Queue comments to be written before the next event.
+     * If the emitter's event queue could not be replaced, the comments are dropped
+     * so that the YAML itself is still written.
+     *
+     * @param event Comment event to queue.
+     */
+    public void addCommentEvent(CommentEvent event) {
+        if (queueInserted)
+            eventQueue.add(event);
+    }
+
     public Emitter getEmitter() {
         return emitter;
     }
@@ -198,15 +264,11 @@ public class EmitterProxy {
     }
 
     /**
-     * A class that extends the ArrayBlockingQueue to be injected into the Emitter field.
+     * An event queue to be injected into the Emitter field.
      * This modifies the poll method to check polls for CommentEvents and
      * write the comment to the output.
      */
-    private class CheckedABQ<T> extends ArrayBlockingQueue<T> {
-
-        private CheckedABQ(int capacity) {
-            super(capacity);
-        }
+    private class CommentQueue extends RingBufferQueue<Event> {
 
         // Use the collection stack to indicate whether
         // an element is being written within a sequence
@@ -247,8 +309,8 @@ public class EmitterProxy {
         }
 
         @Override
-        public T poll() {
-            T el = super.poll();
+        public Event poll() {
+            Event el = super.poll();
 
             if (el instanceof CommentEvent) {
                 CommentEvent commentEvent = (CommentEvent) el;
@@ -7,6 +7,11 @@ import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.representer.Represent;
 import org.yaml.snakeyaml.representer.Representer;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 /**
  * This is the representer that will convert {@link CommentKey} to a {@link CommentScalarNode}
  * via SnakeYAML. Also handles the callback function to add the {@link CommentEvent} to the
@@ -15,10 +20,24 @@ import org.yaml.snakeyaml.representer.Representer;
 public class KeyRepresenter extends Representer {
 
     protected EmitterProxy emitterProxy;
+    // Custom serializers the representer was created with
+    final Map<Class<?>, Represent> serializers;
 
     public KeyRepresenter(DumperOptions options) {
+        this(options, Collections.emptyMap());
+    }
+
+    KeyRepresenter(DumperOptions options, Map<Class<?>, Represent> serializers) {
         super(options);
+        this.serializers = serializers;
         this.representers.put(CommentKey.class, new RepresentNode());
+        this.representers.putAll(serializers);
+
+        // Same as what the Yaml constructor does to its representer
+        setDefaultFlowStyle(options.getDefaultFlowStyle());
+        setDefaultScalarStyle(options.getDefaultScalarStyle());
+        getPropertyUtils().setAllowReadOnlyProperties(options.isAllowReadOnlyProperties());
+        setTimeZone(options.getTimeZone());
     }
 
     public void setEmitterProxy(EmitterProxy proxy) {
@@ -29,24 +48,54 @@ public class KeyRepresenter extends Representer {
         this.representers.put(clazz, representer);
     }
 
-    private class RepresentNode implements Represent {
+    /**
+     * Represent a mapping key. A key with comments is represented by a {@link CommentScalarNode}
+     * that queues its comments to the emitter proxy when it's serialized.
+     *
+     * @param key Key to represent.
+     * @param comments Comments of the key or {@code null}.
+     *
+     * @return the key node.
+     */
+    public Node representKey(String key, String[] comments) {
+        if (comments != null) {
+            return new CommentScalarNode(Tag.STR, key, null, null, DumperOptions.ScalarStyle.PLAIN)
+                    .withComments(comments)
+                    .onFirstCall(() -> emitterProxy.addCommentEvent(new CommentEvent(comments)));
+        }
+        else {
+            return representScalar(Tag.STR, key);
+        }
+    }
 
-        private void addCommentEvent(String[] comments) {
-            KeyRepresenter.this.emitterProxy.getEventQueue().add(new CommentEvent(comments));
+    /**
+     * Represent values together, like the values of a single object.
+     *
+     * @param values Values to represent.
+     *
+     * @return the nodes of the values, in the same order.
+     */
+    public List<Node> representValues(List<?> values) {
+        List<Node> nodes = new ArrayList<>(values.size());
+        try {
+            for (Object value : values) {
+                nodes.add(representData(value));
+            }
+        } finally {
+            // Same clean up as after representing a single object
+            representedObjects.clear();
+            objectToRepresent = null;
         }
 
+        return nodes;
+    }
+
+    private class RepresentNode implements Represent {
+
         @Override
         public Node representData(Object o) {
             CommentKey obj = (CommentKey) o;
-            String val = obj.getKey();
-
-            if (obj.hasComments()) {
-                return new CommentScalarNode(Tag.STR, val, null, null, DumperOptions.ScalarStyle.PLAIN)
-                        .onFirstCall(() -> addCommentEvent(obj.getComments()));
-            }
-            else {
-                return representScalar(Tag.STR, val);
-            }
+            return representKey(obj.getKey(), obj.getComments());
         }
     }
 }
@@ -0,0 +1,136 @@
+package me.Silverwolfg11.CommentConfig.hacks;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * An unsynchronized queue backed by a ring buffer that grows when it's full.
+ * <br><br>
+ * SnakeYAML's emitter is only ever used from one thread, so its event queue
+ * doesn't need the locking of an {@link java.util.concurrent.ArrayBlockingQueue},
+ * and it shouldn't fail when more events are pending than the initial capacity.
+ * Like other queues, it can't hold {@code null} elements.
+ *
+ * @param <T> Element type.
+ */
+public class RingBufferQueue<T> extends AbstractQueue<T> {
+
+    private Object[] elements;
+    // Index of the first element
+    private int head;
+    private int size;
+    private int modCount;
+
+    public RingBufferQueue() {
+        this(16);
+    }
+
+    /**
+     * Create a queue with an initial capacity.
+     *
+     * @param initialCapacity Initial capacity, rounded up to a power of two.
+     */
+    public RingBufferQueue(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+        this.elements = new Object[capacity];
+    }
+
+    // Double the capacity and move the elements to the start of the new buffer
+    private void grow() {
+        int capacity = elements.length;
+        if (capacity == 1 << 30)
+            throw new IllegalStateException("Queue is too large!");
+
+        Object[] newElements = new Object[capacity << 1];
+        int firstPart = capacity - head;
+        System.arraycopy(elements, head, newElements, 0, firstPart);
+        System.arraycopy(elements, 0, newElements, firstPart, head);
+        elements = newElements;
+        head = 0;
+    }
+
+    @Override
+    public boolean offer(T element) {
+        Objects.requireNonNull(element);
+        if (size == elements.length)
+            grow();
+
+        elements[(head + size) & (elements.length - 1)] = element;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        if (size == 0)
+            return null;
+
+        T element = (T) elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        modCount++;
+        return element;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return size == 0 ? null : (T) elements[head];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(elements, null);
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Get an iterator over the elements from head to tail.
+     * The iterator doesn't support removing elements.
+     *
+     * @return the iterator.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final int expectedModCount = modCount;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+
+                if (index >= size)
+                    throw new NoSuchElementException();
+
+                return (T) elements[(head + index++) & (elements.length - 1)];
+            }
+        };
+    }
+}
@@ -53,6 +53,13 @@ public abstract class ConfigNode {
         this.comments = comments;
     }
 
+    /**
+     * Remove any comments associated with the node.
+     */
+    public void removeComments() {
+        this.comments = null;
+    }
+
     /**
      * Check if this node has a key associated with it.
      * Any nodes that do not have keys are most likely root nodes.
@@ -79,7 +86,12 @@ public abstract class ConfigNode {
      * @param key Key to associate with the node.
      */
     public void setKey(String key) {
+        String oldKey = this.key;
         this.key = key;
+
+        // Keep the parent section and its path index in sync
+        if (parent != null && key != null && !key.equals(oldKey))
+            parent.renameChild(this, oldKey);
     }
 
     /**
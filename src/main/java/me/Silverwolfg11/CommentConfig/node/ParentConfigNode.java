@@ -1,19 +1,40 @@
 package me.Silverwolfg11.CommentConfig.node;
 
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * An abstraction of a YAML section in node format.
  * <br>
  * To create the very top section, the "root" node, use
  * {@link ParentConfigNode#createRoot()}.
+ * <br><br>
+ * Nodes can be looked up by a dotted path like {@code "level1.level2.key"}, relative to the section.
+ * Keys that contain a {@code '.'} can't be reached through a path.
+ * For large trees, the root can keep a path index so that lookups don't walk the tree,
+ * see {@link #enablePathIndex()}.
  */
 public class ParentConfigNode extends ConfigNode {
-    private Map<String, ConfigNode> children;
+    // Sections with more children than this get a hash table of their keys
+    private static final int HASH_THRESHOLD = 8;
+
+    // Children in insertion order, with their keys in a parallel array.
+    // Most sections only have a few children, so this takes far less memory than a LinkedHashMap.
+    private String[] childKeys;
+    private ConfigNode[] childNodes;
+    private int childCount;
+    // Open addressing table with linear probing, holding child positions plus one, or null for small sections
+    private int[] childTable;
+    // Nodes by their path from the root, if this section is in an indexed tree
+    private Map<String, ConfigNode> pathIndex;
+    // Path of this section in the path index or null for the root of the index
+    private String indexedPath;
 
     // Only used for root node
     private ParentConfigNode() {}
@@ -28,7 +49,7 @@ public class ParentConfigNode extends ConfigNode {
      * @return if this section has child nodes.
      */
     public boolean hasChildren() {
-        return children != null && !children.isEmpty();
+        return childCount != 0;
     }
 
     /**
@@ -57,7 +78,7 @@ public class ParentConfigNode extends ConfigNode {
      */
     public boolean hasChild(String key) {
         Objects.requireNonNull(key);
-        return hasChildren() && children.containsKey(key);
+        return indexOf(key) != -1;
     }
 
     /**
@@ -151,14 +172,25 @@ public class ParentConfigNode extends ConfigNode {
         Objects.requireNonNull(childNode);
         Objects.requireNonNull(childNode.getKey());
 
-        if (children == null)
-            children = new LinkedHashMap<>();
-
         // Force-fully re-parent to maintain correct tree
         if (!childNode.hasParent() || childNode.getParent() != this)
             childNode.setParent(this);
 
-        children.put(childNode.getKey(), childNode);
+        ConfigNode replacedNode = putChild(childNode.getKey(), childNode);
+        if (replacedNode == childNode)
+            replacedNode = null;
+
+        Map<String, ConfigNode> index = getPathIndex();
+        if (index != null) {
+            String path = getChildPath(childNode.getKey());
+            if (replacedNode != null)
+                unindex(index, replacedNode, path);
+
+            index(index, childNode, path);
+        }
+
+        if (replacedNode != null)
+            replacedNode.setParent(null);
     }
 
     /**
@@ -171,15 +203,59 @@ public class ParentConfigNode extends ConfigNode {
      * @return if a child node was removed.
      */
     public boolean removeChild(ConfigNode configNode) {
-        if (!hasChild(configNode))
+        Objects.requireNonNull(configNode);
+        int position = indexOf(Objects.requireNonNull(configNode.getKey()));
+        if (position == -1)
             return false;
 
-        children.remove(configNode.getKey());
+        ConfigNode removedNode = removeChildAt(position);
+
+        Map<String, ConfigNode> index = getPathIndex();
+        if (index != null)
+            unindex(index, removedNode, getChildPath(removedNode.getKey()));
+
         configNode.setParent(null);
 
         return true;
     }
 
+    // Re-key a child node after its key changed, keeping its position in the section
+    void renameChild(ConfigNode childNode, String oldKey) {
+        int position = oldKey != null ? indexOf(oldKey) : -1;
+        if (position == -1 || childNodes[position] != childNode)
+            return;
+
+        String newKey = childNode.getKey();
+        // A child with the new key is replaced
+        int replacedPosition = indexOf(newKey);
+        ConfigNode replacedNode = null;
+
+        if (childTable != null)
+            unlinkFromTable(position);
+
+        if (replacedPosition != -1) {
+            replacedNode = removeChildAt(replacedPosition);
+            if (replacedPosition < position)
+                position--;
+        }
+
+        childKeys[position] = newKey;
+        if (childTable != null)
+            insertIntoTable(position);
+
+        Map<String, ConfigNode> index = getPathIndex();
+        if (index != null) {
+            unindex(index, childNode, getChildPath(oldKey));
+            if (replacedNode != null)
+                unindex(index, replacedNode, getChildPath(newKey));
+
+            index(index, childNode, getChildPath(newKey));
+        }
+
+        if (replacedNode != null)
+            replacedNode.setParent(null);
+    }
+
     /**
      * Get a specific child node from a key.
      *
@@ -191,10 +267,8 @@ public class ParentConfigNode extends ConfigNode {
     public ConfigNode getChild(String key) {
         Objects.requireNonNull(key);
 
-        if (children != null)
-            return children.get(key);
-
-        return null;
+        int position = indexOf(key);
+        return position != -1 ? childNodes[position] : null;
     }
 
     /**
@@ -203,10 +277,345 @@ public class ParentConfigNode extends ConfigNode {
      * @return an <b>immutable</b> list of the child nodes.
      */
     public Collection<ConfigNode> getChildren() {
-        if (children == null || children.isEmpty())
+        if (childCount == 0)
             return Collections.emptyList();
 
-        return Collections.unmodifiableCollection(children.values());
+        return new ChildList();
+    }
+
+    // Get the position of the child with a key or -1 if there is none
+    private int indexOf(String key) {
+        if (childTable != null) {
+            int mask = childTable.length - 1;
+            for (int slot = hash(key) & mask; childTable[slot] != 0; slot = (slot + 1) & mask) {
+                int position = childTable[slot] - 1;
+                if (key.equals(childKeys[position]))
+                    return position;
+            }
+
+            return -1;
+        }
+
+        for (int i = 0; i < childCount; i++) {
+            if (key.equals(childKeys[i]))
+                return i;
+        }
+
+        return -1;
+    }
+
+    // Add or replace the child with a key, returning the replaced child
+    private ConfigNode putChild(String key, ConfigNode node) {
+        int position = indexOf(key);
+        if (position != -1) {
+            ConfigNode replacedNode = childNodes[position];
+            childNodes[position] = node;
+            return replacedNode;
+        }
+
+        if (childNodes == null) {
+            childKeys = new String[2];
+            childNodes = new ConfigNode[2];
+        }
+        else if (childCount == childNodes.length) {
+            int capacity = childCount + (childCount >> 1) + 1;
+            childKeys = Arrays.copyOf(childKeys, capacity);
+            childNodes = Arrays.copyOf(childNodes, capacity);
+        }
+
+        childKeys[childCount] = key;
+        childNodes[childCount] = node;
+        childCount++;
+
+        // Keep the table at most half full
+        if (childTable != null && childCount * 2 <= childTable.length) {
+            insertIntoTable(childCount - 1);
+        }
+        else if (childCount > HASH_THRESHOLD) {
+            rebuildTable();
+        }
+
+        return null;
+    }
+
+    private ConfigNode removeChildAt(int position) {
+        ConfigNode removedNode = childNodes[position];
+        int moved = childCount - position - 1;
+
+        if (childTable != null) {
+            if (childCount - 1 <= HASH_THRESHOLD) {
+                childTable = null;
+            }
+            else {
+                unlinkFromTable(position);
+
+                // Positions after the removed child move down by one
+                if (moved != 0) {
+                    for (int slot = 0; slot < childTable.length; slot++) {
+                        if (childTable[slot] > position + 1)
+                            childTable[slot]--;
+                    }
+                }
+            }
+        }
+
+        System.arraycopy(childKeys, position + 1, childKeys, position, moved);
+        System.arraycopy(childNodes, position + 1, childNodes, position, moved);
+        childCount--;
+        childKeys[childCount] = null;
+        childNodes[childCount] = null;
+
+        return removedNode;
+    }
+
+    private void rebuildTable() {
+        if (childCount <= HASH_THRESHOLD) {
+            childTable = null;
+            return;
+        }
+
+        int tableSize = Integer.highestOneBit(childCount * 4 - 1);
+        childTable = new int[tableSize];
+        for (int i = 0; i < childCount; i++) {
+            insertIntoTable(i);
+        }
+    }
+
+    private void insertIntoTable(int position) {
+        int mask = childTable.length - 1;
+        int slot = hash(childKeys[position]) & mask;
+        while (childTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+
+        childTable[slot] = position + 1;
+    }
+
+    // Remove the table entry of a position, using the key that's at the position.
+    // Entries later in the probe sequence are shifted back, so that lookups never stop at the emptied slot.
+    private void unlinkFromTable(int position) {
+        int mask = childTable.length - 1;
+        int slot = hash(childKeys[position]) & mask;
+        while (childTable[slot] != position + 1) {
+            slot = (slot + 1) & mask;
+        }
+
+        int gap = slot;
+        for (int next = (gap + 1) & mask; childTable[next] != 0; next = (next + 1) & mask) {
+            int home = hash(childKeys[childTable[next] - 1]) & mask;
+            // The entry can only move back if the gap is between its home slot and its slot
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                childTable[gap] = childTable[next];
+                gap = next;
+            }
+        }
+
+        childTable[gap] = 0;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    // Read-only view of the children of the section
+    private final class ChildList extends AbstractList<ConfigNode> implements RandomAccess {
+        @Override
+        public ConfigNode get(int index) {
+            if (index < 0 || index >= childCount)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + childCount);
+
+            return childNodes[index];
+        }
+
+        @Override
+        public int size() {
+            return childCount;
+        }
+    }
+
+    /**
+     * Get a node by its path relative to this section.
+     *
+     * @param path Dotted path of the node, like {@code "level1.key"}.
+     *             The path <b>cannot</b> be {@code null}.
+     *
+     * @return the node at the path or {@code null} if there is none.
+     */
+    public ConfigNode get(String path) {
+        Objects.requireNonNull(path);
+
+        Map<String, ConfigNode> index = getPathIndex();
+        if (index != null)
+            return index.get(getChildPath(path));
+
+        ParentConfigNode section = this;
+        int start = 0;
+        int end;
+        while ((end = path.indexOf('.', start)) != -1) {
+            ConfigNode child = section.getChild(path.substring(start, end));
+            if (!(child instanceof ParentConfigNode))
+                return null;
+
+            section = (ParentConfigNode) child;
+            start = end + 1;
+        }
+
+        return section.getChild(path.substring(start));
+    }
+
+    /**
+     * Set the value of the node at a path relative to this section.
+     * Any sections in the path that don't exist are created.
+     * <br><br>
+     * If a value node already exists at the path, its value is replaced and its comments are kept.
+     * Otherwise a new value node replaces whatever node is at the path.
+     *
+     * @param path Dotted path of the node, like {@code "level1.key"}.
+     *             The path <b>cannot</b> be {@code null}.
+     * @param value The value to set.
+     *              The value <b>cannot</b> be {@code null}.
+     *
+     * @return the value node at the path.
+     */
+    public ValueConfigNode set(String path, Object value) {
+        Objects.requireNonNull(path);
+        Objects.requireNonNull(value);
+
+        int lastDot = path.lastIndexOf('.');
+        ParentConfigNode section = lastDot == -1 ? this : getOrCreateSection(path.substring(0, lastDot));
+        String key = path.substring(lastDot + 1);
+
+        ConfigNode existingNode = section.getChild(key);
+        if (existingNode instanceof ValueConfigNode) {
+            ValueConfigNode valueNode = (ValueConfigNode) existingNode;
+            valueNode.setValue(value);
+            return valueNode;
+        }
+
+        return section.addChild(key, value);
+    }
+
+    /**
+     * Get the section at a path relative to this section.
+     * Any sections in the path that don't exist are created.
+     * A value node in the path is replaced by a section, like {@link #addSection(String)} does.
+     *
+     * @param path Dotted path of the section, like {@code "level1.level2"}.
+     *             The path <b>cannot</b> be {@code null}.
+     *
+     * @return the section at the path.
+     */
+    public ParentConfigNode getOrCreateSection(String path) {
+        Objects.requireNonNull(path);
+
+        ConfigNode existingNode = get(path);
+        if (existingNode instanceof ParentConfigNode)
+            return (ParentConfigNode) existingNode;
+
+        ParentConfigNode section = this;
+        int start = 0;
+        int end;
+        while ((end = path.indexOf('.', start)) != -1) {
+            section = section.addSection(path.substring(start, end));
+            start = end + 1;
+        }
+
+        return section.addSection(path.substring(start));
+    }
+
+    /**
+     * Keep an index of every node in the tree by its path, so that path lookups don't walk the tree.
+     * The index is kept in sync when nodes are added, removed or re-keyed.
+     * <br><br>
+     * Only a root section can have a path index.
+     * The index is dropped if the section is added to another section.
+     *
+     * @throws IllegalStateException if the section has a parent.
+     */
+    public void enablePathIndex() {
+        if (hasParent())
+            throw new IllegalStateException("Only a root section can have a path index!");
+
+        if (hasPathIndex())
+            return;
+
+        Map<String, ConfigNode> index = new HashMap<>();
+        for (ConfigNode child : getChildren()) {
+            index(index, child, child.getKey());
+        }
+
+        pathIndex = index;
+        indexedPath = null;
+    }
+
+    /**
+     * Check if this section keeps a path index.
+     *
+     * @return if the section keeps a path index.
+     */
+    public boolean hasPathIndex() {
+        return pathIndex != null && indexedPath == null;
+    }
+
+    @Override
+    protected void setParent(ParentConfigNode parent) {
+        super.setParent(parent);
+
+        // The index of a root is only kept up to date while it's a root,
+        // and a section that's taken out of its tree is no longer indexed
+        if (parent != null ? indexedPath == null : indexedPath != null) {
+            pathIndex = null;
+            indexedPath = null;
+        }
+    }
+
+    // Get the path index of the tree this section is in
+    // or null if the tree isn't indexed or the section can't be reached through a path
+    private Map<String, ConfigNode> getPathIndex() {
+        Map<String, ConfigNode> index = pathIndex;
+        if (index == null || indexedPath == null)
+            return index;
+
+        return index.get(indexedPath) == this ? index : null;
+    }
+
+    // Get the path from the root of the index to a child key of this section
+    private String getChildPath(String key) {
+        return indexedPath == null ? key : indexedPath + '.' + key;
+    }
+
+    private static void index(Map<String, ConfigNode> index, ConfigNode node, String path) {
+        // Nodes with a dot in the key can't be reached through a path
+        if (node.getKey().indexOf('.') != -1)
+            return;
+
+        index.put(path, node);
+        if (node instanceof ParentConfigNode) {
+            ParentConfigNode section = (ParentConfigNode) node;
+            section.pathIndex = index;
+            section.indexedPath = path;
+
+            for (ConfigNode child : section.getChildren()) {
+                index(index, child, path + '.' + child.getKey());
+            }
+        }
+    }
+
+    private static void unindex(Map<String, ConfigNode> index, ConfigNode node, String path) {
+        // Only remove the paths that still point to the node
+        if (!index.remove(path, node))
+            return;
+
+        if (node instanceof ParentConfigNode) {
+            ParentConfigNode section = (ParentConfigNode) node;
+            section.pathIndex = null;
+            section.indexedPath = null;
+
+            for (ConfigNode child : section.getChildren()) {
+                unindex(index, child, path + '.' + child.getKey());
+            }
+        }
     }
 
     /**
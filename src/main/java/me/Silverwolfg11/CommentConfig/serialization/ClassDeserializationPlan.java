@@ -0,0 +1,231 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import me.Silverwolfg11.CommentConfig.annotations.ConfigVersion;
+import me.Silverwolfg11.CommentConfig.annotations.Node;
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resolved deserialization layout of a class.
+ * <br><br>
+ * The fields, {@link Node} paths and generic field types
+ * of a class are only resolved once, the first time the class is deserialized.
+ */
+final class ClassDeserializationPlan {
+
+    private static final ClassValue<ClassDeserializationPlan> PLANS = new ClassValue<ClassDeserializationPlan>() {
+        @Override
+        protected ClassDeserializationPlan computeValue(Class<?> type) {
+            return new ClassDeserializationPlan(type);
+        }
+    };
+
+    private final boolean serializable;
+    private final Double configVersion;
+    private final FieldEntry[] fields;
+    private final PathNode pathTree;
+
+    private ClassDeserializationPlan(Class<?> clazz) {
+        this.serializable = clazz.isAnnotationPresent(SerializableConfig.class);
+
+        ConfigVersion version = clazz.getAnnotation(ConfigVersion.class);
+        this.configVersion = version != null ? version.value() : null;
+
+        // Only resolve the layout of classes that can actually be deserialized
+        if (!serializable) {
+            this.fields = new FieldEntry[0];
+            this.pathTree = new PathNode();
+            return;
+        }
+
+        List<FieldEntry> fieldEntries = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            // Skip compiler generated or transient fields
+            if (field.isSynthetic() || Modifier.isTransient(field.getModifiers()))
+                continue;
+
+            fieldEntries.add(new FieldEntry(field));
+        }
+
+        this.fields = fieldEntries.toArray(new FieldEntry[0]);
+        this.pathTree = PathNode.of(fields);
+    }
+
+    /**
+     * Get the deserialization plan of a class.
+     *
+     * @param clazz Class to get the plan for.
+     *
+     * @return the cached plan of the class.
+     */
+    static ClassDeserializationPlan of(Class<?> clazz) {
+        return PLANS.get(clazz);
+    }
+
+    boolean isSerializable() {
+        return serializable;
+    }
+
+    boolean hasConfigVersion() {
+        return configVersion != null;
+    }
+
+    double getConfigVersion() {
+        return configVersion;
+    }
+
+    FieldEntry[] getFields() {
+        return fields;
+    }
+
+    /**
+     * Get the tree of YAML paths that the fields of the class are mapped to.
+     *
+     * @return the root of the path tree.
+     */
+    PathNode getPathTree() {
+        return pathTree;
+    }
+
+    /**
+     * A node in the tree of YAML paths that the fields of a class are mapped to.
+     * <br><br>
+     * A node can have both fields mapped to it and child nodes,
+     * e.g. if one field is mapped to {@code a} and another to {@code a.b}.
+     */
+    static final class PathNode {
+        private static final FieldEntry[] NO_FIELDS = new FieldEntry[0];
+
+        private Map<String, PathNode> children;
+        private FieldEntry[] fields = NO_FIELDS;
+
+        private PathNode() {
+        }
+
+        private static PathNode of(FieldEntry[] fields) {
+            PathNode root = new PathNode();
+            for (FieldEntry field : fields) {
+                PathNode node = root;
+                for (String key : field.getPath()) {
+                    node = node.getOrCreateChild(key);
+                }
+
+                node.fields = Arrays.copyOf(node.fields, node.fields.length + 1);
+                node.fields[node.fields.length - 1] = field;
+            }
+
+            return root;
+        }
+
+        private PathNode getOrCreateChild(String key) {
+            if (children == null)
+                children = new HashMap<>();
+
+            return children.computeIfAbsent(key, k -> new PathNode());
+        }
+
+        /**
+         * Get the child node of a key.
+         *
+         * @param key Key of the child node.
+         *
+         * @return the child node or {@code null} if no field is mapped to or below the key.
+         */
+        PathNode getChild(String key) {
+            return children != null ? children.get(key) : null;
+        }
+
+        boolean hasChildren() {
+            return children != null;
+        }
+
+        Collection<Map.Entry<String, PathNode>> getChildren() {
+            return children.entrySet();
+        }
+
+        boolean hasFields() {
+            return fields.length > 0;
+        }
+
+        /**
+         * Get the fields that are mapped to this exact path.
+         *
+         * @return the fields mapped to this node.
+         */
+        FieldEntry[] getFields() {
+            return fields;
+        }
+    }
+
+    /**
+     * The resolved deserialization layout of a single field.
+     */
+    static final class FieldEntry {
+        private final Field field;
+        private final FieldAccessor accessor;
+        private final String[] path;
+        private final TypeDescriptor type;
+
+        private FieldEntry(Field field) {
+            this.field = field;
+            this.accessor = FieldAccessor.of(field);
+
+            Node nodeAnnotation = field.getAnnotation(Node.class);
+            if (nodeAnnotation != null) {
+                this.path = nodeAnnotation.value();
+                if (path.length == 0) {
+                    String exMsg = String.format("The '@Node' annotation on field '%s' in class '%s' must have at least one element!",
+                            field.getName(), field.getDeclaringClass().getName());
+                    throw new UnsupportedOperationException(exMsg);
+                }
+            }
+            else {
+                this.path = new String[] { field.getName() };
+            }
+
+            this.type = TypeDescriptor.of(field.getGenericType());
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        String getName() {
+            return field.getName();
+        }
+
+        /**
+         * Get the path of the YAML node that the field is mapped to.
+         * The last element is the key of the node.
+         *
+         * @return the node path of the field.
+         */
+        String[] getPath() {
+            return path;
+        }
+
+        TypeDescriptor getType() {
+            return type;
+        }
+
+        FieldAccessor getAccessor() {
+            return accessor;
+        }
+
+        Object getValue(Object instance) {
+            return accessor.get(instance);
+        }
+
+        void setValue(Object instance, Object value) throws IllegalAccessException {
+            accessor.set(instance, value);
+        }
+    }
+}
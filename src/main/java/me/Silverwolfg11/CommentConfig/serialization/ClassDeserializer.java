@@ -1,43 +1,124 @@
 package me.Silverwolfg11.CommentConfig.serialization;
 
 import me.Silverwolfg11.CommentConfig.annotations.ConfigVersion;
-import me.Silverwolfg11.CommentConfig.annotations.Node;
 import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
 import me.Silverwolfg11.CommentConfig.node.ConfigNode;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.reader.StreamReader;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinTask;
 import java.util.logging.Logger;
 
 /**
  * A deserializer to deserialize YAML to an instance of a class.
+ * <br><br>
+ * A class deserializer is thread-safe once it's configured, so a single instance can be shared.
+ * Deserializers created through {@link #builder()} can't be changed after they're built,
+ * and can be shared between threads without any further synchronization.
  */
 public class ClassDeserializer {
 
-    private final Yaml yaml;
-    private Map<Class<?>, DeserializableObject> deserializers;
-    private Logger errorLogger;
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+    // Collections and maps that are refilled in place when deserializing into an existing instance
+    private static final Set<Class<?>> REFILLABLE_CLASSES = new HashSet<>(Arrays.asList(
+            ArrayList.class, LinkedList.class, HashSet.class, LinkedHashSet.class, HashMap.class, LinkedHashMap.class
+    ));
+
+    // SnakeYAML's constructors keep state while loading, so every thread loads through its own Yaml
+    private final ThreadLocal<Yaml> yaml = ThreadLocal.withInitial(ClassDeserializer::createYaml);
+    private final DeserializerRegistry deserializers;
+    private final boolean immutable;
+    // Deserializers created through a builder get their own copy of the settings, which is never changed.
+    // The final field makes the copy visible to every thread that sees the deserializer.
+    private final Settings settings;
 
     public ClassDeserializer() {
+        this.deserializers = new DeserializerRegistry();
+        this.immutable = false;
+        this.settings = new Settings();
+    }
+
+    // Copy the configuration of a deserializer into an immutable deserializer
+    private ClassDeserializer(ClassDeserializer config) {
+        this.deserializers = config.deserializers.copy();
+        this.immutable = true;
+        this.settings = config.settings.copy();
+    }
+
+    // The configurable settings of a deserializer
+    private static final class Settings {
+        private Logger errorLogger;
+        private boolean streaming;
+        private boolean typedScalars;
+        private boolean lazy;
+        private boolean parallel;
+        private boolean caseInsensitiveEnums;
+        private boolean primitiveLists;
+        private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+        private Settings copy() {
+            Settings copy = new Settings();
+            copy.errorLogger = errorLogger;
+            copy.streaming = streaming;
+            copy.typedScalars = typedScalars;
+            copy.lazy = lazy;
+            copy.parallel = parallel;
+            copy.caseInsensitiveEnums = caseInsensitiveEnums;
+            copy.primitiveLists = primitiveLists;
+            copy.parallelThreshold = parallelThreshold;
+            return copy;
+        }
+    }
+
+    private static Yaml createYaml() {
         final DumperOptions options = new DumperOptions();
         options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
         options.setPrettyFlow(true);
-        this.yaml = new Yaml(options);
+        return new Yaml(options);
+    }
+
+    /**
+     * Create a builder for an immutable class deserializer.
+     *
+     * @return a new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private void checkMutable() {
+        if (immutable)
+            throw new IllegalStateException("Can't change a ClassDeserializer that was created through a builder!");
     }
 
     /**
      * Add a deserializer to handle deserializing a specific class type.
+     * <br><br>
+     * The deserializer is used for fields, collection elements and map keys and values of the class type.
+     * It's also used for subclasses and implementations of the class type,
+     * unless they have a deserializer of their own or a closer superclass has one.
+     * The deserializer gets the object that SnakeYAML loaded, and its result is then converted to the type as usual.
      *
      * @param clazz Class type that this deserializer handles.
      *              Class type <b>cannot</b> be {@code null}.
@@ -45,12 +126,10 @@ public class ClassDeserializer {
      *                       Interface <b>cannot</b> be {@code null}.
      */
     public void addDeserializer(Class<?> clazz, DeserializableObject deserializable) {
+        checkMutable();
         Objects.requireNonNull(clazz);
         Objects.requireNonNull(deserializable);
 
-        if (deserializers == null)
-            deserializers = new HashMap<>();
-
         deserializers.put(clazz, deserializable);
     }
 
@@ -61,7 +140,192 @@ public class ClassDeserializer {
      * @param logger Logger to use for errors.
      */
     public void setErrorLogger(Logger logger) {
-        this.errorLogger = logger;
+        checkMutable();
+        settings.errorLogger = logger;
+    }
+
+    /**
+     * Set whether YAML should be deserialized straight from the parser events.
+     * <br><br>
+     * In streaming mode, the YAML is not loaded into a generic map first.
+     * Instead, the fields of the class are filled while the YAML is parsed,
+     * and any YAML that is not mapped to a field is skipped without being constructed.
+     * Only the values of fields are constructed, unless the field is another serializable class
+     * which is streamed as well.
+     * <br><br>
+     * By default, streaming mode is disabled.
+     *
+     * @param streaming if YAML should be deserialized in streaming mode.
+     */
+    public void setStreamingMode(boolean streaming) {
+        checkMutable();
+        settings.streaming = streaming;
+    }
+
+    /**
+     * Set whether YAML scalars should be converted using the declared type of the field they are mapped to.
+     * <br><br>
+     * Normally SnakeYAML guesses the type of every plain scalar by matching it against
+     * its int, float, boolean and timestamp patterns, and the result is then converted to the field type.
+     * With typed scalars, the scalars of a field are converted straight to the field type instead.
+     * This also applies to the elements of collection and map fields.
+     * Keys of the YAML mappings are always read as strings.
+     * <br><br>
+     * This means that a plain scalar like {@code 123} or {@code yes} is read as is for a {@code String} field,
+     * and that an integer is read as a {@code Long} or {@code Double} for {@code Long} or {@code Double} fields.
+     * Scalars that can't be converted directly are still constructed by SnakeYAML.
+     * <br><br>
+     * Typed scalars are read in {@link #setStreamingMode(boolean) streaming mode}, so enabling
+     * typed scalars also deserializes the YAML in streaming mode.
+     * By default, typed scalars are disabled.
+     *
+     * @param typedScalars if scalars should be converted using the declared field type.
+     */
+    public void setTypedScalarMode(boolean typedScalars) {
+        checkMutable();
+        settings.typedScalars = typedScalars;
+    }
+
+    boolean isTypedScalarMode() {
+        return settings.typedScalars;
+    }
+
+    /**
+     * Set whether {@link Lazy} fields should be deserialized on first access.
+     * <br><br>
+     * In lazy mode, the YAML of a {@code Lazy} field is only parsed into a YAML node tree,
+     * and the field value is constructed and converted the first time {@link Lazy#get()} is called.
+     * Other fields are deserialized as usual.
+     * Fields of classes with a generated codec are always deserialized right away.
+     * <br><br>
+     * Lazy fields are read in {@link #setStreamingMode(boolean) streaming mode}, so enabling
+     * lazy mode also deserializes the YAML in streaming mode.
+     * By default, lazy mode is disabled.
+     *
+     * @param lazy if lazy fields should be deserialized on first access.
+     */
+    public void setLazyMode(boolean lazy) {
+        checkMutable();
+        settings.lazy = lazy;
+    }
+
+    boolean isLazyMode() {
+        return settings.lazy;
+    }
+
+    /**
+     * Set whether enum constants should be matched regardless of case.
+     * <br><br>
+     * Enum values are first matched exactly against the names and {@link me.Silverwolfg11.CommentConfig.annotations.Alias aliases}
+     * of the enum constants. If case-insensitive enums are enabled and there is no exact match,
+     * the value is then matched ignoring case. This also applies to enum map keys.
+     * By default, enums are matched case-sensitively.
+     *
+     * @param caseInsensitiveEnums if enum constants should be matched regardless of case.
+     */
+    public void setCaseInsensitiveEnums(boolean caseInsensitiveEnums) {
+        checkMutable();
+        settings.caseInsensitiveEnums = caseInsensitiveEnums;
+    }
+
+    boolean isCaseInsensitiveEnums() {
+        return settings.caseInsensitiveEnums;
+    }
+
+    /**
+     * Set whether lists of numbers should be stored in primitive-backed lists.
+     * <br><br>
+     * In primitive list mode, fields declared as a {@code List} or {@code Collection} of
+     * {@code Integer}, {@code Long} or {@code Double} are deserialized to a list that stores
+     * its elements in a primitive array, which takes a fraction of the heap of a list of boxed numbers.
+     * The lists can be modified like any other list, but cannot hold {@code null} elements.
+     * If the YAML has an element that can't be stored in such a list, a regular list is used instead.
+     * <br><br>
+     * By default, primitive list mode is disabled.
+     *
+     * @param primitiveLists if lists of numbers should be stored in primitive-backed lists.
+     */
+    public void setPrimitiveListMode(boolean primitiveLists) {
+        checkMutable();
+        settings.primitiveLists = primitiveLists;
+    }
+
+    boolean isPrimitiveListMode() {
+        return settings.primitiveLists;
+    }
+
+    /**
+     * Set whether large values should be deserialized in parallel.
+     * <br><br>
+     * In parallel mode, the fields of a class whose YAML has at least as many elements as the
+     * {@link #setParallelThreshold(int) parallel threshold} are deserialized on the common fork-join pool,
+     * while the other fields are deserialized on the calling thread.
+     * Collections and maps with at least as many elements as the threshold also
+     * convert their elements in parallel.
+     * <br><br>
+     * In {@link #setStreamingMode(boolean) streaming mode}, the YAML is still read by a single thread,
+     * so only the elements of collections and maps are converted in parallel.
+     * <br><br>
+     * Deserializers added through {@link #addDeserializer(Class, DeserializableObject)} must be thread-safe
+     * in parallel mode. By default, parallel mode is disabled.
+     *
+     * @param parallel if large values should be deserialized in parallel.
+     */
+    public void setParallelMode(boolean parallel) {
+        checkMutable();
+        settings.parallel = parallel;
+    }
+
+    /**
+     * Set the minimum number of YAML elements a value has to have to be deserialized in parallel.
+     * Elements of nested collections and maps are counted as well.
+     * <br><br>
+     * The default threshold is {@value #DEFAULT_PARALLEL_THRESHOLD}.
+     *
+     * @param parallelThreshold minimum number of elements to deserialize in parallel.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        checkMutable();
+        if (parallelThreshold < 1)
+            throw new IllegalArgumentException("Parallel threshold must be positive!");
+
+        settings.parallelThreshold = parallelThreshold;
+    }
+
+    // If a collection or map of a size should be converted in parallel
+    boolean isParallel(int size) {
+        return settings.parallel && size >= settings.parallelThreshold;
+    }
+
+    private boolean isEventDriven() {
+        return settings.streaming || settings.typedScalars || settings.lazy;
+    }
+
+    private EventDeserializer createEventDeserializer(InputStreamReader reader) {
+        // Lazy values keep the source text of their YAML
+        if (settings.lazy)
+            return createEventDeserializer(readFully(reader));
+
+        return new EventDeserializer(this, settings.errorLogger, new StreamReader(reader), null);
+    }
+
+    private EventDeserializer createEventDeserializer(String producedYaml) {
+        return new EventDeserializer(this, settings.errorLogger, new StreamReader(producedYaml), producedYaml);
+    }
+
+    private static String readFully(Reader reader) {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[8192];
+        try {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new YAMLException(e);
+        }
+
+        return sb.toString();
     }
 
     private void validateSerializable(Class<?> clazz) {
@@ -117,17 +381,25 @@ public class ClassDeserializer {
         T deserializedClass;
         try (FileInputStream stream = new FileInputStream(Objects.requireNonNull(file));
              InputStreamReader isr = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
-            Map<String, Object> objectMap = yaml.load(isr);
+            Object configVersion;
+            if (isEventDriven()) {
+                EventDeserializer eventDeserializer = createEventDeserializer(isr);
+                deserializedClass = eventDeserializer.deserialize(clazz);
+                configVersion = eventDeserializer.getConfigVersion();
+            }
+            else {
+                Map<String, Object> objectMap = yaml.get().load(isr);
+                configVersion = objectMap.get("config-version");
+                deserializedClass = deserializeClass(objectMap, clazz);
+            }
 
             if (clazz.isAnnotationPresent(ConfigVersion.class)) {
                 double latestVersion = clazz.getAnnotation(ConfigVersion.class).value();
 
-                if ((double) objectMap.getOrDefault("config-version", latestVersion + 1) < latestVersion) {
+                if (configVersion != null && (double) configVersion < latestVersion) {
                     reSaveConfig = true;
                 }
             }
-
-            deserializedClass = deserializeClass(objectMap, clazz);
         }
 
         if (reSaveConfig && deserializedClass != null) {
@@ -139,6 +411,52 @@ public class ClassDeserializer {
     }
 
 
+    /**
+     * Read the values of a few node paths from a YAML file without deserializing the whole file.
+     * <br><br>
+     * The file is only read until all paths are found, and anything that isn't on
+     * one of the paths is skipped by the parser. The values are returned as SnakeYAML loads them,
+     * e.g. a section is returned as a {@code Map}.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param file YAML file to read from.
+     * @param paths Node paths to read. The keys of a path are separated by {@code .},
+     *              e.g. {@code database.pool.size}.
+     *
+     * @return the values of the paths that were found by path, in the order they were found.
+     *         Paths that don't exist in the file are not included.
+     *
+     * @throws IOException if there is an error reading the file.
+     */
+    public Map<String, Object> readPaths(File file, String... paths) throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(paths);
+
+        try (FileInputStream stream = new FileInputStream(file);
+             InputStreamReader isr = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return new EventDeserializer(this, settings.errorLogger, new StreamReader(isr), null).readPaths(paths);
+        }
+    }
+
+    /**
+     * Read the values of a few node paths from a YAML string.
+     * See {@link #readPaths(File, String...)}.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param producedYaml YAML string to use.
+     * @param paths Node paths to read. The keys of a path are separated by {@code .}.
+     *
+     * @return the values of the paths that were found by path, in the order they were found.
+     */
+    public Map<String, Object> readPaths(String producedYaml, String... paths) {
+        Objects.requireNonNull(producedYaml);
+        Objects.requireNonNull(paths);
+
+        return new EventDeserializer(this, settings.errorLogger, new StreamReader(producedYaml), null).readPaths(paths);
+    }
+
     /**
      * Deserialize a YAML input stream to a class.
      * The class must have the {@link SerializableConfig} annotation,
@@ -158,7 +476,11 @@ public class ClassDeserializer {
         Objects.requireNonNull(clazz);
 
         validateSerializable(clazz);
-        Map<String, Object> objectMap = yaml.load(reader);
+        if (isEventDriven()) {
+            return createEventDeserializer(reader).deserialize(clazz);
+        }
+
+        Map<String, Object> objectMap = yaml.get().load(reader);
         return deserializeClass(objectMap, clazz);
     }
 
@@ -181,94 +503,492 @@ public class ClassDeserializer {
         Objects.requireNonNull(clazz);
 
         validateSerializable(clazz);
-        Map<String, Object> objectMap = yaml.load(producedYaml);
+        if (isEventDriven()) {
+            return createEventDeserializer(producedYaml).deserialize(clazz);
+        }
+
+        Map<String, Object> objectMap = yaml.get().load(producedYaml);
         return deserializeClass(objectMap, clazz);
     }
 
-    <T> T deserializeClass(Map<String, Object> objMap, Class<T> clazz) {
-        T objInstance;
-        try {
-            Constructor<T> constructor = clazz.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            objInstance = constructor.newInstance();
-            constructor.setAccessible(false);
-        } catch (ReflectiveOperationException e) {
-            displayError("Error deserializing YAML. Could not construct an instance of class '" + clazz.getName() + "' from a default constructor!");
-            e.printStackTrace();
-            return null;
+    /**
+     * Deserialize a YAML file into an existing instance of a class, updating the instance in place.
+     * The class of the instance must have the {@link SerializableConfig} annotation.
+     * <br><br>
+     * Fields whose value did not change are left as is. Nested {@code @SerializableConfig} objects
+     * are updated in place, and collections and maps that changed are refilled instead of replaced.
+     * Fields that are missing from the YAML are left as is, just like they would be on a new instance.
+     * <br><br>
+     * The YAML is always loaded as a whole, regardless of the streaming, typed scalar, lazy and parallel modes.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param file YAML file to read from.
+     * @param existing Instance to deserialize into.
+     *
+     * @return the fields that changed.
+     *
+     * @param <T> Type to deserialize to.
+     * @throws IOException if there is an error reading the file.
+     */
+    public <T> FieldChanges deserializeInto(File file, T existing) throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(existing);
+
+        try (FileInputStream stream = new FileInputStream(file);
+             InputStreamReader isr = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return deserializeInto(isr, existing);
         }
+    }
 
-        return deserializeClass(objMap, clazz, objInstance);
+    /**
+     * Deserialize a YAML input stream into an existing instance of a class.
+     * See {@link #deserializeInto(File, Object)}.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param reader Reader to read YAML file from.
+     * @param existing Instance to deserialize into.
+     *
+     * @return the fields that changed.
+     *
+     * @param <T> Type to deserialize to.
+     */
+    public <T> FieldChanges deserializeInto(InputStreamReader reader, T existing) {
+        Objects.requireNonNull(reader);
+        Objects.requireNonNull(existing);
+
+        validateSerializable(existing.getClass());
+        Map<String, Object> objectMap = yaml.get().load(reader);
+        return updateInstance(objectMap, existing);
     }
 
-    <T> T deserializeClass(Map<String, Object> serializedMap, Class<T> clazz, T clazzInstance) {
-        FieldDeserializer fieldDeserializer = new FieldDeserializer(this, errorLogger, clazz, clazzInstance);
-        for (Field field : clazz.getDeclaredFields()) {
-            // Skip compiler generated or transient fields
-            if (field.isSynthetic() || Modifier.isTransient(field.getModifiers()))
-                continue;
+    /**
+     * Deserialize a YAML string into an existing instance of a class.
+     * See {@link #deserializeInto(File, Object)}.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param producedYaml YAML string to use.
+     * @param existing Instance to deserialize into.
+     *
+     * @return the fields that changed.
+     *
+     * @param <T> Type to deserialize to.
+     */
+    public <T> FieldChanges deserializeInto(String producedYaml, T existing) {
+        Objects.requireNonNull(producedYaml);
+        Objects.requireNonNull(existing);
 
-            // We need to get the associated serialized object for the field
-            Object serializedObject = getFieldObject(serializedMap, field);
+        validateSerializable(existing.getClass());
+        Map<String, Object> objectMap = yaml.get().load(producedYaml);
+        return updateInstance(objectMap, existing);
+    }
+
+    private FieldChanges updateInstance(Map<String, Object> objectMap, Object existing) {
+        FieldChanges changes = new FieldChanges();
+        // An empty document leaves the instance as is
+        if (objectMap != null)
+            updateClass(objectMap, existing.getClass(), existing, "", changes);
+
+        return changes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void updateClass(Map<String, Object> serializedMap, Class<?> clazz, Object clazzInstance,
+                             String pathPrefix, FieldChanges changes) {
+        FieldDeserializer fieldDeserializer = new FieldDeserializer(this, settings.errorLogger, clazz, clazzInstance);
 
+        for (ClassDeserializationPlan.FieldEntry field : ClassDeserializationPlan.of(clazz).getFields()) {
+            Object serializedObject = getNodeObject(serializedMap, field.getPath());
             if (serializedObject == null)
                 continue;
 
-            Class<?> fieldClass = field.getClass();
+            String fieldPath = pathPrefix + field.getName();
+            TypeDescriptor fieldType = field.getType();
+            Object fieldValue = field.getValue(clazzInstance);
 
-            if (deserializers != null && deserializers.containsKey(fieldClass)) {
-                serializedObject = deserializers.get(fieldClass).deserializeObject(serializedObject);
+            // Update nested objects in place instead of constructing new ones
+            if (fieldType.getKind() == TypeDescriptor.Kind.SERIALIZABLE
+                    && fieldValue != null
+                    && serializedObject instanceof Map
+                    && getCustomDeserializer(fieldType) == null) {
+                updateClass((Map<String, Object>) serializedObject, fieldValue.getClass(), fieldValue, fieldPath + ".", changes);
+                continue;
             }
 
-            serializedObject = fieldDeserializer.deserializeObject(field, serializedObject, field.getGenericType());
+            // Convert to a new value so the current value is only touched if it changed
+            Object value = convertFieldValue(fieldDeserializer, field.getName(), null, serializedObject, fieldType);
+            if (value == null || isSameValue(fieldValue, value))
+                continue;
 
-            // After all the modifications to field object, double check that it's not null
-            if (serializedObject == null)
+            if (refill(fieldValue, value)) {
+                changes.add(fieldPath);
                 continue;
+            }
 
-            field.setAccessible(true);
             try {
-                field.set(clazzInstance, serializedObject);
+                field.setValue(clazzInstance, value);
             } catch (IllegalAccessException e) {
                 e.printStackTrace();
+                continue;
             }
-            field.setAccessible(false);
+
+            // Primitive fields may hold the same value in a different box, e.g. 2 and 2.0
+            if (!Objects.deepEquals(fieldValue, field.getValue(clazzInstance)))
+                changes.add(fieldPath);
+        }
+    }
+
+    private static boolean isSameValue(Object fieldValue, Object value) {
+        // Lazy values have no equality, so compare the values of loaded lazy values instead
+        if (fieldValue instanceof Lazy && value instanceof Lazy) {
+            Lazy<?> lazyFieldValue = (Lazy<?>) fieldValue;
+            Lazy<?> lazyValue = (Lazy<?>) value;
+            return lazyFieldValue.isLoaded() && lazyValue.isLoaded()
+                    && Objects.deepEquals(lazyFieldValue.get(), lazyValue.get());
+        }
+
+        return Objects.deepEquals(fieldValue, value);
+    }
+
+    // Refill an existing collection or map with new contents instead of replacing it.
+    // Only collections that accept any contents are refilled, since a failed refill would leave
+    // the existing collection half changed. Any other collection is replaced instead.
+    @SuppressWarnings("unchecked")
+    private static boolean refill(Object fieldValue, Object value) {
+        if (fieldValue == null || !REFILLABLE_CLASSES.contains(fieldValue.getClass()))
+            return false;
+
+        if (fieldValue instanceof Collection && value instanceof Collection) {
+            Collection<Object> collection = (Collection<Object>) fieldValue;
+            collection.clear();
+            collection.addAll((Collection<Object>) value);
+            return true;
+        }
+        else if (fieldValue instanceof Map && value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) fieldValue;
+            map.clear();
+            map.putAll((Map<Object, Object>) value);
+            return true;
+        }
+
+        return false;
+    }
+
+    <T> T deserializeClass(Map<String, Object> objMap, Class<T> clazz) {
+        T objInstance = newInstance(clazz);
+        if (objInstance == null)
+            return null;
+
+        return deserializeClass(objMap, clazz, objInstance);
+    }
+
+    /**
+     * Construct a new instance of a serializable class to deserialize into.
+     *
+     * @param clazz Class to construct.
+     *
+     * @return the new instance or {@code null} if the class could not be constructed.
+     */
+    <T> T newInstance(Class<T> clazz) {
+        ConfigCodec<T> codec = GeneratedCodecs.get(clazz);
+        if (codec != null) {
+            return codec.newInstance();
+        }
+
+        Instantiator instantiator = Instantiator.of(clazz);
+        if (!instantiator.canInstantiate()) {
+            displayError("Error deserializing YAML. " + instantiator.getError());
+            return null;
+        }
+
+        if (instantiator.needsEnclosingInstance()) {
+            displayError("Error deserializing YAML. Could not construct an instance of inner class '" + clazz.getName() + "' without an enclosing instance!");
+            return null;
+        }
+
+        try {
+            return clazz.cast(instantiator.newInstance());
+        } catch (InvocationTargetException e) {
+            displayError("Error deserializing YAML. The constructor of class '" + clazz.getName() + "' threw " + e.getCause() + "!");
+            return null;
+        }
+    }
+
+    <T> T deserializeClass(Map<String, Object> serializedMap, Class<T> clazz, T clazzInstance) {
+        FieldDeserializer fieldDeserializer = new FieldDeserializer(this, settings.errorLogger, clazz, clazzInstance);
+
+        // Use the generated codec if there is one
+        ConfigCodec<T> codec = GeneratedCodecs.get(clazz);
+        if (codec != null) {
+            return codec.fromMap(serializedMap, clazzInstance, new CodecContext(this, fieldDeserializer));
+        }
+
+        if (settings.parallel) {
+            deserializeFieldsInParallel(serializedMap, clazz, clazzInstance, fieldDeserializer);
+            return clazzInstance;
+        }
+
+        for (ClassDeserializationPlan.FieldEntry field : ClassDeserializationPlan.of(clazz).getFields()) {
+            // We need to get the associated serialized object for the field
+            Object serializedObject = getNodeObject(serializedMap, field.getPath());
+            deserializeField(fieldDeserializer, field, clazzInstance, serializedObject);
         }
 
         return clazzInstance;
     }
 
-    private Object getFieldObject(Map<String, Object> objectMap, Field field) {
-        if (field.isAnnotationPresent(Node.class)) {
-            Node nodeAnnotation = field.getAnnotation(Node.class);
-            String[] nodePath = nodeAnnotation.value();
+    private void deserializeFieldsInParallel(Map<String, Object> serializedMap, Class<?> clazz, Object clazzInstance,
+                                             FieldDeserializer fieldDeserializer) {
+        List<ForkJoinTask<?>> tasks = null;
+        for (ClassDeserializationPlan.FieldEntry field : ClassDeserializationPlan.of(clazz).getFields()) {
+            Object serializedObject = getNodeObject(serializedMap, field.getPath());
 
-            Map<String, Object> currentMap = objectMap;
-            for (int i = 0; i < nodePath.length - 1; ++i) {
-                Object currMapObj = currentMap.get(nodePath[i]);
+            // Small fields aren't worth a task
+            if (countElements(serializedObject, settings.parallelThreshold) < settings.parallelThreshold) {
+                deserializeField(fieldDeserializer, field, clazzInstance, serializedObject);
+                continue;
+            }
 
-                if (currMapObj instanceof Map) {
-                    currentMap = (Map<String, Object>) currMapObj;
-                }
-                else {
-                    return null;
-                }
+            if (tasks == null)
+                tasks = new ArrayList<>();
+
+            // Outside of a fork-join pool, the task is forked to the common pool
+            tasks.add(ForkJoinTask.adapt(
+                    () -> deserializeField(fieldDeserializer, field, clazzInstance, serializedObject)
+            ).fork());
+        }
+
+        if (tasks != null) {
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
             }
+        }
+    }
 
-            return currentMap.get(nodePath[nodePath.length - 1]);
+    // Count the elements of a serialized object, but stop counting at a limit
+    private static int countElements(Object serializedObject, int limit) {
+        int count = 0;
+        if (serializedObject instanceof Collection) {
+            for (Object element : (Collection<?>) serializedObject) {
+                count += 1 + countElements(element, limit - count);
+                if (count >= limit)
+                    break;
+            }
         }
-        else {
-            return objectMap.get(field.getName());
+        else if (serializedObject instanceof Map) {
+            for (Object value : ((Map<?, ?>) serializedObject).values()) {
+                count += 1 + countElements(value, limit - count);
+                if (count >= limit)
+                    break;
+            }
         }
+
+        return count;
     }
 
-    private void displayError(String errorMessage) {
-        if (errorLogger != null) {
-            errorLogger.severe(errorMessage);
+    /**
+     * Convert a serialized object and set it as the value of a field.
+     *
+     * @param fieldDeserializer Field deserializer of the instance.
+     * @param field Field to set.
+     * @param clazzInstance Instance to set the field on.
+     * @param serializedObject Serialized object of the field or {@code null} to leave the field as is.
+     */
+    void deserializeField(FieldDeserializer fieldDeserializer, ClassDeserializationPlan.FieldEntry field,
+                          Object clazzInstance, Object serializedObject) {
+        if (serializedObject == null)
+            return;
+
+        Object fieldValue = field.getValue(clazzInstance);
+        serializedObject = convertFieldValue(fieldDeserializer, field.getName(), fieldValue, serializedObject, field.getType());
+
+        // After all the modifications to field object, double check that it's not null
+        if (serializedObject == null)
+            return;
+
+        try {
+            field.setValue(clazzInstance, serializedObject);
+        } catch (IllegalAccessException e) {
+            e.printStackTrace();
+        }
+    }
+
+    Object convertFieldValue(FieldDeserializer fieldDeserializer, String fieldName, Object fieldValue,
+                             Object serializedObject, TypeDescriptor fieldType) {
+        return fieldDeserializer.deserializeObject(fieldName, fieldValue, serializedObject, fieldType);
+    }
+
+    /**
+     * Get the custom deserializer that a serialized object of a type is passed through.
+     *
+     * @param type Type that the serialized object is deserialized to or {@code null}.
+     *
+     * @return the custom deserializer or {@code null} if there is none.
+     */
+    DeserializableObject getCustomDeserializer(TypeDescriptor type) {
+        if (type == null || deserializers.isEmpty())
+            return null;
+
+        return deserializers.get(type.getRawClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    static Object getNodeObject(Map<String, Object> objectMap, String[] nodePath) {
+        Map<String, Object> currentMap = objectMap;
+        for (int i = 0; i < nodePath.length - 1; ++i) {
+            Object currMapObj = currentMap.get(nodePath[i]);
+
+            if (currMapObj instanceof Map) {
+                currentMap = (Map<String, Object>) currMapObj;
+            }
+            else {
+                return null;
+            }
+        }
+
+        return currentMap.get(nodePath[nodePath.length - 1]);
+    }
+
+    void displayError(String errorMessage) {
+        if (settings.errorLogger != null) {
+            settings.errorLogger.severe(errorMessage);
         }
         else {
             System.out.println(errorMessage);
         }
     }
 
+    /**
+     * A builder for class deserializers that can't be changed after they're built.
+     * The builder has the same options as the setters of a class deserializer.
+     */
+    public static final class Builder {
+
+        private final ClassDeserializer config = new ClassDeserializer();
+
+        private Builder() {
+        }
+
+        /**
+         * See {@link ClassDeserializer#addDeserializer(Class, DeserializableObject)}.
+         *
+         * @param clazz Class type that this deserializer handles.
+         * @param deserializable Deserializer interface.
+         *
+         * @return this builder.
+         */
+        public Builder addDeserializer(Class<?> clazz, DeserializableObject deserializable) {
+            config.addDeserializer(clazz, deserializable);
+            return this;
+        }
+
+        /**
+         * See {@link ClassDeserializer#setErrorLogger(Logger)}.
+         *
+         * @param logger Logger to use for errors.
+         *
+         * @return this builder.
+         */
+        public Builder setErrorLogger(Logger logger) {
+            config.setErrorLogger(logger);
+            return this;
+        }
+
+        /**
+         * See {@link ClassDeserializer#setStreamingMode(boolean)}.
+         *
+         * @param streaming if YAML should be deserialized in streaming mode.
+         *
+         * @return this builder.
+         */
+        public Builder setStreamingMode(boolean streaming) {
+            config.setStreamingMode(streaming);
+            return this;
+        }
+
+        /**
+         * See {@link ClassDeserializer#setTypedScalarMode(boolean)}.
+         *
+         * @param typedScalars if scalars should be converted using the declared field type.
+         *
+         * @return this builder.
+         */
+        public Builder setTypedScalarMode(boolean typedScalars) {
+            config.setTypedScalarMode(typedScalars);
+            return this;
+        }
+
+        /**
+         * See {@link ClassDeserializer#setLazyMode(boolean)}.
+         *
+         * @param lazy if lazy fields should be deserialized on first access.
+         *
+         * @return this builder.
+         */
+        public Builder setLazyMode(boolean lazy) {
+            config.setLazyMode(lazy);
+            return this;
+        }
+
+        /**
+         * See {@link ClassDeserializer#setCaseInsensitiveEnums(boolean)}.
+         *
+         * @param caseInsensitiveEnums if enum constants should be matched regardless of case.
+         *
+         * @return this builder.
+         */
+        public Builder setCaseInsensitiveEnums(boolean caseInsensitiveEnums) {
+            config.setCaseInsensitiveEnums(caseInsensitiveEnums);
+            return this;
+        }
+
+        /**
+         * See {@link ClassDeserializer#setPrimitiveListMode(boolean)}.
+         *
+         * @param primitiveLists if lists of numbers should be stored in primitive-backed lists.
+         *
+         * @return this builder.
+         */
+        public Builder setPrimitiveListMode(boolean primitiveLists) {
+            config.setPrimitiveListMode(primitiveLists);
+            return this;
+        }
+
+        /**
+         * See {@link ClassDeserializer#setParallelMode(boolean)}.
+         *
+         * @param parallel if large values should be deserialized in parallel.
+         *
+         * @return this builder.
+         */
+        public Builder setParallelMode(boolean parallel) {
+            config.setParallelMode(parallel);
+            return this;
+        }
+
+        /**
+         * See {@link ClassDeserializer#setParallelThreshold(int)}.
+         *
+         * @param parallelThreshold minimum number of elements to deserialize in parallel.
+         *
+         * @return this builder.
+         */
+        public Builder setParallelThreshold(int parallelThreshold) {
+            config.setParallelThreshold(parallelThreshold);
+            return this;
+        }
+
+        /**
+         * Build an immutable class deserializer with the options of this builder.
+         * The builder can still be used to build other deserializers afterwards.
+         *
+         * @return the class deserializer.
+         */
+        public ClassDeserializer build() {
+            return new ClassDeserializer(config);
+        }
+    }
+
 }
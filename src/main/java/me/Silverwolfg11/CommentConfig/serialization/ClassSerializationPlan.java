@@ -0,0 +1,291 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import me.Silverwolfg11.CommentConfig.annotations.Comment;
+import me.Silverwolfg11.CommentConfig.annotations.ConfigVersion;
+import me.Silverwolfg11.CommentConfig.annotations.Node;
+import me.Silverwolfg11.CommentConfig.annotations.SequenceComments;
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.annotations.SnakeSerialize;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The resolved serialization layout of a class.
+ * <br><br>
+ * The annotations and fields of a class are only read once,
+ * the first time the class is serialized. Every later serialization
+ * walks the cached plan.
+ */
+final class ClassSerializationPlan {
+
+    private static final String[] NO_PATH = new String[0];
+
+    private static final ClassValue<ClassSerializationPlan> PLANS = new ClassValue<ClassSerializationPlan>() {
+        @Override
+        protected ClassSerializationPlan computeValue(Class<?> type) {
+            return new ClassSerializationPlan(type);
+        }
+    };
+
+    private final boolean serializable;
+    private final String[] headerComments;
+    private final Double configVersion;
+    private final FieldPlan[] fields;
+    private final Section layout;
+
+    private ClassSerializationPlan(Class<?> clazz) {
+        this.serializable = clazz.isAnnotationPresent(SerializableConfig.class);
+
+        // Only resolve the layout of classes that can actually be serialized
+        if (!serializable) {
+            this.headerComments = null;
+            this.configVersion = null;
+            this.fields = new FieldPlan[0];
+            this.layout = new Section(null);
+            return;
+        }
+
+        Comment comment = clazz.getAnnotation(Comment.class);
+        this.headerComments = comment != null ? comment.value() : null;
+
+        ConfigVersion version = clazz.getAnnotation(ConfigVersion.class);
+        this.configVersion = version != null ? version.value() : null;
+
+        List<FieldPlan> fieldPlans = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            // Avoid compiler-generated or transient fields
+            if (field.isSynthetic() || Modifier.isTransient(field.getModifiers()))
+                continue;
+
+            fieldPlans.add(new FieldPlan(field, fieldPlans.size()));
+        }
+
+        this.fields = fieldPlans.toArray(new FieldPlan[0]);
+        this.layout = Section.of(fields);
+    }
+
+    /**
+     * Get the serialization plan of a class.
+     *
+     * @param clazz Class to get the plan for.
+     *
+     * @return the cached plan of the class.
+     */
+    static ClassSerializationPlan of(Class<?> clazz) {
+        return PLANS.get(clazz);
+    }
+
+    boolean isSerializable() {
+        return serializable;
+    }
+
+    boolean hasHeaderComments() {
+        return headerComments != null;
+    }
+
+    String[] getHeaderComments() {
+        return headerComments;
+    }
+
+    boolean hasConfigVersion() {
+        return configVersion != null;
+    }
+
+    double getConfigVersion() {
+        return configVersion;
+    }
+
+    FieldPlan[] getFields() {
+        return fields;
+    }
+
+    /**
+     * Get the YAML section layout of the class.
+     *
+     * @return the root section of the class.
+     */
+    Section getLayout() {
+        return layout;
+    }
+
+    /**
+     * A YAML section that the fields of a class are mapped to.
+     * <br><br>
+     * An entry is either a sub-section or the fields that are mapped to the key, in the order they are declared.
+     * If multiple fields are mapped to the same key, the last one that is serialized takes precedence.
+     */
+    static final class Section {
+        private final String key;
+        // Values are either a Section or a FieldPlan[]
+        private final Map<String, Object> entries = new LinkedHashMap<>();
+        private Object[] entryArray = new Object[0];
+        private FieldPlan[] descendants = new FieldPlan[0];
+
+        private Section(String key) {
+            this.key = key;
+        }
+
+        private static Section of(FieldPlan[] fields) {
+            Section root = new Section(null);
+            for (FieldPlan field : fields) {
+                Section section = root;
+                for (String sectionName : field.getParentPath()) {
+                    section.addDescendant(field);
+                    section = section.getOrCreateSection(sectionName);
+                }
+
+                section.addDescendant(field);
+                section.addField(field);
+            }
+
+            root.freeze();
+            return root;
+        }
+
+        private void freeze() {
+            entryArray = entries.values().toArray();
+            for (Object entry : entryArray) {
+                if (entry instanceof Section)
+                    ((Section) entry).freeze();
+            }
+        }
+
+        private Section getOrCreateSection(String sectionName) {
+            Object entry = entries.get(sectionName);
+            if (entry instanceof Section)
+                return (Section) entry;
+
+            // A section replaces a value with the same key
+            Section section = new Section(sectionName);
+            entries.put(sectionName, section);
+            return section;
+        }
+
+        private void addField(FieldPlan field) {
+            Object entry = entries.get(field.getKey());
+            if (entry instanceof FieldPlan[]) {
+                FieldPlan[] keyFields = (FieldPlan[]) entry;
+                keyFields = Arrays.copyOf(keyFields, keyFields.length + 1);
+                keyFields[keyFields.length - 1] = field;
+                entries.put(field.getKey(), keyFields);
+            }
+            else {
+                entries.put(field.getKey(), new FieldPlan[] { field });
+            }
+        }
+
+        private void addDescendant(FieldPlan field) {
+            descendants = Arrays.copyOf(descendants, descendants.length + 1);
+            descendants[descendants.length - 1] = field;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * Get the entries of the section.
+         *
+         * @return the entries of the section, each being a {@link Section} or a {@code FieldPlan[]}.
+         */
+        Object[] getEntries() {
+            return entryArray;
+        }
+
+        /**
+         * Get all fields that are mapped to this section or any of its sub-sections.
+         *
+         * @return the fields within the section.
+         */
+        FieldPlan[] getDescendants() {
+            return descendants;
+        }
+    }
+
+    /**
+     * The resolved serialization layout of a single field.
+     */
+    static final class FieldPlan {
+        private final int index;
+        private final FieldAccessor accessor;
+        private final String[] parentPath;
+        private final String key;
+        private final String[] comments;
+        private final boolean snakeSerialize;
+        private final boolean sequenceComments;
+
+        private FieldPlan(Field field, int index) {
+            this.index = index;
+            this.accessor = FieldAccessor.of(field);
+
+            Node nodeAnnotation = field.getAnnotation(Node.class);
+            if (nodeAnnotation != null) {
+                String[] path = nodeAnnotation.value();
+                if (path.length == 0) {
+                    String exMsg = String.format("The '@Node' annotation on field '%s' in class '%s' must have at least one element!",
+                            field.getName(), field.getDeclaringClass().getName());
+                    throw new UnsupportedOperationException(exMsg);
+                }
+
+                this.parentPath = Arrays.copyOf(path, path.length - 1);
+                this.key = path[path.length - 1];
+            }
+            else {
+                this.parentPath = NO_PATH;
+                this.key = field.getName();
+            }
+
+            Comment comment = field.getAnnotation(Comment.class);
+            this.comments = comment != null ? comment.value() : null;
+            this.snakeSerialize = field.isAnnotationPresent(SnakeSerialize.class);
+            this.sequenceComments = field.isAnnotationPresent(SequenceComments.class);
+        }
+
+        /**
+         * Get the index of the field in {@link ClassSerializationPlan#getFields()}.
+         *
+         * @return the index of the field.
+         */
+        int getIndex() {
+            return index;
+        }
+
+        FieldAccessor getAccessor() {
+            return accessor;
+        }
+
+        Object getValue(Object instance) {
+            return accessor.get(instance);
+        }
+
+        String[] getParentPath() {
+            return parentPath;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        boolean hasComments() {
+            return comments != null;
+        }
+
+        String[] getComments() {
+            return comments;
+        }
+
+        boolean isSnakeSerialized() {
+            return snakeSerialize;
+        }
+
+        boolean hasSequenceComments() {
+            return sequenceComments;
+        }
+    }
+}
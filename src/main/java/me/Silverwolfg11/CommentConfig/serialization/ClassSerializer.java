@@ -1,24 +1,20 @@
 package me.Silverwolfg11.CommentConfig.serialization;
 
-import me.Silverwolfg11.CommentConfig.annotations.Comment;
-import me.Silverwolfg11.CommentConfig.annotations.ConfigVersion;
-import me.Silverwolfg11.CommentConfig.annotations.Node;
 import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
-import me.Silverwolfg11.CommentConfig.annotations.SnakeSerialize;
 import me.Silverwolfg11.CommentConfig.node.CommentKey;
 import me.Silverwolfg11.CommentConfig.node.ConfigNode;
 import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
 import me.Silverwolfg11.CommentConfig.node.ValueConfigNode;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public class ClassSerializer {
 
@@ -38,42 +34,106 @@ public class ClassSerializer {
      *
      * @return the node representation of the object.
      */
+    @SuppressWarnings("unchecked")
     public static ParentConfigNode serializeClass(Object obj) {
         Class<?> clazz = obj.getClass();
 
+        // Use the generated codec if there is one
+        ConfigCodec<Object> codec = (ConfigCodec<Object>) GeneratedCodecs.get(clazz);
+        if (codec != null) {
+            return codec.toNode(obj);
+        }
+
+        ClassSerializationPlan plan = ClassSerializationPlan.of(clazz);
+
         // Make sure class is marked to be serializable
-        if (!clazz.isAnnotationPresent(SerializableConfig.class)) {
+        if (!plan.isSerializable()) {
             String exMsg = String.format("Class '%s' must have the '@SerializableConfig' annotation to be serialized!", clazz.getName());
             throw new UnsupportedOperationException(exMsg);
         }
 
         ParentConfigNode root = ParentConfigNode.createRoot();
-        serializeFields(obj, Arrays.asList(clazz.getDeclaredFields()), root);
+        serializeFields(obj, plan, root);
 
         // Check if the class has any header comments
-        if (clazz.isAnnotationPresent(Comment.class)) {
-            Comment comment = clazz.getAnnotation(Comment.class);
-            root.setComments(comment.value());
+        if (plan.hasHeaderComments()) {
+            root.setComments(plan.getHeaderComments());
         }
 
-        if (clazz.isAnnotationPresent(ConfigVersion.class)) {
-            ConfigVersion versionAnnot = clazz.getAnnotation(ConfigVersion.class);
-            double configVersion = versionAnnot.value();
-            root.addChild("config-version", configVersion, "Do not touch!!!");
+        if (plan.hasConfigVersion()) {
+            root.addChild("config-version", plan.getConfigVersion(), "Do not touch!!!");
         }
 
         return root;
     }
 
-    private static boolean isSpeciallySerialized(Object obj) {
+    /**
+     * Serialize an object straight to YAML.
+     * <br><br>
+     * Unlike {@link #serializeClass(Object)}, no node representation of the object is built.
+     * The YAML is written while the object is walked, so the memory used only depends
+     * on how deeply the object is nested, not on how large the object is.
+     * <br><br>
+     * The YAML written is the same as serializing the node representation with a {@link NodeSerializer},
+     * except that a value referenced by multiple fields is written out each time instead of as a YAML alias.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param obj the object to serialize.
+     * @param writer the writer to write the YAML to. The writer is flushed, but not closed.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public static void serializeToWriter(Object obj, Writer writer) throws IOException {
+        serializeToWriter(obj, writer, new NodeSerializer());
+    }
+
+    /**
+     * Serialize an object straight to YAML using the serializers
+     * registered on a node serializer.
+     * <br><br>
+     * See {@link #serializeToWriter(Object, Writer)}.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param obj the object to serialize.
+     * @param writer the writer to write the YAML to. The writer is flushed, but not closed.
+     * @param serializer the node serializer to write the YAML with.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public static void serializeToWriter(Object obj, Writer writer, NodeSerializer serializer) throws IOException {
+        Objects.requireNonNull(obj);
+        Objects.requireNonNull(writer);
+        Objects.requireNonNull(serializer);
+
+        ClassStreamWriter.write(obj, writer, serializer.getYaml());
+    }
+
+    static boolean isSerializableClass(Class<?> clazz) {
+        return GeneratedCodecs.get(clazz) != null || ClassSerializationPlan.of(clazz).isSerializable();
+    }
+
+    static boolean isSpeciallySerialized(Object obj) {
         Class<?> clazz = obj.getClass();
         return clazz.isEnum() ||
-                clazz.isAnnotationPresent(SerializableConfig.class) ||
+                obj instanceof Lazy ||
+                isSerializableClass(clazz) ||
                 obj instanceof Map ||
                 obj instanceof Collection;
     }
 
+    // Lazy values are serialized as their value
+    static Object unwrapLazy(Object obj) {
+        return obj instanceof Lazy ? ((Lazy<?>) obj).get() : obj;
+    }
+
     private static ConfigNode serializeChild(Object obj) {
+        return serializeChild(obj, false);
+    }
+
+    private static ConfigNode serializeChild(Object obj, boolean sequenceComments) {
+        obj = unwrapLazy(obj);
         if (obj == null)
             return null;
 
@@ -81,7 +141,7 @@ public class ClassSerializer {
         if (clazz.isEnum()) {
             return ValueConfigNode.leaf(((Enum) obj).name());
         }
-        else if (clazz.isAnnotationPresent(SerializableConfig.class)) {
+        else if (isSerializableClass(clazz)) {
             ParentConfigNode classNode = serializeClass(obj);
             // If class node is empty then skip serialization
             return classNode.hasChildren() ? classNode : null;
@@ -133,6 +193,8 @@ public class ClassSerializer {
                 return ValueConfigNode.leaf(obj);
             
             List<Object> serializedList = new ArrayList<>();
+            // Comments of the element fields by node path, if they're written above the sequence
+            Map<String, String[]> elementComments = sequenceComments ? new LinkedHashMap<>() : null;
             for (Object el : collection) {
                 Object serializedElement;
                 ConfigNode node = serializeChild(el);
@@ -144,6 +206,14 @@ public class ClassSerializer {
                     if (!objectNode.hasChildren())
                         continue;
 
+                    Class<?> elClass = unwrapLazy(el).getClass();
+                    if (elementComments != null && isSerializableClass(elClass)) {
+                        ClassSerializationPlan plan = ClassSerializationPlan.of(elClass);
+                        takeElementComments(plan.getLayout(), objectNode, "", elementComments);
+                        if (plan.hasConfigVersion())
+                            takeElementComment(objectNode, "config-version", "", elementComments);
+                    }
+
                     // Serialize the node to a comment key map in order to preserve comments on the serialized object.
                     Map<CommentKey, Object> objectMap = new LinkedHashMap<>();
                     NodeSerializer.serializeToCommentMap(objectNode, objectMap);
@@ -153,7 +223,11 @@ public class ClassSerializer {
                 serializedList.add(serializedElement);
             }
 
-            return ValueConfigNode.leaf(serializedList);
+            ValueConfigNode listNode = ValueConfigNode.leaf(serializedList);
+            if (elementComments != null && !elementComments.isEmpty())
+                listNode.setComments(formatElementComments(elementComments));
+
+            return listNode;
         }
         else {
             // Return parent-less, key-less value node
@@ -162,82 +236,134 @@ public class ClassSerializer {
         }
     }
 
-    private static void serializeFields(Object obj, Collection<Field> fields, ParentConfigNode root) {
-        for (Field field : fields) {
-            // Avoid compiler-generated or transient fields
-            if (field.isSynthetic() || Modifier.isTransient(field.getModifiers()))
-                continue;
-
-            Object fieldValue = null;
-
-            field.setAccessible(true);
-            try {
-                fieldValue = field.get(obj);
-            } catch (IllegalAccessException e) {
-                e.printStackTrace();
-            }
-            field.setAccessible(false);
-
-            // If the field value is null do not add it to the node
-            if (fieldValue == null)
-                continue;
-
-            ParentConfigNode currParent;
-            String childName;
-
-            if (field.isAnnotationPresent(Node.class)) {
-                Node nodeAnnotation = field.getAnnotation(Node.class);
-                String[] key = nodeAnnotation.value();
-                currParent = getParentNodeFromKey(key, 0, root);
-                childName = key[key.length - 1];
+    // Move the comments of the element fields from an element node to the comments of the sequence.
+    // Only the first comments of a path are kept, since elements of the same class have the same comments.
+    private static void takeElementComments(ClassSerializationPlan.Section section, ParentConfigNode node,
+                                            String prefix, Map<String, String[]> elementComments) {
+        for (Object entry : section.getEntries()) {
+            if (entry instanceof ClassSerializationPlan.Section) {
+                ClassSerializationPlan.Section subSection = (ClassSerializationPlan.Section) entry;
+                ConfigNode child = node.getChild(subSection.getKey());
+                if (child instanceof ParentConfigNode)
+                    takeElementComments(subSection, (ParentConfigNode) child, prefix + subSection.getKey() + ".", elementComments);
             }
             else {
-                currParent = root;
-                childName = field.getName();
+                takeElementComment(node, ((ClassSerializationPlan.FieldPlan[]) entry)[0].getKey(), prefix, elementComments);
             }
+        }
+    }
 
-            ConfigNode newNode;
-            if (field.isAnnotationPresent(SnakeSerialize.class)) {
-                newNode = ValueConfigNode.leaf(fieldValue);
-            }
-            else {
-                newNode = serializeChild(fieldValue);
+    private static void takeElementComment(ParentConfigNode node, String key, String prefix, Map<String, String[]> elementComments) {
+        ConfigNode child = node.getChild(key);
+        if (child != null && child.hasComments()) {
+            elementComments.putIfAbsent(prefix + key, child.getComments());
+            child.removeComments();
+        }
+    }
+
+    /**
+     * Format the comments of element fields to be written above a sequence.
+     * Every comment line is prefixed with the node path of its field.
+     *
+     * @param elementComments Comments of the element fields by node path.
+     *
+     * @return the comments of the sequence.
+     */
+    static String[] formatElementComments(Map<String, String[]> elementComments) {
+        List<String> comments = new ArrayList<>();
+        for (Map.Entry<String, String[]> entry : elementComments.entrySet()) {
+            for (String comment : entry.getValue()) {
+                comments.add(comment.isEmpty() ? comment : entry.getKey() + ": " + comment);
             }
+        }
+
+        return comments.toArray(new String[0]);
+    }
 
-            if (newNode == null)
-                continue;
+    private static void serializeFields(Object obj, ClassSerializationPlan plan, ParentConfigNode root) {
+        for (ClassSerializationPlan.FieldPlan field : plan.getFields()) {
+            serializeField(root, field.getParentPath(), field.getKey(), field.getComments(),
+                    field.isSnakeSerialized(), field.hasSequenceComments(), field.getValue(obj));
+        }
+    }
 
-            newNode.setKey(childName);
-            currParent.addChild(newNode);
+    /**
+     * Serialize a field value and add it to a node.
+     * <br><br>
+     * <b>ONLY MEANT FOR INTERNAL USAGE AND GENERATED CODE.</b>
+     *
+     * @param root Node representation of the object that the field belongs to.
+     * @param parentPath Names of the parent sections of the field node.
+     * @param key Key of the field node.
+     * @param comments Comments of the field or {@code null}.
+     * @param snakeSerialize If the value should be natively serialized by SnakeYAML.
+     * @param fieldValue Value of the field.
+     */
+    public static void serializeField(ParentConfigNode root, String[] parentPath, String key, String[] comments,
+                                      boolean snakeSerialize, Object fieldValue) {
+        serializeField(root, parentPath, key, comments, snakeSerialize, false, fieldValue);
+    }
 
-            Comment comments = field.getAnnotation(Comment.class);
+    /**
+     * Serialize a field value and add it to a node.
+     * <br><br>
+     * <b>ONLY MEANT FOR INTERNAL USAGE AND GENERATED CODE.</b>
+     *
+     * @param root Node representation of the object that the field belongs to.
+     * @param parentPath Names of the parent sections of the field node.
+     * @param key Key of the field node.
+     * @param comments Comments of the field or {@code null}.
+     * @param snakeSerialize If the value should be natively serialized by SnakeYAML.
+     * @param sequenceComments If the comments of collection elements should be written once above the sequence.
+     * @param fieldValue Value of the field.
+     */
+    public static void serializeField(ParentConfigNode root, String[] parentPath, String key, String[] comments,
+                                      boolean snakeSerialize, boolean sequenceComments, Object fieldValue) {
+        fieldValue = unwrapLazy(fieldValue);
+        // If the field value is null do not add it to the node
+        if (fieldValue == null)
+            return;
+
+        ParentConfigNode currParent = getParentNodeFromKey(parentPath, 0, root);
+
+        ConfigNode newNode;
+        if (snakeSerialize) {
+            newNode = ValueConfigNode.leaf(fieldValue);
+        }
+        else {
+            newNode = serializeChild(fieldValue, sequenceComments);
+        }
 
-            if (comments != null) {
-                String[] commentsArray = comments.value();
-                // Merge existing comments list
-                if (newNode.hasComments()) {
-                    List<String> mergedComments = new ArrayList<>(commentsArray.length + newNode.getComments().length);
-                    Collections.addAll(mergedComments, commentsArray);
-                    Collections.addAll(mergedComments, newNode.getComments());
+        if (newNode == null)
+            return;
 
-                    commentsArray = mergedComments.toArray(new String[0]);
-                }
+        newNode.setKey(key);
+        currParent.addChild(newNode);
+
+        if (comments != null) {
+            String[] commentsArray = comments;
+            // Merge existing comments list
+            if (newNode.hasComments()) {
+                List<String> mergedComments = new ArrayList<>(commentsArray.length + newNode.getComments().length);
+                Collections.addAll(mergedComments, commentsArray);
+                Collections.addAll(mergedComments, newNode.getComments());
 
-                newNode.setComments(commentsArray);
+                commentsArray = mergedComments.toArray(new String[0]);
             }
 
+            newNode.setComments(commentsArray);
         }
     }
 
-    private static ParentConfigNode getParentNodeFromKey(String[] key, int currIndex, ParentConfigNode parent) {
-        if (key.length == 0 || currIndex == key.length - 1) {
+    private static ParentConfigNode getParentNodeFromKey(String[] parentPath, int currIndex, ParentConfigNode parent) {
+        if (currIndex == parentPath.length) {
             return parent;
         }
 
-        String childName = key[currIndex];
+        String childName = parentPath[currIndex];
         ParentConfigNode newParent = parent.addSection(childName);
 
-        return getParentNodeFromKey(key, ++currIndex, newParent);
+        return getParentNodeFromKey(parentPath, ++currIndex, newParent);
     }
 
 
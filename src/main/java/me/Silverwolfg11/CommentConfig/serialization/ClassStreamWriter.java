@@ -0,0 +1,418 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import me.Silverwolfg11.CommentConfig.hacks.CommentEventWriter;
+import me.Silverwolfg11.CommentConfig.hacks.CommentYAML;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes an object straight to YAML without building a node representation of it.
+ * <br><br>
+ * The output mirrors {@link ClassSerializer#serializeClass(Object)} followed by
+ * {@link NodeSerializer#serializeToString(me.Silverwolfg11.CommentConfig.node.ConfigNode)}.
+ * Because nothing is buffered, the writer has to know if a node would be written before writing its key.
+ * The {@code producesNode} checks mirror when the class serializer creates a node,
+ * and a node is only written if the node serializer would write it.
+ */
+final class ClassStreamWriter {
+
+    private static final String[] CONFIG_VERSION_COMMENTS = { "Do not touch!!!" };
+    // Stands in for the value of a primitive field, which is only read when it's written so that it isn't boxed
+    private static final Object UNBOXED_VALUE = new Object();
+
+    private final CommentEventWriter out;
+
+    private ClassStreamWriter(CommentEventWriter out) {
+        this.out = out;
+    }
+
+    static void write(Object obj, Writer writer, CommentYAML yaml) throws IOException {
+        Class<?> clazz = obj.getClass();
+        ClassSerializationPlan plan = ClassSerializationPlan.of(clazz);
+
+        // Make sure class is marked to be serializable
+        if (!plan.isSerializable()) {
+            String exMsg = String.format("Class '%s' must have the '@SerializableConfig' annotation to be serialized!", clazz.getName());
+            throw new UnsupportedOperationException(exMsg);
+        }
+
+        // Handle root comments a.k.a the header
+        if (plan.hasHeaderComments()) {
+            for (String comment : plan.getHeaderComments()) {
+                if (!comment.isEmpty())
+                    writer.append("# ").append(comment);
+
+                writer.append('\n');
+            }
+        }
+
+        CommentEventWriter out = new CommentEventWriter(writer, yaml);
+        out.startDocument();
+        out.startMapping();
+        new ClassStreamWriter(out).writeClassBody(obj, plan, true);
+        out.endMapping();
+        out.endDocument();
+    }
+
+    private static Object[] readValues(Object obj, ClassSerializationPlan plan) {
+        ClassSerializationPlan.FieldPlan[] fields = plan.getFields();
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = isUnboxed(fields[i]) ? UNBOXED_VALUE : ClassSerializer.unwrapLazy(fields[i].getValue(obj));
+        }
+
+        return values;
+    }
+
+    private static boolean isUnboxed(ClassSerializationPlan.FieldPlan field) {
+        Class<?> type = field.getAccessor().getField().getType();
+        return type == int.class || type == long.class || type == double.class || type == boolean.class;
+    }
+
+    // Comments are not written for the fields of elements that have their comments written above the sequence
+    private void writeClassBody(Object obj, ClassSerializationPlan plan, boolean withComments) throws IOException {
+        writeSection(plan.getLayout(), obj, readValues(obj, plan), withComments);
+
+        if (plan.hasConfigVersion()) {
+            out.writeKey("config-version", withComments ? CONFIG_VERSION_COMMENTS : null);
+            out.writeValue(plan.getConfigVersion());
+        }
+    }
+
+    private void writeSection(ClassSerializationPlan.Section section, Object obj, Object[] values,
+                              boolean withComments) throws IOException {
+        Object[] entries = section.getEntries();
+
+        // Children are in the order their keys are first added to the section node,
+        // which depends on which fields have a value.
+        long[] order = new long[entries.length];
+        int count = 0;
+        for (int i = 0; i < entries.length; i++) {
+            int position = getPosition(entries[i], values);
+            if (position != -1)
+                order[count++] = ((long) position << 32) | i;
+        }
+
+        Arrays.sort(order, 0, count);
+
+        for (int i = 0; i < count; i++) {
+            Object entry = entries[(int) order[i]];
+            if (entry instanceof ClassSerializationPlan.Section) {
+                ClassSerializationPlan.Section subSection = (ClassSerializationPlan.Section) entry;
+                if (!hasChildren(subSection, values))
+                    continue;
+
+                out.writeKey(subSection.getKey(), null);
+                out.startMapping();
+                writeSection(subSection, obj, values, withComments);
+                out.endMapping();
+            }
+            else {
+                ClassSerializationPlan.FieldPlan[] fields = (ClassSerializationPlan.FieldPlan[]) entry;
+                // The position already tells that a single field is serialized
+                ClassSerializationPlan.FieldPlan field = fields.length == 1 ? fields[0] : getSerializedField(fields, values);
+                Object value = values[field.getIndex()];
+                String[] comments = withComments ? getKeyComments(field, value) : null;
+                if (value == UNBOXED_VALUE) {
+                    out.writeKey(field.getKey(), comments);
+                    writeUnboxed(field.getAccessor(), obj);
+                }
+                else {
+                    writeNode(field.getKey(), comments, field.isSnakeSerialized(), field.hasSequenceComments(), value);
+                }
+            }
+        }
+    }
+
+    private void writeUnboxed(FieldAccessor accessor, Object obj) throws IOException {
+        Class<?> type = accessor.getField().getType();
+        if (type == int.class) {
+            out.writeInt(accessor.getInt(obj));
+        }
+        else if (type == long.class) {
+            out.writeLong(accessor.getLong(obj));
+        }
+        else if (type == double.class) {
+            out.writeDouble(accessor.getDouble(obj));
+        }
+        else {
+            out.writeBoolean(accessor.getBoolean(obj));
+        }
+    }
+
+    private void writeNode(String key, String[] comments, boolean snakeSerialize, boolean sequenceComments,
+                           Object value) throws IOException {
+        value = ClassSerializer.unwrapLazy(value);
+        if (snakeSerialize || !ClassSerializer.isSpeciallySerialized(value)) {
+            out.writeKey(key, comments);
+            out.writeValue(value);
+            return;
+        }
+
+        Class<?> clazz = value.getClass();
+        if (clazz.isEnum()) {
+            out.writeKey(key, comments);
+            out.writeValue(((Enum<?>) value).name());
+        }
+        else if (ClassSerializer.isSerializableClass(clazz)) {
+            out.writeKey(key, comments);
+            out.startMapping();
+            writeClassBody(value, ClassSerializationPlan.of(clazz), true);
+            out.endMapping();
+        }
+        else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            // The map section is only written if it has children
+            if (!hasSerializedEntry(map))
+                return;
+
+            out.writeKey(key, comments);
+            out.startMapping();
+            writeMapEntries(map);
+            out.endMapping();
+        }
+        else {
+            out.writeKey(key, comments);
+            writeCollection((Collection<?>) value, sequenceComments);
+        }
+    }
+
+    private void writeMapEntries(Map<?, ?> map) throws IOException {
+        for (Map.Entry<?, ?> mapEntry : map.entrySet()) {
+            String nodeKey = getMapKey(mapEntry.getKey());
+            Object value = mapEntry.getValue();
+
+            if (producesNode(value)) {
+                writeNode(nodeKey, getKeyComments(null, false, false, value), false, false, value);
+            }
+        }
+    }
+
+    private void writeCollection(Collection<?> collection, boolean sequenceComments) throws IOException {
+        Object sampleEl = collection.iterator().next();
+
+        // Only specially serialize complex objects
+        if (!ClassSerializer.isSpeciallySerialized(sampleEl)) {
+            out.writeValue(collection);
+            return;
+        }
+
+        out.startSequence();
+        for (Object el : collection) {
+            writeElement(el, sequenceComments);
+        }
+        out.endSequence();
+    }
+
+    private void writeElement(Object el, boolean sequenceComments) throws IOException {
+        el = ClassSerializer.unwrapLazy(el);
+        // Elements that have nothing to serialize are skipped
+        if (!producesNode(el))
+            return;
+
+        Class<?> clazz = el.getClass();
+        if (clazz.isEnum()) {
+            out.writeValue(((Enum<?>) el).name());
+        }
+        else if (ClassSerializer.isSerializableClass(clazz)) {
+            // Comments on the class of an element are not written
+            out.startMapping();
+            writeClassBody(el, ClassSerializationPlan.of(clazz), !sequenceComments);
+            out.endMapping();
+        }
+        else if (el instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) el;
+            if (!hasSerializedEntry(map))
+                return;
+
+            out.startMapping();
+            writeMapEntries(map);
+            out.endMapping();
+        }
+        else if (el instanceof Collection) {
+            writeCollection((Collection<?>) el, false);
+        }
+        else {
+            out.writeValue(el);
+        }
+    }
+
+    private static String[] getKeyComments(ClassSerializationPlan.FieldPlan field, Object value) {
+        return getKeyComments(field.getComments(), field.isSnakeSerialized(), field.hasSequenceComments(), value);
+    }
+
+    // Get the comments that the node of a value has, mirroring how ClassSerializer#serializeField merges them
+    private static String[] getKeyComments(String[] comments, boolean snakeSerialize, boolean sequenceComments, Object value) {
+        value = ClassSerializer.unwrapLazy(value);
+        if (snakeSerialize || value == UNBOXED_VALUE || !ClassSerializer.isSpeciallySerialized(value))
+            return comments;
+
+        Class<?> clazz = value.getClass();
+        if (clazz.isEnum()) {
+            return comments;
+        }
+        else if (ClassSerializer.isSerializableClass(clazz)) {
+            return mergeComments(comments, ClassSerializationPlan.of(clazz).getHeaderComments());
+        }
+        else if (sequenceComments && value instanceof Collection) {
+            return mergeComments(comments, getElementComments((Collection<?>) value));
+        }
+
+        return comments;
+    }
+
+    // Get the comments of the element fields that are written above a sequence or null if there are none
+    private static String[] getElementComments(Collection<?> collection) {
+        // Only specially serialized elements are written as a sequence
+        if (!ClassSerializer.isSpeciallySerialized(collection.iterator().next()))
+            return null;
+
+        Map<String, String[]> elementComments = new LinkedHashMap<>();
+        for (Object el : collection) {
+            el = ClassSerializer.unwrapLazy(el);
+            if (el == null || !ClassSerializer.isSerializableClass(el.getClass()) || !producesNode(el))
+                continue;
+
+            ClassSerializationPlan plan = ClassSerializationPlan.of(el.getClass());
+            addElementComments(plan.getLayout(), readValues(el, plan), "", elementComments);
+            if (plan.hasConfigVersion())
+                elementComments.putIfAbsent("config-version", CONFIG_VERSION_COMMENTS);
+        }
+
+        return elementComments.isEmpty() ? null : ClassSerializer.formatElementComments(elementComments);
+    }
+
+    private static void addElementComments(ClassSerializationPlan.Section section, Object[] values,
+                                           String prefix, Map<String, String[]> elementComments) {
+        for (Object entry : section.getEntries()) {
+            if (entry instanceof ClassSerializationPlan.Section) {
+                ClassSerializationPlan.Section subSection = (ClassSerializationPlan.Section) entry;
+                addElementComments(subSection, values, prefix + subSection.getKey() + ".", elementComments);
+                continue;
+            }
+
+            ClassSerializationPlan.FieldPlan field = getSerializedField((ClassSerializationPlan.FieldPlan[]) entry, values);
+            if (field == null)
+                continue;
+
+            String[] comments = getKeyComments(field, values[field.getIndex()]);
+            if (comments != null)
+                elementComments.putIfAbsent(prefix + field.getKey(), comments);
+        }
+    }
+
+    private static String getMapKey(Object key) {
+        if (key.getClass().isEnum())
+            return ((Enum<?>) key).name();
+
+        if (!(key instanceof String))
+            throw new UnsupportedOperationException("Cannot serialize map that does not have a string or enum key");
+
+        return (String) key;
+    }
+
+    // Mirrors ClassSerializer#serializeChild returning a node
+    private static boolean producesNode(Object value) {
+        value = ClassSerializer.unwrapLazy(value);
+        if (value == null)
+            return false;
+
+        // Skip the class lookups for common scalar values
+        if (value == UNBOXED_VALUE || value instanceof String || value instanceof Integer || value instanceof Long
+                || value instanceof Double || value instanceof Boolean)
+            return true;
+
+        Class<?> clazz = value.getClass();
+        if (clazz.isEnum()) {
+            return true;
+        }
+        else if (ClassSerializer.isSerializableClass(clazz)) {
+            return hasChildren(value);
+        }
+        else if (value instanceof Map) {
+            return !((Map<?, ?>) value).isEmpty();
+        }
+        else if (value instanceof Collection) {
+            return !((Collection<?>) value).isEmpty();
+        }
+
+        return true;
+    }
+
+    // If the node representation of the object has any children
+    private static boolean hasChildren(Object obj) {
+        ClassSerializationPlan plan = ClassSerializationPlan.of(obj.getClass());
+        return plan.hasConfigVersion() || hasChildren(plan.getLayout(), readValues(obj, plan));
+    }
+
+    private static boolean hasChildren(ClassSerializationPlan.Section section, Object[] values) {
+        for (Object entry : section.getEntries()) {
+            if (getPosition(entry, values) != -1)
+                return true;
+        }
+
+        return false;
+    }
+
+    // Get the index of the field that adds the entry to the section node or -1 if the entry is never added
+    private static int getPosition(Object entry, Object[] values) {
+        if (entry instanceof ClassSerializationPlan.Section) {
+            // Sections are created for any field with a value, even if the field isn't serialized
+            for (ClassSerializationPlan.FieldPlan field : ((ClassSerializationPlan.Section) entry).getDescendants()) {
+                if (values[field.getIndex()] != null)
+                    return field.getIndex();
+            }
+
+            return -1;
+        }
+
+        for (ClassSerializationPlan.FieldPlan field : (ClassSerializationPlan.FieldPlan[]) entry) {
+            if (producesNode(field, values))
+                return field.getIndex();
+        }
+
+        return -1;
+    }
+
+    private static boolean hasSerializedEntry(Map<?, ?> map) {
+        for (Map.Entry<?, ?> mapEntry : map.entrySet()) {
+            getMapKey(mapEntry.getKey());
+            if (producesNode(mapEntry.getValue()))
+                return true;
+        }
+
+        return false;
+    }
+
+    // The last field mapped to a key that produces a node replaces any earlier ones
+    private static ClassSerializationPlan.FieldPlan getSerializedField(ClassSerializationPlan.FieldPlan[] fields, Object[] values) {
+        for (int i = fields.length - 1; i >= 0; i--) {
+            if (producesNode(fields[i], values))
+                return fields[i];
+        }
+
+        return null;
+    }
+
+    private static boolean producesNode(ClassSerializationPlan.FieldPlan field, Object[] values) {
+        Object value = values[field.getIndex()];
+        return value != null && (field.isSnakeSerialized() || producesNode(value));
+    }
+
+    private static String[] mergeComments(String[] fieldComments, String[] nodeComments) {
+        if (fieldComments == null)
+            return nodeComments;
+
+        if (nodeComments == null)
+            return fieldComments;
+
+        String[] mergedComments = Arrays.copyOf(fieldComments, fieldComments.length + nodeComments.length);
+        System.arraycopy(nodeComments, 0, mergedComments, fieldComments.length, nodeComments.length);
+        return mergedComments;
+    }
+}
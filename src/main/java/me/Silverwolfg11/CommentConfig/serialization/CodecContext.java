@@ -0,0 +1,122 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import java.util.Map;
+
+/**
+ * Converts serialized YAML values for generated {@link ConfigCodec}s
+ * the same way that reflection-based deserialization would.
+ * <br><br>
+ * <b>ONLY MEANT FOR GENERATED CODE.</b>
+ */
+public final class CodecContext {
+
+    private final ClassDeserializer classDeserializer;
+    private final FieldDeserializer fieldDeserializer;
+
+    CodecContext(ClassDeserializer classDeserializer, FieldDeserializer fieldDeserializer) {
+        this.classDeserializer = classDeserializer;
+        this.fieldDeserializer = fieldDeserializer;
+    }
+
+    /**
+     * Get the serialized value at a node path.
+     *
+     * @param map Map loaded from YAML.
+     * @param path Node path. The last element is the key of the value.
+     *
+     * @return the serialized value or {@code null} if the path does not exist.
+     */
+    public Object getNode(Map<String, Object> map, String[] path) {
+        return ClassDeserializer.getNodeObject(map, path);
+    }
+
+    /**
+     * Convert a serialized value to the type of field.
+     *
+     * @param fieldName Name of the field.
+     * @param fieldValue Current value of the field.
+     * @param serializedObj Serialized value loaded from YAML.
+     * @param type Type of the field.
+     *
+     * @return the converted value or {@code null} if the field should not be set.
+     */
+    public Object convert(String fieldName, Object fieldValue, Object serializedObj, CodecType type) {
+        if (serializedObj == null)
+            return null;
+
+        return classDeserializer.convertFieldValue(fieldDeserializer, fieldName, fieldValue, serializedObj, type.getDescriptor());
+    }
+
+    // Primitive conversions follow the widening rules of Field#set(Object, Object).
+
+    public static int toInt(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).intValue();
+        if (value instanceof Character)
+            return (Character) value;
+
+        throw cannotSet("int", value);
+    }
+
+    public static long toLong(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).longValue();
+        if (value instanceof Character)
+            return (Character) value;
+
+        throw cannotSet("long", value);
+    }
+
+    public static double toDouble(Object value) {
+        if (value instanceof Double || value instanceof Float || value instanceof Long
+                || value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).doubleValue();
+        if (value instanceof Character)
+            return (Character) value;
+
+        throw cannotSet("double", value);
+    }
+
+    public static float toFloat(Object value) {
+        if (value instanceof Float || value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte)
+            return ((Number) value).floatValue();
+        if (value instanceof Character)
+            return (Character) value;
+
+        throw cannotSet("float", value);
+    }
+
+    public static short toShort(Object value) {
+        if (value instanceof Short || value instanceof Byte)
+            return ((Number) value).shortValue();
+
+        throw cannotSet("short", value);
+    }
+
+    public static byte toByte(Object value) {
+        if (value instanceof Byte)
+            return (Byte) value;
+
+        throw cannotSet("byte", value);
+    }
+
+    public static char toChar(Object value) {
+        if (value instanceof Character)
+            return (Character) value;
+
+        throw cannotSet("char", value);
+    }
+
+    public static boolean toBoolean(Object value) {
+        if (value instanceof Boolean)
+            return (Boolean) value;
+
+        throw cannotSet("boolean", value);
+    }
+
+    private static IllegalArgumentException cannotSet(String type, Object value) {
+        String valueType = value != null ? value.getClass().getName() : "null value";
+        return new IllegalArgumentException("Can not set " + type + " field to " + valueType);
+    }
+}
@@ -0,0 +1,90 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A field type that is described by generated code through class literals,
+ * so the generic type of a field does not have to be looked up through reflection.
+ * <br><br>
+ * <b>ONLY MEANT FOR GENERATED CODE.</b>
+ */
+public final class CodecType {
+
+    private final TypeDescriptor descriptor;
+
+    private CodecType(Type type) {
+        this.descriptor = TypeDescriptor.of(type);
+    }
+
+    /**
+     * Describe a non-generic type.
+     *
+     * @param clazz The class of the type.
+     *              The class <b>cannot</b> be {@code null}.
+     *
+     * @return the type.
+     */
+    public static CodecType of(Class<?> clazz) {
+        return new CodecType(Objects.requireNonNull(clazz));
+    }
+
+    /**
+     * Describe a generic type, like {@code Map<String, List<Integer>>}.
+     *
+     * @param rawClass The raw class of the type.
+     *                 The class <b>cannot</b> be {@code null}.
+     * @param typeArguments The types of the generic arguments.
+     *
+     * @return the type.
+     */
+    public static CodecType of(Class<?> rawClass, CodecType... typeArguments) {
+        Objects.requireNonNull(rawClass);
+
+        if (typeArguments.length == 0)
+            return of(rawClass);
+
+        Type[] arguments = new Type[typeArguments.length];
+        for (int i = 0; i < typeArguments.length; i++) {
+            arguments[i] = typeArguments[i].descriptor.getType();
+        }
+
+        return new CodecType(new SimpleParameterizedType(rawClass, arguments));
+    }
+
+    TypeDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    private static final class SimpleParameterizedType implements ParameterizedType {
+        private final Class<?> rawType;
+        private final Type[] arguments;
+
+        private SimpleParameterizedType(Class<?> rawType, Type[] arguments) {
+            this.rawType = rawType;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return arguments.clone();
+        }
+
+        @Override
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return rawType.getDeclaringClass();
+        }
+
+        @Override
+        public String toString() {
+            return rawType.getName() + Arrays.toString(arguments).replace('[', '<').replace(']', '>');
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+
+import java.util.Map;
+
+/**
+ * A compile-time generated serializer and deserializer for a
+ * {@link me.Silverwolfg11.CommentConfig.annotations.SerializableConfig} class.
+ * <br><br>
+ * Codecs are generated by the optional {@code CommentConfig-processor} annotation processor
+ * and are picked up automatically by {@link ClassSerializer} and {@link ClassDeserializer}.
+ * Classes without a generated codec are serialized through reflection.
+ * <br><br>
+ * <b>ONLY MEANT FOR GENERATED CODE.</b>
+ *
+ * @param <T> The class that the codec serializes.
+ */
+public interface ConfigCodec<T> {
+
+    /**
+     * The suffix appended to the flattened binary class name
+     * to get the name of the generated codec class.
+     */
+    String CODEC_SUFFIX = "_CommentConfigCodec";
+
+    /**
+     * Construct a new instance of the class with its default constructor.
+     *
+     * @return a new instance of the class.
+     */
+    T newInstance();
+
+    /**
+     * Serialize an object to an abstract node representation.
+     *
+     * @param object Object to serialize.
+     *
+     * @return the node representation of the object.
+     */
+    ParentConfigNode toNode(T object);
+
+    /**
+     * Deserialize the fields of an object from a YAML map.
+     *
+     * @param map Map loaded from YAML.
+     * @param instance Instance to set the fields of.
+     * @param context Context used to convert the serialized field values.
+     *
+     * @return the passed in instance.
+     */
+    T fromMap(Map<String, Object> map, T instance, CodecContext context);
+}
@@ -0,0 +1,131 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The custom deserializers of a class deserializer, looked up by the type a value is deserialized to.
+ * <br><br>
+ * A type uses the deserializer registered for the type itself, else the one of the closest superclass,
+ * else the one of the first interface found breadth-first. Primitive types use the deserializer of their wrapper type.
+ * Lookups are cached per type.
+ */
+final class DeserializerRegistry {
+
+    // Cached for types without a deserializer, since a class value can't hold null
+    private static final DeserializableObject NONE = o -> o;
+
+    private final Map<Class<?>, DeserializableObject> deserializers = new HashMap<>();
+    // Replaced when a deserializer is registered, so lookups on other threads never see a stale cache
+    private volatile ClassValue<DeserializableObject> resolved = createCache();
+
+    DeserializerRegistry() {
+    }
+
+    private DeserializerRegistry(Map<Class<?>, DeserializableObject> deserializers) {
+        this.deserializers.putAll(deserializers);
+    }
+
+    /**
+     * Copy the registered deserializers into a new registry.
+     *
+     * @return the new registry.
+     */
+    DeserializerRegistry copy() {
+        return new DeserializerRegistry(deserializers);
+    }
+
+    /**
+     * Register a deserializer for a type, replacing any existing deserializer of the type.
+     *
+     * @param clazz Type to register the deserializer for.
+     * @param deserializer Deserializer of the type.
+     */
+    void put(Class<?> clazz, DeserializableObject deserializer) {
+        deserializers.put(clazz, deserializer);
+        // Lookups that resolved to another deserializer may now resolve to this one
+        resolved = createCache();
+    }
+
+    boolean isEmpty() {
+        return deserializers.isEmpty();
+    }
+
+    /**
+     * Get the deserializer of a type.
+     *
+     * @param clazz Type to get the deserializer of or {@code null}.
+     *
+     * @return the deserializer or {@code null} if there is none.
+     */
+    DeserializableObject get(Class<?> clazz) {
+        if (clazz == null || deserializers.isEmpty())
+            return null;
+
+        DeserializableObject deserializer = resolved.get(clazz);
+        return deserializer != NONE ? deserializer : null;
+    }
+
+    private ClassValue<DeserializableObject> createCache() {
+        return new ClassValue<DeserializableObject>() {
+            @Override
+            protected DeserializableObject computeValue(Class<?> type) {
+                DeserializableObject deserializer = resolve(type);
+                return deserializer != null ? deserializer : NONE;
+            }
+        };
+    }
+
+    private DeserializableObject resolve(Class<?> type) {
+        if (type.isPrimitive())
+            type = wrap(type);
+
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+            DeserializableObject deserializer = deserializers.get(clazz);
+            if (deserializer != null)
+                return deserializer;
+        }
+
+        // Breadth-first, so that directly implemented interfaces take precedence
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+            addInterfaces(clazz, interfaces, visited);
+        }
+
+        while (!interfaces.isEmpty()) {
+            Class<?> iface = interfaces.poll();
+            DeserializableObject deserializer = deserializers.get(iface);
+            if (deserializer != null)
+                return deserializer;
+
+            addInterfaces(iface, interfaces, visited);
+        }
+
+        // Interfaces don't extend Object, but are still objects
+        return type.isInterface() ? deserializers.get(Object.class) : null;
+    }
+
+    private static void addInterfaces(Class<?> clazz, Deque<Class<?>> interfaces, Set<Class<?>> visited) {
+        for (Class<?> iface : clazz.getInterfaces()) {
+            if (visited.add(iface))
+                interfaces.add(iface);
+        }
+    }
+
+    private static Class<?> wrap(Class<?> primitive) {
+        if (primitive == int.class) return Integer.class;
+        if (primitive == long.class) return Long.class;
+        if (primitive == double.class) return Double.class;
+        if (primitive == boolean.class) return Boolean.class;
+        if (primitive == float.class) return Float.class;
+        if (primitive == short.class) return Short.class;
+        if (primitive == byte.class) return Byte.class;
+        if (primitive == char.class) return Character.class;
+        return Void.class;
+    }
+}
@@ -0,0 +1,87 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import me.Silverwolfg11.CommentConfig.annotations.Alias;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A lookup table of the constants of an enum by name and {@link Alias alias}.
+ * <br><br>
+ * The table is built once per enum class, so looking up a constant
+ * does not throw an exception if there is no constant with the name.
+ */
+final class EnumTable {
+
+    private static final ClassValue<EnumTable> TABLES = new ClassValue<EnumTable>() {
+        @Override
+        protected EnumTable computeValue(Class<?> type) {
+            return new EnumTable(type);
+        }
+    };
+
+    // Constants by name and alias
+    private final Map<String, Enum<?>> constants = new HashMap<>();
+    // Constants by lower case name and alias
+    private final Map<String, Enum<?>> lowerCaseConstants = new HashMap<>();
+
+    private EnumTable(Class<?> enumClass) {
+        Enum<?>[] enumConstants = (Enum<?>[]) enumClass.getEnumConstants();
+
+        // Names take precedence over aliases, also when the case is ignored.
+        // Both are added in declaration order, so the first one added wins.
+        for (Enum<?> constant : enumConstants) {
+            constants.put(constant.name(), constant);
+            lowerCaseConstants.putIfAbsent(constant.name().toLowerCase(Locale.ROOT), constant);
+        }
+
+        for (Enum<?> constant : enumConstants) {
+            Alias alias = getAlias(enumClass, constant);
+            if (alias == null)
+                continue;
+
+            for (String name : alias.value()) {
+                constants.putIfAbsent(name, constant);
+                lowerCaseConstants.putIfAbsent(name.toLowerCase(Locale.ROOT), constant);
+            }
+        }
+    }
+
+    private static Alias getAlias(Class<?> enumClass, Enum<?> constant) {
+        try {
+            Field field = enumClass.getField(constant.name());
+            return field.getAnnotation(Alias.class);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get the lookup table of an enum class.
+     *
+     * @param enumClass Enum class.
+     *
+     * @return the lookup table of the enum.
+     */
+    static EnumTable of(Class<?> enumClass) {
+        return TABLES.get(enumClass);
+    }
+
+    /**
+     * Get the constant with a name or alias.
+     *
+     * @param name Name or alias of the constant.
+     * @param ignoreCase If the case of the name should be ignored if there's no exact match.
+     *
+     * @return the constant or {@code null} if there is none.
+     */
+    Enum<?> get(String name, boolean ignoreCase) {
+        Enum<?> constant = constants.get(name);
+        if (constant == null && ignoreCase)
+            constant = lowerCaseConstants.get(name.toLowerCase(Locale.ROOT));
+
+        return constant;
+    }
+}
@@ -0,0 +1,876 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.composer.Composer;
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Deserializes a YAML document straight from SnakeYAML's parser events.
+ * <br><br>
+ * Instead of loading the whole document into a generic map, the mappings of a class
+ * are walked with the class's {@link ClassDeserializationPlan.PathNode path tree}.
+ * Keys that are not mapped to a field are skipped without being composed or constructed.
+ * The value of a field is composed and constructed the same way {@code Yaml#load} would,
+ * except for serializable classes which are streamed as well.
+ * <br><br>
+ * Anchored nodes in skipped YAML are still composed, so that aliases to them can be resolved.
+ * Merge keys ({@code <<}) are applied after the mapping is read, with explicit keys taking precedence.
+ * <br><br>
+ * With typed scalars, keys are read as strings, and the scalars of a field value are converted
+ * straight to the field's declared type with {@link TypedScalars}.
+ * Sequences and mappings of a collection or map field are read element by element with their element types.
+ * <br><br>
+ * In lazy mode, only the source text of a {@link Lazy} field's YAML is kept, which is parsed again when the lazy value is accessed.
+ * If the YAML refers to anchors outside of it, the composed node is kept instead.
+ */
+final class EventDeserializer {
+
+    private static final String CONFIG_VERSION_KEY = "config-version";
+    private static final String MERGE_KEY = "<<";
+    // Returned when reading a merge key
+    private static final Object MERGE = new Object();
+
+    private final ClassDeserializer classDeserializer;
+    private final Logger errorLogger;
+
+    private final TrackingParser parser;
+    private final SubtreeComposer composer;
+    private final SubtreeConstructor constructor;
+    private final boolean typedScalars;
+    private final boolean lazy;
+
+    // Source text of the YAML or null if lazy values can't keep their source text
+    private final String source;
+    // If marks have to be converted to char indices of the source text
+    private final boolean hasSupplementaryChars;
+
+    private Object configVersion;
+
+    /**
+     * Create a deserializer for a YAML stream.
+     *
+     * @param classDeserializer Class deserializer to deserialize with.
+     * @param errorLogger Logger for errors or {@code null}.
+     * @param reader Reader of the YAML.
+     * @param source Source text of the YAML or {@code null}.
+     *               In lazy mode, lazy values keep their YAML as composed nodes if there's no source text.
+     */
+    EventDeserializer(ClassDeserializer classDeserializer, Logger errorLogger, StreamReader reader, String source) {
+        this.classDeserializer = classDeserializer;
+        this.errorLogger = errorLogger;
+        this.typedScalars = classDeserializer.isTypedScalarMode();
+        this.lazy = classDeserializer.isLazyMode();
+        this.source = lazy ? source : null;
+        this.hasSupplementaryChars = this.source != null && this.source.codePointCount(0, this.source.length()) != this.source.length();
+        this.parser = new TrackingParser(new ParserImpl(reader));
+        this.composer = new SubtreeComposer(parser, new Resolver(), new LoaderOptions());
+        this.constructor = new SubtreeConstructor();
+    }
+
+    /**
+     * Get the config version of the last deserialized document.
+     *
+     * @return the value of the top-level {@code config-version} key or {@code null} if there is none.
+     */
+    Object getConfigVersion() {
+        return configVersion;
+    }
+
+    /**
+     * Load the only document in the stream without deserializing it to a class.
+     *
+     * @param type Type that the document will be deserialized to.
+     *
+     * @return the loaded document.
+     */
+    Object load(TypeDescriptor type) {
+        // Drop the STREAM-START and DOCUMENT-START events.
+        parser.getEvent();
+        parser.getEvent();
+
+        Object value = typedScalars ? readTypedValue(type) : constructValue();
+
+        // Drop the DOCUMENT-END and STREAM-END events.
+        parser.getEvent();
+        parser.getEvent();
+        return value;
+    }
+
+    /**
+     * Read the values at node paths of the only document in the stream.
+     * <br><br>
+     * The document is only read until all paths are found.
+     * Values that are not on a path are skipped without being composed or constructed.
+     *
+     * @param paths Node paths to read. Keys of a path are separated by {@code .}.
+     *
+     * @return the values of the paths that were found, by path.
+     */
+    Map<String, Object> readPaths(String[] paths) {
+        PathQuery query = PathQuery.of(paths);
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        // Drop the STREAM-START event.
+        parser.getEvent();
+        if (parser.checkEvent(Event.ID.StreamEnd))
+            return values;
+
+        // Drop the DOCUMENT-START event.
+        parser.getEvent();
+        if (parser.checkEvent(Event.ID.MappingStart)) {
+            readPathMapping(query, values, query.pathCount);
+        }
+
+        // The rest of the document is not read
+        return values;
+    }
+
+    private void readPathMapping(PathQuery query, Map<String, Object> values, int pathCount) {
+        // Drop the MAPPING-START event.
+        parser.getEvent();
+
+        Set<String> readKeys = new HashSet<>();
+        List<Map<?, ?>> mergedMaps = null;
+
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            // Stop reading once everything is found
+            if (values.size() == pathCount)
+                return;
+
+            Object key = readKey();
+            if (key == MERGE) {
+                if (mergedMaps == null)
+                    mergedMaps = new ArrayList<>();
+
+                addMergedMaps(composer.composeSubtree(), mergedMaps);
+                continue;
+            }
+
+            PathQuery child = key instanceof String ? query.children.get(key) : null;
+            if (child == null) {
+                skipValue();
+                continue;
+            }
+
+            readKeys.add((String) key);
+            if (child.path == null && isStreamableMapping()) {
+                readPathMapping(child, values, pathCount);
+            }
+            else {
+                putPathValues(child, constructValue(), values);
+            }
+        }
+
+        // Drop the MAPPING-END event.
+        parser.getEvent();
+
+        if (mergedMaps == null)
+            return;
+
+        // Explicit keys and earlier merged maps take precedence
+        for (Map.Entry<String, PathQuery> child : query.children.entrySet()) {
+            if (readKeys.contains(child.getKey()))
+                continue;
+
+            for (Map<?, ?> mergedMap : mergedMaps) {
+                if (mergedMap.containsKey(child.getKey())) {
+                    putPathValues(child.getValue(), mergedMap.get(child.getKey()), values);
+                    break;
+                }
+            }
+        }
+    }
+
+    // Put the values of a path and the paths below it from an already constructed value
+    private static void putPathValues(PathQuery query, Object value, Map<String, Object> values) {
+        if (query.path != null)
+            values.put(query.path, value);
+
+        if (value instanceof Map) {
+            Map<?, ?> valueMap = (Map<?, ?>) value;
+            for (Map.Entry<String, PathQuery> child : query.children.entrySet()) {
+                if (valueMap.containsKey(child.getKey())) {
+                    putPathValues(child.getValue(), valueMap.get(child.getKey()), values);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deserialize the only document in the stream to a class.
+     *
+     * @param clazz Class to deserialize to.
+     *
+     * @return the deserialized instance or {@code null} if the class could not be constructed.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T deserialize(Class<T> clazz) {
+        // Drop the STREAM-START event.
+        parser.getEvent();
+
+        T instance;
+        if (parser.checkEvent(Event.ID.StreamEnd)) {
+            // An empty document leaves all fields at their defaults
+            instance = classDeserializer.newInstance(clazz);
+        }
+        else {
+            // Drop the DOCUMENT-START event.
+            parser.getEvent();
+
+            if (canStream(clazz) && isStreamableMapping()) {
+                instance = classDeserializer.newInstance(clazz);
+                if (instance != null) {
+                    readClass(clazz, instance, true);
+                }
+                else {
+                    skipValue();
+                }
+            }
+            else {
+                // Let the generated codec or the type checks of a normal load handle the document
+                Map<String, Object> objectMap = (Map<String, Object>) constructValue();
+                configVersion = objectMap.get(CONFIG_VERSION_KEY);
+                instance = classDeserializer.deserializeClass(objectMap, clazz);
+            }
+
+            // Drop the DOCUMENT-END event.
+            parser.getEvent();
+        }
+
+        // Ensure that the stream contains no more documents.
+        if (!parser.checkEvent(Event.ID.StreamEnd)) {
+            Event event = parser.getEvent();
+            throw new YAMLException("expected a single document in the stream but found another document"
+                    + event.getStartMark());
+        }
+
+        // Drop the STREAM-END event.
+        parser.getEvent();
+        return instance;
+    }
+
+    private static boolean canStream(Class<?> clazz) {
+        return GeneratedCodecs.get(clazz) == null;
+    }
+
+    // Anchored mappings have to be composed, since they can be referenced by an alias later on
+    private boolean isStreamableMapping() {
+        return parser.checkEvent(Event.ID.MappingStart) && ((NodeEvent) parser.peekEvent()).getAnchor() == null;
+    }
+
+    private void readClass(Class<?> clazz, Object instance, boolean root) {
+        FieldDeserializer fieldDeserializer = new FieldDeserializer(classDeserializer, errorLogger, clazz, instance);
+        readMapping(ClassDeserializationPlan.of(clazz).getPathTree(), instance, fieldDeserializer, root);
+    }
+
+    private void readMapping(ClassDeserializationPlan.PathNode pathNode, Object instance,
+                             FieldDeserializer fieldDeserializer, boolean root) {
+        // Drop the MAPPING-START event.
+        parser.getEvent();
+
+        Set<String> readKeys = new HashSet<>();
+        List<Map<?, ?>> mergedMaps = null;
+
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            Object key = readKey();
+            if (key == MERGE) {
+                if (mergedMaps == null)
+                    mergedMaps = new ArrayList<>();
+
+                addMergedMaps(composer.composeSubtree(), mergedMaps);
+                continue;
+            }
+
+            // Fields can only be mapped to string keys
+            if (!(key instanceof String)) {
+                skipValue();
+                continue;
+            }
+
+            readKeys.add((String) key);
+            ClassDeserializationPlan.PathNode child = pathNode.getChild((String) key);
+
+            if (root && key.equals(CONFIG_VERSION_KEY)) {
+                configVersion = constructValue();
+                if (child != null) {
+                    applyValue(child, configVersion, instance, fieldDeserializer);
+                }
+            }
+            else if (child == null) {
+                skipValue();
+            }
+            else {
+                readValue(child, instance, fieldDeserializer);
+            }
+        }
+
+        // Drop the MAPPING-END event.
+        parser.getEvent();
+
+        if (mergedMaps != null && pathNode.hasChildren()) {
+            applyMergedMaps(pathNode, mergedMaps, readKeys, instance, fieldDeserializer, root);
+        }
+    }
+
+    // Read the next mapping key or MERGE if it's a merge key
+    private Object readKey() {
+        if (typedScalars && isUntaggedScalar(parser.peekEvent()) && !isMergeKey(parser.peekEvent()))
+            return ((ScalarEvent) parser.getEvent()).getValue();
+
+        Node keyNode = composer.composeSubtree();
+        if (keyNode.getTag().equals(Tag.MERGE))
+            return MERGE;
+
+        return constructKey(keyNode);
+    }
+
+    private void readValue(ClassDeserializationPlan.PathNode pathNode, Object instance, FieldDeserializer fieldDeserializer) {
+        // Only a section, so keep on streaming
+        if (!pathNode.hasFields() && isStreamableMapping()) {
+            readMapping(pathNode, instance, fieldDeserializer, false);
+            return;
+        }
+
+        ClassDeserializationPlan.FieldEntry[] fields = pathNode.getFields();
+        if (fields.length == 1 && !pathNode.hasChildren() && isStreamableClass(fields[0]) && isStreamableMapping()) {
+            readClassField(fields[0], instance);
+            return;
+        }
+
+        if (lazy && fields.length == 1 && !pathNode.hasChildren()
+                && fields[0].getType().getKind() == TypeDescriptor.Kind.LAZY) {
+            parser.startTracking();
+            Node node = composer.composeSubtree();
+            boolean selfContained = parser.stopTracking();
+
+            // Null values leave the field as is
+            if (node.getTag().equals(Tag.NULL))
+                return;
+
+            Lazy<Object> lazyValue;
+            if (selfContained && source != null) {
+                lazyValue = deferSource(classDeserializer, errorLogger, fieldDeserializer, fields[0], getSourceText(node));
+            }
+            else {
+                lazyValue = deferNode(classDeserializer, fieldDeserializer, constructor, fields[0], node);
+            }
+
+            try {
+                fields[0].setValue(instance, lazyValue);
+            } catch (IllegalAccessException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
+        // Custom deserializers expect the objects SnakeYAML constructs
+        if (typedScalars && fields.length == 1 && !pathNode.hasChildren()
+                && classDeserializer.getCustomDeserializer(fields[0].getType()) == null) {
+            if (!readPrimitiveField(fields[0], instance))
+                classDeserializer.deserializeField(fieldDeserializer, fields[0], instance, readTypedValue(fields[0].getType()));
+            return;
+        }
+
+        applyValue(pathNode, constructValue(), instance, fieldDeserializer);
+    }
+
+    // Get the source text of a node, indented so that it can be parsed on its own
+    private String getSourceText(Node node) {
+        int start = toCharIndex(node.getStartMark().getIndex());
+        int end = toCharIndex(node.getEndMark().getIndex());
+        int column = node.getStartMark().getColumn();
+
+        StringBuilder sb = new StringBuilder(column + end - start);
+        for (int i = 0; i < column; i++) {
+            sb.append(' ');
+        }
+
+        return sb.append(source, start, end).toString();
+    }
+
+    // Marks count code points, not chars
+    private int toCharIndex(int codePointIndex) {
+        return hasSupplementaryChars ? source.offsetByCodePoints(0, codePointIndex) : codePointIndex;
+    }
+
+    // The lazy values are created in static methods so that they don't keep the parser around
+
+    private static Lazy<Object> deferSource(ClassDeserializer classDeserializer, Logger errorLogger,
+                                            FieldDeserializer fieldDeserializer, ClassDeserializationPlan.FieldEntry field, String text) {
+        TypeDescriptor valueType = field.getType().getElementType();
+        return Lazy.deferred(() -> {
+            EventDeserializer deserializer = new EventDeserializer(classDeserializer, errorLogger, new StreamReader(text), null);
+            return convertLazyValue(classDeserializer, fieldDeserializer, field, deserializer.load(valueType));
+        });
+    }
+
+    private static Lazy<Object> deferNode(ClassDeserializer classDeserializer, FieldDeserializer fieldDeserializer,
+                                          SubtreeConstructor constructor, ClassDeserializationPlan.FieldEntry field, Node node) {
+        return Lazy.deferred(() -> {
+            Object serializedObject;
+            // Lazy values may be accessed from any thread
+            synchronized (constructor) {
+                serializedObject = constructor.construct(node);
+            }
+
+            return convertLazyValue(classDeserializer, fieldDeserializer, field, serializedObject);
+        });
+    }
+
+    private static Object convertLazyValue(ClassDeserializer classDeserializer, FieldDeserializer fieldDeserializer,
+                                           ClassDeserializationPlan.FieldEntry field, Object serializedObject) {
+        if (serializedObject == null)
+            return null;
+
+        TypeDescriptor valueType = field.getType().getElementType();
+        return classDeserializer.convertFieldValue(fieldDeserializer, field.getName(), null, serializedObject, valueType);
+    }
+
+    // Set a primitive field straight from a plain scalar, so that the value isn't boxed.
+    // Returns false without reading anything if the scalar has to be converted like any other value.
+    private boolean readPrimitiveField(ClassDeserializationPlan.FieldEntry field, Object instance) {
+        Class<?> fieldType = field.getType().getRawClass();
+        if (fieldType == null || !fieldType.isPrimitive())
+            return false;
+
+        Event event = parser.peekEvent();
+        if (!isUntaggedScalar(event) || !((ScalarEvent) event).isPlain())
+            return false;
+
+        String value = ((ScalarEvent) event).getValue();
+        FieldAccessor accessor = field.getAccessor();
+        try {
+            if (fieldType == int.class && TypedScalars.isInt(value)) {
+                accessor.setInt(instance, Integer.parseInt(value));
+            }
+            else if (fieldType == long.class && TypedScalars.isLong(value)) {
+                accessor.setLong(instance, Long.parseLong(value));
+            }
+            else if (fieldType == double.class && TypedScalars.isDouble(value)) {
+                accessor.setDouble(instance, TypedScalars.parseDouble(value));
+            }
+            else if (fieldType == boolean.class && TypedScalars.isBoolean(value)) {
+                accessor.setBoolean(instance, TypedScalars.parseBoolean(value));
+            }
+            else {
+                return false;
+            }
+        } catch (IllegalAccessException e) {
+            e.printStackTrace();
+        }
+
+        parser.getEvent();
+        return true;
+    }
+
+    // Read the next node using the type it is deserialized to
+    private Object readTypedValue(TypeDescriptor type) {
+        Event event = parser.peekEvent();
+        if (!isUntagged(event))
+            return constructValue();
+
+        switch (type.getKind()) {
+            case ARRAY:
+            case COLLECTION:
+                if (event.is(Event.ID.SequenceStart) && type.getElementType() != null)
+                    return readTypedSequence(type.getElementType());
+                break;
+            case MAP:
+                if (event.is(Event.ID.MappingStart) && type.getKeyType() != null)
+                    return readTypedMapping(type.getKeyType(), type.getValueType());
+                break;
+            default:
+                if (event.is(Event.ID.Scalar) && TypedScalars.isTyped(type.getRawClass())) {
+                    ScalarEvent scalar = (ScalarEvent) event;
+                    Object value = TypedScalars.convert(type.getRawClass(), scalar.getValue(), scalar.isPlain());
+                    if (value != TypedScalars.UNHANDLED) {
+                        parser.getEvent();
+                        return value;
+                    }
+                }
+                break;
+        }
+
+        return constructValue();
+    }
+
+    private List<Object> readTypedSequence(TypeDescriptor elementType) {
+        // Drop the SEQUENCE-START event.
+        parser.getEvent();
+
+        List<Object> list = new ArrayList<>();
+        while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+            list.add(readTypedValue(elementType));
+        }
+
+        // Drop the SEQUENCE-END event.
+        parser.getEvent();
+        return list;
+    }
+
+    private Map<Object, Object> readTypedMapping(TypeDescriptor keyType, TypeDescriptor valueType) {
+        // Drop the MAPPING-START event.
+        parser.getEvent();
+
+        Map<Object, Object> map = new LinkedHashMap<>();
+        List<Map<?, ?>> mergedMaps = null;
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            if (isMergeKey(parser.peekEvent())) {
+                parser.getEvent();
+                if (mergedMaps == null)
+                    mergedMaps = new ArrayList<>();
+
+                addMergedMaps(composer.composeSubtree(), mergedMaps);
+                continue;
+            }
+
+            Object key = readTypedValue(keyType);
+            map.put(key, readTypedValue(valueType));
+        }
+
+        // Drop the MAPPING-END event.
+        parser.getEvent();
+
+        if (mergedMaps == null)
+            return map;
+
+        // Merged keys come first, just like SnakeYAML's constructor orders them
+        Map<Object, Object> mergedMap = new LinkedHashMap<>();
+        for (Map<?, ?> merged : mergedMaps) {
+            for (Map.Entry<?, ?> entry : merged.entrySet()) {
+                mergedMap.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+
+        mergedMap.putAll(map);
+        return mergedMap;
+    }
+
+    // Serializable class fields are streamed when they would be deserialized to a new instance anyways
+    private boolean isStreamableClass(ClassDeserializationPlan.FieldEntry field) {
+        TypeDescriptor fieldType = field.getType();
+        return fieldType.getKind() == TypeDescriptor.Kind.SERIALIZABLE
+                && !fieldType.isInnerMemberClass()
+                && canStream(fieldType.getRawClass())
+                && classDeserializer.getCustomDeserializer(fieldType) == null;
+    }
+
+    private void readClassField(ClassDeserializationPlan.FieldEntry field, Object instance) {
+        Class<?> fieldClass = field.getType().getRawClass();
+        Object fieldInstance = classDeserializer.newInstance(fieldClass);
+        if (fieldInstance == null) {
+            skipValue();
+            return;
+        }
+
+        readClass(fieldClass, fieldInstance, false);
+
+        try {
+            field.setValue(instance, fieldInstance);
+        } catch (IllegalAccessException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Apply an already constructed value to the fields mapped to a path node and below it
+    private void applyValue(ClassDeserializationPlan.PathNode pathNode, Object value,
+                            Object instance, FieldDeserializer fieldDeserializer) {
+        if (value == null)
+            return;
+
+        for (ClassDeserializationPlan.FieldEntry field : pathNode.getFields()) {
+            classDeserializer.deserializeField(fieldDeserializer, field, instance, value);
+        }
+
+        if (pathNode.hasChildren() && value instanceof Map) {
+            Map<?, ?> valueMap = (Map<?, ?>) value;
+            for (Map.Entry<String, ClassDeserializationPlan.PathNode> child : pathNode.getChildren()) {
+                applyValue(child.getValue(), valueMap.get(child.getKey()), instance, fieldDeserializer);
+            }
+        }
+    }
+
+    private void addMergedMaps(Node mergeNode, List<Map<?, ?>> mergedMaps) {
+        if (mergeNode instanceof MappingNode) {
+            mergedMaps.add((Map<?, ?>) constructor.construct(mergeNode));
+        }
+        else if (mergeNode instanceof SequenceNode) {
+            for (Node node : ((SequenceNode) mergeNode).getValue()) {
+                addMergedMaps(node, mergedMaps);
+            }
+        }
+        else {
+            throw new YAMLException("Expected a mapping or list of mappings for merging, but found " + mergeNode.getNodeId());
+        }
+    }
+
+    private void applyMergedMaps(ClassDeserializationPlan.PathNode pathNode, List<Map<?, ?>> mergedMaps, Set<String> readKeys,
+                                 Object instance, FieldDeserializer fieldDeserializer, boolean root) {
+        for (Map.Entry<String, ClassDeserializationPlan.PathNode> child : pathNode.getChildren()) {
+            // Explicit keys take precedence
+            if (readKeys.contains(child.getKey()))
+                continue;
+
+            // Earlier merged maps take precedence
+            for (Map<?, ?> mergedMap : mergedMaps) {
+                if (mergedMap.containsKey(child.getKey())) {
+                    applyValue(child.getValue(), mergedMap.get(child.getKey()), instance, fieldDeserializer);
+                    break;
+                }
+            }
+        }
+
+        if (root && configVersion == null && !readKeys.contains(CONFIG_VERSION_KEY)) {
+            for (Map<?, ?> mergedMap : mergedMaps) {
+                if (mergedMap.containsKey(CONFIG_VERSION_KEY)) {
+                    configVersion = mergedMap.get(CONFIG_VERSION_KEY);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean isUntagged(Event event) {
+        if (event instanceof ScalarEvent) {
+            ScalarEvent scalar = (ScalarEvent) event;
+            return scalar.getAnchor() == null && scalar.getTag() == null;
+        }
+        else if (event instanceof CollectionStartEvent) {
+            CollectionStartEvent collectionStart = (CollectionStartEvent) event;
+            return collectionStart.getAnchor() == null && collectionStart.getTag() == null;
+        }
+
+        return false;
+    }
+
+    private static boolean isUntaggedScalar(Event event) {
+        return event instanceof ScalarEvent && isUntagged(event);
+    }
+
+    private static boolean isMergeKey(Event event) {
+        return isUntaggedScalar(event) && ((ScalarEvent) event).isPlain() && MERGE_KEY.equals(((ScalarEvent) event).getValue());
+    }
+
+    private Object constructKey(Node keyNode) {
+        // Skip construction for plain string keys
+        if (keyNode instanceof ScalarNode && keyNode.getTag().equals(Tag.STR))
+            return ((ScalarNode) keyNode).getValue();
+
+        return constructor.construct(keyNode);
+    }
+
+    private Object constructValue() {
+        return constructor.construct(composer.composeSubtree());
+    }
+
+    // Skip over the next node without composing it
+    private void skipValue() {
+        int depth = 0;
+        do {
+            Event event = parser.peekEvent();
+
+            // Anchored nodes may be referenced later on
+            if (event instanceof NodeEvent && !(event instanceof AliasEvent) && ((NodeEvent) event).getAnchor() != null) {
+                composer.composeSubtree();
+                continue;
+            }
+
+            parser.getEvent();
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                depth++;
+            }
+            else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                depth--;
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * A tree of the node paths to read.
+     */
+    private static final class PathQuery {
+        private final Map<String, PathQuery> children = new HashMap<>();
+        // The path that ends at this node or null if no path ends here
+        private String path;
+        // Number of distinct paths in the tree
+        private int pathCount;
+
+        private static PathQuery of(String[] paths) {
+            PathQuery root = new PathQuery();
+            for (String path : paths) {
+                PathQuery query = root;
+                for (String key : path.split("\\.")) {
+                    query = query.children.computeIfAbsent(key, k -> new PathQuery());
+                }
+
+                if (query.path == null) {
+                    query.path = path;
+                    root.pathCount++;
+                }
+            }
+
+            return root;
+        }
+    }
+
+    /**
+     * A parser that can track if the nodes parsed refer to any anchors outside of them.
+     */
+    private static final class TrackingParser implements Parser {
+        private final Parser parser;
+
+        // Anchors defined by the tracked nodes or null if not tracking
+        private Set<String> trackedAnchors;
+        private boolean externalAlias;
+
+        private TrackingParser(Parser parser) {
+            this.parser = parser;
+        }
+
+        void startTracking() {
+            trackedAnchors = new HashSet<>();
+            externalAlias = false;
+        }
+
+        /**
+         * Stop tracking the parsed nodes.
+         *
+         * @return if the nodes parsed since tracking started do not refer to any anchors outside of them.
+         */
+        boolean stopTracking() {
+            trackedAnchors = null;
+            return !externalAlias;
+        }
+
+        @Override
+        public boolean checkEvent(Event.ID choice) {
+            return parser.checkEvent(choice);
+        }
+
+        @Override
+        public Event peekEvent() {
+            return parser.peekEvent();
+        }
+
+        @Override
+        public Event getEvent() {
+            Event event = parser.getEvent();
+            if (trackedAnchors != null && event instanceof NodeEvent) {
+                String anchor = ((NodeEvent) event).getAnchor();
+                if (anchor != null) {
+                    if (event instanceof AliasEvent) {
+                        externalAlias |= !trackedAnchors.contains(anchor);
+                    }
+                    else {
+                        trackedAnchors.add(anchor);
+                    }
+                }
+            }
+
+            return event;
+        }
+    }
+
+    /**
+     * A composer that can compose single nodes of a document
+     * while the rest of the document is read from the parser directly.
+     */
+    private static final class SubtreeComposer extends Composer {
+        // Anchors that can be referenced outside of a composed node
+        private final Map<String, Node> anchors = new HashMap<>();
+        private final LoaderOptions loadingConfig;
+        private int nonScalarAliasesCount = 0;
+
+        private SubtreeComposer(Parser parser, Resolver resolver, LoaderOptions loadingConfig) {
+            super(parser, resolver, loadingConfig);
+            this.loadingConfig = loadingConfig;
+        }
+
+        /**
+         * Compose the next node from the parser.
+         *
+         * @return the composed node.
+         */
+        Node composeSubtree() {
+            if (parser.checkEvent(Event.ID.Alias)) {
+                AliasEvent event = (AliasEvent) parser.getEvent();
+                Node node = anchors.get(event.getAnchor());
+                if (node == null) {
+                    throw new YAMLException("found undefined alias " + event.getAnchor() + event.getStartMark());
+                }
+
+                if (!(node instanceof ScalarNode) && ++nonScalarAliasesCount > loadingConfig.getMaxAliasesForCollections()) {
+                    throw new YAMLException("Number of aliases for non-scalar nodes exceeds the specified max="
+                            + loadingConfig.getMaxAliasesForCollections());
+                }
+
+                return node;
+            }
+
+            String anchor = ((NodeEvent) parser.peekEvent()).getAnchor();
+            if (parser.checkEvent(Event.ID.Scalar)) {
+                return composeScalarNode(anchor);
+            }
+            else if (parser.checkEvent(Event.ID.SequenceStart)) {
+                return composeSequenceNode(anchor);
+            }
+
+            return composeMappingNode(anchor);
+        }
+
+        @Override
+        protected Node composeScalarNode(String anchor) {
+            return register(anchor, super.composeScalarNode(anchor));
+        }
+
+        @Override
+        protected Node composeSequenceNode(String anchor) {
+            return register(anchor, super.composeSequenceNode(anchor));
+        }
+
+        @Override
+        protected Node composeMappingNode(String anchor) {
+            return register(anchor, super.composeMappingNode(anchor));
+        }
+
+        private Node register(String anchor, Node node) {
+            if (anchor != null)
+                anchors.put(anchor, node);
+
+            return node;
+        }
+    }
+
+    /**
+     * The constructor {@code Yaml#load} uses, but for single nodes.
+     */
+    private static final class SubtreeConstructor extends Constructor {
+        Object construct(Node node) {
+            return constructDocument(node);
+        }
+    }
+}
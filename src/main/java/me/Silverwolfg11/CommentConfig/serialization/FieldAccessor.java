@@ -0,0 +1,365 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads and writes a single field through method handles that are
+ * resolved once per field.
+ * <br><br>
+ * The field is made accessible once when the accessor is created, so there
+ * are no access checks or accessibility toggles when the field is accessed.
+ * Fields of type {@code int}, {@code long}, {@code double} and {@code boolean}
+ * get accessors that can read and write the field without boxing.
+ * <br><br>
+ * If a setter handle cannot be created (e.g. for {@code final} fields on some JVMs),
+ * the accessor falls back to {@link Field#set(Object, Object)}.
+ */
+abstract class FieldAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    protected final Field field;
+    // Getter of type (Object) -> field type
+    protected final MethodHandle getter;
+    // Setter of type (Object, field type) -> void or null if the field can only be set reflectively
+    protected final MethodHandle setter;
+
+    private FieldAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Create an accessor for a field.
+     * The field will be made accessible.
+     *
+     * @param field Field to create the accessor for.
+     *
+     * @return the accessor for the field.
+     */
+    static FieldAccessor of(Field field) {
+        field.setAccessible(true);
+
+        Class<?> fieldType = field.getType();
+        boolean isStatic = Modifier.isStatic(field.getModifiers());
+
+        MethodHandle getter;
+        try {
+            getter = LOOKUP.unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            // The field was made accessible, so this should never happen.
+            throw new IllegalStateException("Could not access field '" + field.getName() + "'!", e);
+        }
+
+        MethodHandle setter;
+        try {
+            setter = LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            setter = null;
+        }
+
+        // Make static field handles look like instance field handles
+        if (isStatic) {
+            getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            if (setter != null)
+                setter = MethodHandles.dropArguments(setter, 0, Object.class);
+        }
+
+        if (fieldType == int.class) {
+            return new IntAccessor(field, adaptGetter(getter, int.class), adaptSetter(setter, int.class));
+        }
+        else if (fieldType == long.class) {
+            return new LongAccessor(field, adaptGetter(getter, long.class), adaptSetter(setter, long.class));
+        }
+        else if (fieldType == double.class) {
+            return new DoubleAccessor(field, adaptGetter(getter, double.class), adaptSetter(setter, double.class));
+        }
+        else if (fieldType == boolean.class) {
+            return new BooleanAccessor(field, adaptGetter(getter, boolean.class), adaptSetter(setter, boolean.class));
+        }
+
+        return new ObjectAccessor(field, adaptGetter(getter, Object.class), adaptSetter(setter, Object.class));
+    }
+
+    private static MethodHandle adaptGetter(MethodHandle getter, Class<?> valueType) {
+        return getter.asType(MethodType.methodType(valueType, Object.class));
+    }
+
+    private static MethodHandle adaptSetter(MethodHandle setter, Class<?> valueType) {
+        if (setter == null)
+            return null;
+
+        return setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+    }
+
+    private static RuntimeException rethrow(Throwable throwable) {
+        if (throwable instanceof RuntimeException)
+            throw (RuntimeException) throwable;
+        if (throwable instanceof Error)
+            throw (Error) throwable;
+
+        throw new IllegalStateException(throwable);
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    abstract Object get(Object instance);
+
+    abstract void set(Object instance, Object value) throws IllegalAccessException;
+
+    int getInt(Object instance) {
+        return (Integer) get(instance);
+    }
+
+    void setInt(Object instance, int value) throws IllegalAccessException {
+        set(instance, value);
+    }
+
+    long getLong(Object instance) {
+        return (Long) get(instance);
+    }
+
+    void setLong(Object instance, long value) throws IllegalAccessException {
+        set(instance, value);
+    }
+
+    double getDouble(Object instance) {
+        return (Double) get(instance);
+    }
+
+    void setDouble(Object instance, double value) throws IllegalAccessException {
+        set(instance, value);
+    }
+
+    boolean getBoolean(Object instance) {
+        return (Boolean) get(instance);
+    }
+
+    void setBoolean(Object instance, boolean value) throws IllegalAccessException {
+        set(instance, value);
+    }
+
+    // Use reflection for anything the handles can't do,
+    // like setting a final field or widening a primitive value.
+    protected void setReflectively(Object instance, Object value) throws IllegalAccessException {
+        field.set(instance, value);
+    }
+
+    private static final class ObjectAccessor extends FieldAccessor {
+
+        private ObjectAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        @Override
+        Object get(Object instance) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        void set(Object instance, Object value) throws IllegalAccessException {
+            if (setter == null || (value != null && !field.getType().isInstance(value))) {
+                setReflectively(instance, value);
+                return;
+            }
+
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    private static final class IntAccessor extends FieldAccessor {
+
+        private IntAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        @Override
+        Object get(Object instance) {
+            return getInt(instance);
+        }
+
+        @Override
+        void set(Object instance, Object value) throws IllegalAccessException {
+            if (value instanceof Integer) {
+                setInt(instance, (Integer) value);
+            }
+            else {
+                setReflectively(instance, value);
+            }
+        }
+
+        @Override
+        int getInt(Object instance) {
+            try {
+                return (int) getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        void setInt(Object instance, int value) throws IllegalAccessException {
+            if (setter == null) {
+                setReflectively(instance, value);
+                return;
+            }
+
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    private static final class LongAccessor extends FieldAccessor {
+
+        private LongAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        @Override
+        Object get(Object instance) {
+            return getLong(instance);
+        }
+
+        @Override
+        void set(Object instance, Object value) throws IllegalAccessException {
+            if (value instanceof Long || value instanceof Integer) {
+                setLong(instance, ((Number) value).longValue());
+            }
+            else {
+                setReflectively(instance, value);
+            }
+        }
+
+        @Override
+        long getLong(Object instance) {
+            try {
+                return (long) getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        void setLong(Object instance, long value) throws IllegalAccessException {
+            if (setter == null) {
+                setReflectively(instance, value);
+                return;
+            }
+
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    private static final class DoubleAccessor extends FieldAccessor {
+
+        private DoubleAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        @Override
+        Object get(Object instance) {
+            return getDouble(instance);
+        }
+
+        @Override
+        void set(Object instance, Object value) throws IllegalAccessException {
+            // Integers and longs are widened to a double, just like Field#set would.
+            if (value instanceof Double || value instanceof Integer || value instanceof Long) {
+                setDouble(instance, ((Number) value).doubleValue());
+            }
+            else {
+                setReflectively(instance, value);
+            }
+        }
+
+        @Override
+        double getDouble(Object instance) {
+            try {
+                return (double) getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        void setDouble(Object instance, double value) throws IllegalAccessException {
+            if (setter == null) {
+                setReflectively(instance, value);
+                return;
+            }
+
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+
+    private static final class BooleanAccessor extends FieldAccessor {
+
+        private BooleanAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field, getter, setter);
+        }
+
+        @Override
+        Object get(Object instance) {
+            return getBoolean(instance);
+        }
+
+        @Override
+        void set(Object instance, Object value) throws IllegalAccessException {
+            if (value instanceof Boolean) {
+                setBoolean(instance, (Boolean) value);
+            }
+            else {
+                setReflectively(instance, value);
+            }
+        }
+
+        @Override
+        boolean getBoolean(Object instance) {
+            try {
+                return (boolean) getter.invokeExact(instance);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        @Override
+        void setBoolean(Object instance, boolean value) throws IllegalAccessException {
+            if (setter == null) {
+                setReflectively(instance, value);
+                return;
+            }
+
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+    }
+}
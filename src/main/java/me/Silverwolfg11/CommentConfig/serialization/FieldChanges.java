@@ -0,0 +1,70 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The fields that changed when YAML was deserialized into an existing instance
+ * through {@link ClassDeserializer#deserializeInto(java.io.File, Object)}.
+ * <br><br>
+ * Fields are identified by their field path, which is the field name prefixed by
+ * the names of the enclosing {@code @SerializableConfig} fields, separated by {@code .}.
+ * For example, field {@code port} of the object in field {@code database} has the path {@code database.port}.
+ */
+public final class FieldChanges {
+
+    private final Set<String> changedFields = new LinkedHashSet<>();
+
+    FieldChanges() {
+    }
+
+    void add(String fieldPath) {
+        changedFields.add(fieldPath);
+    }
+
+    /**
+     * Get the paths of all fields that changed.
+     * Nested objects that were updated in place are not included themselves,
+     * only the fields inside them that changed.
+     *
+     * @return the changed field paths, in the order they were deserialized.
+     */
+    public Set<String> getChangedFields() {
+        return Collections.unmodifiableSet(changedFields);
+    }
+
+    /**
+     * Check if a field, or any field nested inside it, changed.
+     *
+     * @param fieldPath Path of the field, e.g. {@code database.port}.
+     *
+     * @return if the field or a nested field changed.
+     */
+    public boolean hasChanged(String fieldPath) {
+        if (changedFields.contains(fieldPath))
+            return true;
+
+        String prefix = fieldPath + ".";
+        for (String changedField : changedFields) {
+            if (changedField.startsWith(prefix))
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Check if no field changed.
+     *
+     * @return if no field changed.
+     */
+    public boolean isEmpty() {
+        return changedFields.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "FieldChanges" + changedFields;
+    }
+}
@@ -1,17 +1,11 @@
 package me.Silverwolfg11.CommentConfig.serialization;
 
-import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
-
 import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -20,8 +14,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 public class FieldDeserializer {
 
@@ -38,128 +32,133 @@ public class FieldDeserializer {
         this.parentObject = parentObject;
     }
 
-    private boolean isSpeciallyDeserialized(Class<?> clazz) {
-        if (clazz == null)
-            return false;
-
-        return clazz.isAnnotationPresent(SerializableConfig.class) ||
-                clazz.isEnum() ||
-                Map.class.isAssignableFrom(clazz) ||
-                Collection.class.isAssignableFrom(clazz) ||
-                clazz.isArray();
-    }
+    @SuppressWarnings("unchecked")
+    Object deserializeObject(String fieldName, Object fieldValue, Object serializedObj, TypeDescriptor objectType) {
+        Class<?> objectClass = objectType.getRawClass();
 
-    private Class<?> getClassFromType(Type type) {
-        if (type instanceof Class) {
-            return (Class<?>) type;
-        }
-        else if (type instanceof ParameterizedType) {
-            ParameterizedType pType = (ParameterizedType) type;
-            return getClassFromType(pType.getRawType());
+        DeserializableObject customDeserializer = classDeserializer.getCustomDeserializer(objectType);
+        if (customDeserializer != null && serializedObj != null) {
+            serializedObj = customDeserializer.deserializeObject(serializedObj);
         }
 
-        return null;
-    }
-
-    @SuppressWarnings("unchecked")
-    public <T> Object deserializeObject(Field field, Object serializedObj, Type objectType) {
-        Class<?> objectClass = getClassFromType(objectType);
-
         if (objectClass == null)
             return serializedObj;
 
-        if (objectClass.isArray() && serializedObj instanceof List) {
-            // Since the field is an array, and YAML loads all iterables as lists,
-            // we will have to convert it to an array.
-            Class<?> pType = objectClass.getComponentType();
-            return convertListToArray(pType, serializedObj);
-        }
-        else if (objectClass.isEnum() && serializedObj instanceof String) {
-            try {
-                Class<? extends Enum> enumClass = (Class<? extends Enum>) objectClass;
-                return Enum.valueOf(enumClass, (String) serializedObj);
-            } catch (IllegalArgumentException ex) {
-                String errorMsg = String.format("Couldn't convert '%s' to enum '%s'", serializedObj, objectClass.getName());
-                if (field != null)
-                    errorMsg += " for field " + field.getName() + "!";
-
-                printError(errorMsg);
-                return null;
-            }
-        }
-        else if (Collection.class.isAssignableFrom(objectClass) && (serializedObj instanceof List)) {
-            List<Type> typeParameters = getParameterizedTypes(objectType);
-            if (typeParameters == null || typeParameters.size() != 1) {
-                return serializedObj;
-            }
-
-            Type listParamType = typeParameters.get(0);
-            Class<?> listParameter = getClassFromType(listParamType);
-
-            if (!isSpeciallyDeserialized(listParameter)) {
-                return serializedObj;
-            }
-
-
-            Collection<Object> deserializedList = (Collection<Object>) getDefaultObject(field, objectClass);
+        switch (objectType.getKind()) {
+            case ARRAY:
+                if (serializedObj instanceof List) {
+                    // Since the field is an array, and YAML loads all iterables as lists,
+                    // we will have to convert it to an array.
+                    return convertListToArray(fieldName, objectClass.getComponentType(), (List<?>) serializedObj);
+                }
+                break;
+            case ENUM:
+                if (serializedObj instanceof String) {
+                    Enum<?> constant = EnumTable.of(objectClass).get((String) serializedObj, classDeserializer.isCaseInsensitiveEnums());
+                    if (constant != null)
+                        return constant;
+
+                    String errorMsg = String.format("Couldn't convert '%s' to enum '%s'", serializedObj, objectClass.getName());
+                    if (fieldName != null)
+                        errorMsg += " for field " + fieldName + "!";
+
+                    printError(errorMsg);
+                    return null;
+                }
+                break;
+            case COLLECTION:
+                if (serializedObj instanceof List) {
+                    if (classDeserializer.isPrimitiveListMode() && isPrimitiveListField(objectType)) {
+                        List<?> primitiveList = PrimitiveLists.copyOf(objectType.getElementType().getRawClass(), (List<?>) serializedObj);
+                        if (primitiveList != null)
+                            return primitiveList;
+                    }
 
-            // Fast-fail
-            if (deserializedList == null) {
-                return serializedObj;
-            }
+                    if (!objectType.shouldConvertContents()
+                            && classDeserializer.getCustomDeserializer(objectType.getElementType()) == null) {
+                        return serializedObj;
+                    }
 
-            // Make sure the deserialized list is empty
-            deserializedList.clear();
+                    Collection<Object> deserializedList = (Collection<Object>) getDefaultObject(fieldName, fieldValue, objectClass);
 
-            List<Object> serializedList = (List<Object>) serializedObj;
-            for (Object listEl : serializedList) {
-                Object deserializedListEl = deserializeObject(null, listEl, listParamType);
-                deserializedList.add(deserializedListEl);
-            }
+                    // Fast-fail
+                    if (deserializedList == null) {
+                        return serializedObj;
+                    }
 
-            return deserializedList;
-        }
-        else if (Map.class.isAssignableFrom(objectClass) && (serializedObj instanceof Map)) {
-            List<Type> mapTypes = getParameterizedTypes(objectType);
-            if (mapTypes == null || mapTypes.size() != 2) {
-                return serializedObj;
-            }
+                    // Make sure the deserialized list is empty
+                    deserializedList.clear();
 
-            Type keyType = mapTypes.get(0);
-            Class<?> keyClass = getClassFromType(keyType);
+                    TypeDescriptor elementType = objectType.getElementType();
+                    List<Object> serializedList = (List<Object>) serializedObj;
+                    if (classDeserializer.isParallel(serializedList.size())) {
+                        Object[] elements = serializedList.toArray();
+                        new ConvertTask(elements, null, elementType, null, 0, elements.length).invoke();
+                        Collections.addAll(deserializedList, elements);
+                        return deserializedList;
+                    }
 
-            Type valueType = mapTypes.get(1);
-            Class<?> valueClass = getClassFromType(valueType);
+                    for (Object listEl : serializedList) {
+                        Object deserializedListEl = deserializeObject(null, null, listEl, elementType);
+                        deserializedList.add(deserializedListEl);
+                    }
 
-            if (!keyClass.isEnum() && keyClass.equals(String.class)) {
-                if (!isSpeciallyDeserialized(valueClass)) {
-                    return serializedObj;
+                    return deserializedList;
                 }
-            }
+                break;
+            case MAP:
+                if (serializedObj instanceof Map) {
+                    if (!objectType.shouldConvertContents()
+                            && classDeserializer.getCustomDeserializer(objectType.getKeyType()) == null
+                            && classDeserializer.getCustomDeserializer(objectType.getValueType()) == null) {
+                        return serializedObj;
+                    }
 
-            Map<Object, Object> deserializedMap = (Map<Object, Object>) getDefaultObject(field, objectClass);
-            // Fast-fail
-            if (deserializedMap == null) {
-                return serializedObj;
-            }
+                    Map<Object, Object> deserializedMap = (Map<Object, Object>) getDefaultObject(fieldName, fieldValue, objectClass);
+                    // Fast-fail
+                    if (deserializedMap == null) {
+                        return serializedObj;
+                    }
 
-            deserializedMap.clear();
+                    deserializedMap.clear();
+
+                    TypeDescriptor keyType = objectType.getKeyType();
+                    TypeDescriptor valueType = objectType.getValueType();
+                    Map<String, Object> mapObject = (Map<String, Object>) serializedObj;
+                    if (classDeserializer.isParallel(mapObject.size())) {
+                        Object[] keys = mapObject.keySet().toArray();
+                        Object[] values = mapObject.values().toArray();
+                        new ConvertTask(keys, values, keyType, valueType, 0, keys.length).invoke();
+                        for (int i = 0; i < keys.length; i++) {
+                            deserializedMap.put(keys[i], values[i]);
+                        }
+                        return deserializedMap;
+                    }
 
-            Map<String, Object> mapObject = (Map<String, Object>) serializedObj;
-            for (Map.Entry<String, Object> entry : mapObject.entrySet()) {
-                Object key = deserializeObject(null, entry.getKey(), keyType);
-                Object value = deserializeObject(null, entry.getValue(), valueType);
-                deserializedMap.put(key, value);
-            }
+                    for (Map.Entry<String, Object> entry : mapObject.entrySet()) {
+                        Object key = deserializeObject(null, null, entry.getKey(), keyType);
+                        Object value = deserializeObject(null, null, entry.getValue(), valueType);
+                        deserializedMap.put(key, value);
+                    }
 
-            return deserializedMap;
+                    return deserializedMap;
+                }
+                break;
+            case LAZY:
+                if (serializedObj != null && !(serializedObj instanceof Lazy)) {
+                    return Lazy.of(deserializeObject(fieldName, null, serializedObj, objectType.getElementType()));
+                }
+                break;
+            default:
+                break;
         }
-        else if (serializedObj != null && !objectClass.isPrimitive() && !objectClass.isInstance(serializedObj)) {
-            if (objectClass.isAnnotationPresent(SerializableConfig.class)
+
+        if (serializedObj != null && !objectClass.isPrimitive() && !objectClass.isInstance(serializedObj)) {
+            if (objectType.getKind() == TypeDescriptor.Kind.SERIALIZABLE
                     && (serializedObj instanceof Map)) {
 
                 // Is an inner member class
-                if (objectClass.isMemberClass() && !Modifier.isStatic(objectClass.getModifiers())) {
+                if (objectType.isInnerMemberClass()) {
                     if (!objectClass.getEnclosingClass().equals(parentClass)) {
                         throw new RuntimeException("Cannot deserialize inner member class " + objectClass.getName());
                     }
@@ -171,9 +170,9 @@ public class FieldDeserializer {
                 }
             }
 
-            if (field != null && !objectClass.isInstance(serializedObj))  {
-                printError("Error deserializing object from YAML for field '%s' in class '%s'", field.getName(), parentClass.getName());
-                printError("Expected field type: %s. Found deserialized type: %s.", field.getType().getName(), serializedObj.getClass().getName());
+            if (fieldName != null && !objectClass.isInstance(serializedObj))  {
+                printError("Error deserializing object from YAML for field '%s' in class '%s'", fieldName, parentClass.getName());
+                printError("Expected field type: %s. Found deserialized type: %s.", objectClass.getName(), serializedObj.getClass().getName());
                 return null;
             }
         }
@@ -181,11 +180,50 @@ public class FieldDeserializer {
         return serializedObj;
     }
 
-    private Object getDefaultObject(Field field, Class<?> clazz) {
-        Object defaultObj = null;
-        if (field != null) {
-            defaultObj = getFieldInstance(field);
+    /**
+     * Converts serialized elements or map entries in place on a fork-join pool.
+     */
+    private final class ConvertTask extends RecursiveAction {
+        // Number of elements that are converted by a single task
+        private static final int CHUNK_SIZE = 256;
+
+        private final Object[] elements;
+        // Map values or null if converting collection elements
+        private final Object[] values;
+        private final TypeDescriptor elementType;
+        private final TypeDescriptor valueType;
+        private final int start;
+        private final int end;
+
+        private ConvertTask(Object[] elements, Object[] values, TypeDescriptor elementType, TypeDescriptor valueType, int start, int end) {
+            this.elements = elements;
+            this.values = values;
+            this.elementType = elementType;
+            this.valueType = valueType;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > CHUNK_SIZE) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new ConvertTask(elements, values, elementType, valueType, start, middle),
+                        new ConvertTask(elements, values, elementType, valueType, middle, end));
+                return;
+            }
+
+            for (int i = start; i < end; i++) {
+                elements[i] = deserializeObject(null, null, elements[i], elementType);
+                if (values != null)
+                    values[i] = deserializeObject(null, null, values[i], valueType);
+            }
         }
+    }
+
+    private Object getDefaultObject(String fieldName, Object fieldValue, Class<?> clazz) {
+        // Re-use the existing field instance if there is one
+        Object defaultObj = fieldValue;
 
         if (defaultObj == null)
             defaultObj = defaultConstructObject(clazz);
@@ -196,8 +234,8 @@ public class FieldDeserializer {
         // Exhausted all options so print an error
         if (defaultObj == null) {
             String errorMsg = String.format("Could not construct an object for class '%s'", clazz.getName());
-            if (field != null) {
-                errorMsg += " for field '" + field.getName() + "'!";
+            if (fieldName != null) {
+                errorMsg += " for field '" + fieldName + "'!";
             }
             printError(errorMsg);
         }
@@ -205,64 +243,121 @@ public class FieldDeserializer {
         return defaultObj;
     }
 
-    private Object getFieldInstance(Field field) {
-        if (field == null || parentObject == null)
-            return null;
+    // Fields declared as a list or collection of numbers that have a primitive-backed list
+    private boolean isPrimitiveListField(TypeDescriptor objectType) {
+        Class<?> objectClass = objectType.getRawClass();
+        TypeDescriptor elementType = objectType.getElementType();
+        return (objectClass == List.class || objectClass == Collection.class)
+                && elementType != null
+                && PrimitiveLists.isSupported(elementType.getRawClass())
+                && classDeserializer.getCustomDeserializer(elementType) == null;
+    }
 
-        boolean fieldAccessibility = field.isAccessible();
-        if (!fieldAccessibility) {
-            field.setAccessible(true);
-        }
-        Object fieldInstance;
-        try {
-           fieldInstance = field.get(parentObject);
-        } catch (IllegalAccessException e) {
-            printError("Error trying to get field member '%s' for class '%s'!", field.getName(), parentClass.getName());
-            return null;
+    private Object convertListToArray(String fieldName, Class<?> arrayType, List<?> objList) {
+        int size = objList.size();
+
+        if (!arrayType.isPrimitive()) {
+            return objList.toArray((Object[]) Array.newInstance(arrayType, size));
         }
 
-        if (!fieldAccessibility)
-            field.setAccessible(false);
+        // Fill primitive arrays directly instead of boxing every element through Array#set
+        if (arrayType == int.class) {
+            int[] array = new int[size];
+            for (int i = 0; i < size; i++) {
+                Object element = objList.get(i);
+                if (!(element instanceof Integer))
+                    return printArrayElementError(fieldName, arrayType, element);
 
-        return fieldInstance;
-    }
+                array[i] = (Integer) element;
+            }
 
-    private List<Type> getParameterizedTypes(Type objectType) {
-        if (!(objectType instanceof ParameterizedType)) {
-            return null;
+            return array;
+        }
+        else if (arrayType == long.class) {
+            long[] array = new long[size];
+            for (int i = 0; i < size; i++) {
+                Object element = objList.get(i);
+                if (!(element instanceof Long || element instanceof Integer))
+                    return printArrayElementError(fieldName, arrayType, element);
+
+                array[i] = ((Number) element).longValue();
+            }
+
+            return array;
         }
+        else if (arrayType == double.class || arrayType == float.class) {
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                Object element = objList.get(i);
+                if (!(element instanceof Double || element instanceof Integer || element instanceof Long))
+                    return printArrayElementError(fieldName, arrayType, element);
+
+                values[i] = ((Number) element).doubleValue();
+            }
 
-        ParameterizedType paramType = (ParameterizedType) objectType;
-        Type[] types = paramType.getActualTypeArguments();
+            if (arrayType == double.class)
+                return values;
 
-        return Arrays.stream(types)
-                .collect(Collectors.toList());
-    }
+            float[] array = new float[size];
+            for (int i = 0; i < size; i++) {
+                array[i] = (float) values[i];
+            }
 
-    private Object convertListToArray(Class<?> arrayType, Object object) {
-        List<?> objList = (List<?>) object;
+            return array;
+        }
+        else if (arrayType == boolean.class) {
+            boolean[] array = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                Object element = objList.get(i);
+                if (!(element instanceof Boolean))
+                    return printArrayElementError(fieldName, arrayType, element);
+
+                array[i] = (Boolean) element;
+            }
 
-        Object array = Array.newInstance(arrayType, objList.size());
+            return array;
+        }
+        else if (arrayType == byte.class) {
+            byte[] array = new byte[size];
+            for (int i = 0; i < size; i++) {
+                Object element = objList.get(i);
+                if (!(element instanceof Integer)
+                        || (Integer) element < Byte.MIN_VALUE || (Integer) element > Byte.MAX_VALUE)
+                    return printArrayElementError(fieldName, arrayType, element);
+
+                array[i] = ((Integer) element).byteValue();
+            }
 
-        for (int i = 0; i < objList.size(); i++) {
+            return array;
+        }
+
+        Object array = Array.newInstance(arrayType, size);
+        for (int i = 0; i < size; i++) {
             Array.set(array, i, objList.get(i));
         }
 
         return array;
     }
 
+    private Object printArrayElementError(String fieldName, Class<?> arrayType, Object element) {
+        String errorMsg = String.format("Couldn't convert '%s' to an element of a %s array", element, arrayType.getName());
+        if (fieldName != null)
+            errorMsg += " for field " + fieldName + "!";
+
+        printError(errorMsg);
+        return null;
+    }
+
     private <T> T defaultConstructObject(Class<T> clazz) {
-        if (clazz.isInterface())
+        Instantiator instantiator = Instantiator.of(clazz);
+        // Classes that can't be constructed fall back to common instances
+        if (!instantiator.canInstantiate() || instantiator.needsEnclosingInstance())
             return null;
 
         try {
-            Constructor<?> constructor =  clazz.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            T instance = (T) constructor.newInstance();
-            constructor.setAccessible(false);
-            return instance;
-        } catch (ReflectiveOperationException e) {
-            e.printStackTrace();
+            return clazz.cast(instantiator.newInstance());
+        } catch (InvocationTargetException e) {
+            printError("The constructor of class '%s' threw %s!", clazz.getName(), e.getCause());
             return null;
         }
     }
@@ -289,15 +384,17 @@ public class FieldDeserializer {
     }
 
     private <T> Object deserializeMemberInstance(Class<T> memberClass, Class<?> enclosingClass, Object enclosingInstance, Map<String, Object> objectMap) {
-        T memberInstance;
+        Instantiator instantiator = Instantiator.of(memberClass);
+        if (!instantiator.canInstantiate()) {
+            printError(instantiator.getError());
+            return null;
+        }
 
+        T memberInstance;
         try {
-            Constructor<?> constructor =  memberClass.getDeclaredConstructor(enclosingClass);
-            constructor.setAccessible(true);
-            memberInstance = (T) constructor.newInstance(enclosingInstance);
-            constructor.setAccessible(false);
-        } catch (ReflectiveOperationException e) {
-            e.printStackTrace();
+            memberInstance = memberClass.cast(instantiator.newInstance(enclosingInstance));
+        } catch (InvocationTargetException e) {
+            printError("The constructor of class '%s' threw %s!", memberClass.getName(), e.getCause());
             return null;
         }
 
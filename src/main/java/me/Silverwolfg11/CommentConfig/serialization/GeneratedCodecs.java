@@ -0,0 +1,70 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+/**
+ * Looks up the generated {@link ConfigCodec} of a class.
+ * <br><br>
+ * The lookup is only done once per class.
+ */
+final class GeneratedCodecs {
+
+    private static final ClassValue<ConfigCodec<?>[]> CODECS = new ClassValue<ConfigCodec<?>[]>() {
+        @Override
+        protected ConfigCodec<?>[] computeValue(Class<?> type) {
+            // Use an array as a holder since the class may not have a codec.
+            return new ConfigCodec<?>[] { findCodec(type) };
+        }
+    };
+
+    private GeneratedCodecs() {
+    }
+
+    /**
+     * Get the generated codec of a class.
+     *
+     * @param clazz Class to get the codec of.
+     *
+     * @return the generated codec or {@code null} if the class does not have one.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ConfigCodec<T> get(Class<T> clazz) {
+        return (ConfigCodec<T>) CODECS.get(clazz)[0];
+    }
+
+    /**
+     * Get the name of the codec class that would be generated for a class.
+     *
+     * @param clazz Class to get the codec class name of.
+     *
+     * @return the codec class name.
+     */
+    static String getCodecClassName(Class<?> clazz) {
+        String className = clazz.getName();
+        int packageEnd = className.lastIndexOf('.');
+        String packagePrefix = className.substring(0, packageEnd + 1);
+        String flatName = className.substring(packageEnd + 1).replace('$', '_');
+
+        return packagePrefix + flatName + ConfigCodec.CODEC_SUFFIX;
+    }
+
+    private static ConfigCodec<?> findCodec(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.isArray() || clazz.getClassLoader() == null)
+            return null;
+
+        Class<?> codecClass;
+        try {
+            codecClass = Class.forName(getCodecClassName(clazz), true, clazz.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+
+        if (!ConfigCodec.class.isAssignableFrom(codecClass))
+            return null;
+
+        try {
+            return (ConfigCodec<?>) codecClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
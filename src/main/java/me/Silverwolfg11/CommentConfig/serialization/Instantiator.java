@@ -0,0 +1,141 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Constructs instances of a class through a constructor handle that is resolved once per class.
+ * <br><br>
+ * Top-level and static nested classes are constructed through their default constructor.
+ * Inner member classes are constructed through the constructor that takes the enclosing instance.
+ * The constructor is made accessible once when the instantiator is created, so there
+ * are no lookups, access checks or accessibility toggles when an instance is constructed.
+ * <br><br>
+ * If a class cannot be constructed, the reason is resolved up front as well,
+ * so that callers can report it without constructing the class.
+ */
+final class Instantiator {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassValue<Instantiator> INSTANTIATORS = new ClassValue<Instantiator>() {
+        @Override
+        protected Instantiator computeValue(Class<?> type) {
+            return new Instantiator(type);
+        }
+    };
+
+    // Enclosing class of an inner member class or null
+    private final Class<?> enclosingClass;
+    // Constructor of type (Object) -> Object or null if the class can't be constructed.
+    // The argument is the enclosing instance, which is ignored for other classes.
+    private final MethodHandle constructor;
+    // Why the class can't be constructed or null if it can
+    private final String error;
+
+    private Instantiator(Class<?> clazz) {
+        boolean innerMemberClass = clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers());
+        this.enclosingClass = innerMemberClass ? clazz.getEnclosingClass() : null;
+
+        MethodHandle handle = null;
+        String reason = null;
+        if (clazz.isInterface() || clazz.isPrimitive() || clazz.isArray() || clazz.isEnum()) {
+            reason = "it is not a constructable class";
+        }
+        else if (Modifier.isAbstract(clazz.getModifiers())) {
+            reason = "it is abstract";
+        }
+        else {
+            try {
+                Constructor<?> ctor = innerMemberClass ? clazz.getDeclaredConstructor(enclosingClass) : clazz.getDeclaredConstructor();
+                ctor.setAccessible(true);
+                handle = LOOKUP.unreflectConstructor(ctor);
+                if (!innerMemberClass)
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+
+                handle = handle.asType(MethodType.methodType(Object.class, Object.class));
+            } catch (NoSuchMethodException e) {
+                reason = innerMemberClass ? "it does not have a constructor that only takes the enclosing instance"
+                                          : "it does not have a default constructor";
+            } catch (IllegalAccessException | RuntimeException e) {
+                // Includes security and module access errors
+                reason = "its constructor cannot be accessed";
+            }
+        }
+
+        this.constructor = handle;
+        this.error = reason != null
+                ? String.format("Could not construct an instance of class '%s' because %s!", clazz.getName(), reason)
+                : null;
+    }
+
+    /**
+     * Get the instantiator of a class.
+     *
+     * @param clazz Class to get the instantiator for.
+     *
+     * @return the cached instantiator of the class.
+     */
+    static Instantiator of(Class<?> clazz) {
+        return INSTANTIATORS.get(clazz);
+    }
+
+    boolean canInstantiate() {
+        return constructor != null;
+    }
+
+    /**
+     * Get why the class cannot be constructed.
+     *
+     * @return the error message or {@code null} if the class can be constructed.
+     */
+    String getError() {
+        return error;
+    }
+
+    /**
+     * Check if the class is an inner member class, which needs an enclosing instance to be constructed.
+     *
+     * @return if the class needs an enclosing instance.
+     */
+    boolean needsEnclosingInstance() {
+        return enclosingClass != null;
+    }
+
+    /**
+     * Construct a new instance of the class.
+     * The class must be {@link #canInstantiate() constructable} and not need an enclosing instance.
+     *
+     * @return the new instance.
+     *
+     * @throws InvocationTargetException if the constructor throws an exception.
+     */
+    Object newInstance() throws InvocationTargetException {
+        return newInstance(null);
+    }
+
+    /**
+     * Construct a new instance of the class.
+     * The class must be {@link #canInstantiate() constructable}.
+     *
+     * @param enclosingInstance Enclosing instance of an inner member class. Ignored for other classes.
+     *
+     * @return the new instance.
+     *
+     * @throws InvocationTargetException if the constructor throws an exception.
+     *                                   Errors are rethrown as is.
+     */
+    Object newInstance(Object enclosingInstance) throws InvocationTargetException {
+        try {
+            return (Object) constructor.invokeExact(enclosingInstance);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A field value that can be deserialized on first access.
+ * <br><br>
+ * Declare a field of a serializable class as {@code Lazy<T>} to let the
+ * {@link ClassDeserializer} defer deserializing the field's YAML until {@link #get()} is called.
+ * Deserialization is only deferred in {@link ClassDeserializer#setLazyMode(boolean) lazy mode},
+ * otherwise the value is deserialized right away.
+ * <br><br>
+ * Lazy values are serialized as their value, so serializing a lazy value will deserialize it.
+ *
+ * @param <T> Type of the value.
+ */
+public final class Lazy<T> {
+
+    // Deserializes the value or null if the value has been deserialized
+    private volatile Supplier<T> loader;
+    private T value;
+
+    private Lazy(T value, Supplier<T> loader) {
+        this.value = value;
+        this.loader = loader;
+    }
+
+    /**
+     * Create a lazy value that already has a value.
+     *
+     * @param value Value or {@code null}.
+     *
+     * @return the lazy value.
+     * @param <T> Type of the value.
+     */
+    public static <T> Lazy<T> of(T value) {
+        return new Lazy<>(value, null);
+    }
+
+    static <T> Lazy<T> deferred(Supplier<T> loader) {
+        return new Lazy<>(null, Objects.requireNonNull(loader));
+    }
+
+    /**
+     * Get the value, deserializing it if it hasn't been deserialized yet.
+     * <br><br>
+     * This method is thread-safe. The value is only deserialized once.
+     *
+     * @return the value or {@code null} if there is none or if there was an error deserializing it.
+     */
+    public T get() {
+        if (loader != null) {
+            synchronized (this) {
+                Supplier<T> currentLoader = loader;
+                if (currentLoader != null) {
+                    value = currentLoader.get();
+                    // Release the raw YAML
+                    loader = null;
+                }
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Check if the value has been deserialized.
+     *
+     * @return if the value has been deserialized.
+     */
+    public boolean isLoaded() {
+        return loader == null;
+    }
+
+    @Override
+    public String toString() {
+        return isLoaded() ? "Lazy[" + value + "]" : "Lazy[not loaded]";
+    }
+}
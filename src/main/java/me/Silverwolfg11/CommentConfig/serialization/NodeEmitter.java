@@ -0,0 +1,1253 @@
+/*
+ * Parts of this file are adapted from SnakeYAML 1.26, org.yaml.snakeyaml.emitter.Emitter,
+ * and rewritten to walk a config node tree instead of handling a stream of events.
+ *
+ * Copyright (c) 2008, http://www.snakeyaml.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import me.Silverwolfg11.CommentConfig.hacks.CommentScalarNode;
+import me.Silverwolfg11.CommentConfig.hacks.CommentYAML;
+import me.Silverwolfg11.CommentConfig.node.ConfigNode;
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+import me.Silverwolfg11.CommentConfig.node.ValueConfigNode;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.emitter.EmitterException;
+import org.yaml.snakeyaml.emitter.ScalarAnalysis;
+import org.yaml.snakeyaml.nodes.AnchorNode;
+import org.yaml.snakeyaml.nodes.CollectionNode;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+import org.yaml.snakeyaml.scanner.Constant;
+import org.yaml.snakeyaml.serializer.AnchorGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Writes a config node tree, comments included, straight to a writer as block-style YAML.
+ * <br><br>
+ * Unlike {@link NodeSerializer#serializeToString(ConfigNode)}, the tree is not copied into comment key maps
+ * and no events go through SnakeYAML's emitter. Keys and sections are written while walking the tree,
+ * comments are written before their keys, and only the node values are represented through SnakeYAML's representer.
+ * <br><br>
+ * The layout follows SnakeYAML's emitter with the options of the node serializer,
+ * including where comments end up, so the output is the same as the node serializer's output.
+ * An emitter writes a single document and is not thread-safe, but any number of emitters
+ * can be created from the same node serializer.
+ */
+public final class NodeEmitter {
+
+    private static final Resolver RESOLVER = new Resolver();
+    private static final Pattern ANCHOR_FORMAT = Pattern.compile("^[-_\\w]*$");
+    private static final char[] SPACE = { ' ' };
+    private static final String STR_TAG = Tag.STR.getValue();
+
+    private static final Map<Character, String> ESCAPE_REPLACEMENTS = new HashMap<>();
+
+    static {
+        ESCAPE_REPLACEMENTS.put('\0', "0");
+        ESCAPE_REPLACEMENTS.put('\u0007', "a");
+        ESCAPE_REPLACEMENTS.put('\u0008', "b");
+        ESCAPE_REPLACEMENTS.put('\u0009', "t");
+        ESCAPE_REPLACEMENTS.put('\n', "n");
+        ESCAPE_REPLACEMENTS.put('\u000B', "v");
+        ESCAPE_REPLACEMENTS.put('\u000C', "f");
+        ESCAPE_REPLACEMENTS.put('\r', "r");
+        ESCAPE_REPLACEMENTS.put('\u001B', "e");
+        ESCAPE_REPLACEMENTS.put('"', "\"");
+        ESCAPE_REPLACEMENTS.put('\\', "\\");
+        ESCAPE_REPLACEMENTS.put('\u0085', "N");
+        ESCAPE_REPLACEMENTS.put('\u00A0', "_");
+        ESCAPE_REPLACEMENTS.put('\u2028', "L");
+        ESCAPE_REPLACEMENTS.put('\u2029', "P");
+    }
+
+    private final Writer writer;
+    private final CommentYAML yaml;
+    private final DumperOptions options;
+
+    // Formatting details
+    private final int bestIndent;
+    private final int indicatorIndent;
+    private final int bestWidth;
+    private final char[] bestLineBreak;
+    private final boolean splitLines;
+    private final boolean allowUnicode;
+    private final boolean prettyFlow;
+    private final int maxSimpleKeyLength;
+
+    // Current indentation or -1 before the root node, and the stack of previous indentations
+    private int indent = -1;
+    private int[] indents = new int[16];
+    private int indentCount;
+
+    // Collections that are being written, to tell if comments are written in a sequence
+    private boolean[] sequenceStack = new boolean[16];
+    private int collectionCount;
+
+    private int flowLevel;
+    private boolean mappingContext;
+    private boolean simpleKeyContext;
+
+    // Characteristics of the last emitted character, as SnakeYAML's emitter tracks them.
+    // Comments are not tracked, so that they're placed exactly where the node serializer places them.
+    private int column;
+    private boolean whitespace = true;
+    private boolean indention = true;
+    private boolean firstComment = true;
+
+    // Analysis of the next scalar, if it was analyzed to check for a simple key
+    private ScalarAnalysis analysis;
+
+    // Represented node values in document order, with their anchors
+    private List<Node> values;
+    private int valueIndex;
+    private final Map<Node, String> anchors = new HashMap<>();
+    private final Set<Node> serializedNodes = new HashSet<>();
+
+    private boolean used;
+
+    /**
+     * Create an emitter that writes with the options and representers of a node serializer.
+     *
+     * @param writer Writer to write the YAML to.
+     * @param serializer Node serializer to take the options and representers from.
+     */
+    public NodeEmitter(Writer writer, NodeSerializer serializer) {
+        this.writer = Objects.requireNonNull(writer);
+        this.yaml = serializer.getYaml();
+        this.options = serializer.getOptions();
+
+        this.bestIndent = (options.getIndent() > 1 && options.getIndent() < 10) ? options.getIndent() : 2;
+        this.indicatorIndent = options.getIndicatorIndent();
+        this.bestWidth = options.getWidth() > bestIndent * 2 ? options.getWidth() : 80;
+        this.bestLineBreak = options.getLineBreak().getString().toCharArray();
+        this.splitLines = options.getSplitLines();
+        this.allowUnicode = options.isAllowUnicode();
+        this.prettyFlow = options.isPrettyFlow();
+        this.maxSimpleKeyLength = options.getMaxSimpleKeyLength();
+    }
+
+    /**
+     * Write a config node and its children as a YAML document.
+     * The writer is flushed, but not closed.
+     *
+     * @param node Node to write. The node <b>cannot</b> be {@code null}.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     * @throws IllegalStateException if the emitter already wrote a document.
+     */
+    public void emit(ConfigNode node) throws IOException {
+        Objects.requireNonNull(node);
+        if (used)
+            throw new IllegalStateException("A NodeEmitter can only write a single document!");
+
+        used = true;
+
+        // Represent all values at once, so that values that are referenced more than once are anchored
+        List<Object> rawValues = new ArrayList<>();
+        NodeSerializer.collectValues(node, rawValues);
+        values = yaml.representValues(rawValues);
+        AnchorGenerator anchorGenerator = options.getAnchorGenerator();
+        for (Node value : values) {
+            anchorNode(value, anchorGenerator);
+        }
+
+        // Handle root comments a.k.a the header
+        if (!node.hasKey() && node.hasComments()) {
+            for (String comment : node.getComments()) {
+                if (!comment.isEmpty())
+                    writer.append("# ").append(comment);
+
+                writer.append('\n');
+            }
+        }
+
+        if (options.isExplicitStart()) {
+            writeIndent();
+            writeIndicator("---", true, false, false);
+        }
+
+        mappingContext = false;
+        simpleKeyContext = false;
+        List<ConfigNode> rootEntries = node.hasKey() ? singletonEntry(node) : getEntries(node);
+        if (rootEntries.isEmpty()) {
+            writeEmptyFlowMapping();
+        }
+        else {
+            writeSection(rootEntries);
+        }
+
+        writeIndent();
+        if (options.isExplicitEnd()) {
+            writeIndicator("...", true, false, false);
+            writeIndent();
+        }
+
+        writer.flush();
+    }
+
+    // Tree traversal. A node is written the same way the node serializer puts it in the comment map.
+
+    private static boolean isWritten(ConfigNode node) {
+        if (!node.hasKey())
+            return false;
+
+        if (node instanceof ParentConfigNode)
+            return ((ParentConfigNode) node).hasChildren();
+
+        return node instanceof ValueConfigNode && ((ValueConfigNode) node).getValue() != null;
+    }
+
+    private static List<ConfigNode> singletonEntry(ConfigNode node) {
+        List<ConfigNode> entries = new ArrayList<>(1);
+        if (isWritten(node))
+            entries.add(node);
+
+        return entries;
+    }
+
+    private static List<ConfigNode> getEntries(ConfigNode node) {
+        List<ConfigNode> entries = new ArrayList<>();
+        if (node instanceof ParentConfigNode && ((ParentConfigNode) node).hasChildren()) {
+            for (ConfigNode child : ((ParentConfigNode) node).getChildren()) {
+                if (isWritten(child))
+                    entries.add(child);
+            }
+        }
+
+        return entries;
+    }
+
+    // Anchors a value node the same way SnakeYAML's serializer does.
+    private void anchorNode(Node node, AnchorGenerator anchorGenerator) {
+        if (node.getNodeId() == NodeId.anchor) {
+            node = ((AnchorNode) node).getRealNode();
+        }
+
+        if (anchors.containsKey(node)) {
+            if (anchors.get(node) == null) {
+                anchors.put(node, anchorGenerator.nextAnchor(node));
+            }
+            return;
+        }
+
+        anchors.put(node, null);
+        if (node.getNodeId() == NodeId.sequence) {
+            for (Node item : ((SequenceNode) node).getValue()) {
+                anchorNode(item, anchorGenerator);
+            }
+        }
+        else if (node.getNodeId() == NodeId.mapping) {
+            for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                anchorNode(tuple.getKeyNode(), anchorGenerator);
+                anchorNode(tuple.getValueNode(), anchorGenerator);
+            }
+        }
+    }
+
+    private void writeSection(List<ConfigNode> entries) throws IOException {
+        pushCollection(false);
+        increaseIndent(false, false);
+        for (ConfigNode entry : entries) {
+            String key = entry.getKey();
+            String[] comments = entry.getComments();
+            writeComments(comments);
+            writeIndent();
+
+            // Keys with comments are always plain, just like the representer makes them
+            DumperOptions.ScalarStyle keyStyle = comments != null ? DumperOptions.ScalarStyle.PLAIN : options.getDefaultScalarStyle();
+            if (checkSimpleScalarKey(null, STR_TAG, key)) {
+                setContext(true, true);
+                writeScalar(null, Tag.STR, key, keyStyle);
+                writeIndicator(":", false, false, false);
+            }
+            else {
+                writeIndicator("?", true, false, true);
+                setContext(true, false);
+                writeScalar(null, Tag.STR, key, keyStyle);
+                writeIndent();
+                writeIndicator(":", true, false, true);
+            }
+
+            setContext(true, false);
+            if (entry instanceof ParentConfigNode) {
+                List<ConfigNode> children = getEntries(entry);
+                if (children.isEmpty()) {
+                    writeEmptyFlowMapping();
+                }
+                else {
+                    writeSection(children);
+                }
+            }
+            else {
+                writeNode(values.get(valueIndex++));
+            }
+        }
+        indent = popIndent();
+        popCollection();
+    }
+
+    private void writeEmptyFlowMapping() throws IOException {
+        pushCollection(false);
+        writeIndicator("{", true, true, false);
+        flowLevel++;
+        increaseIndent(true, false);
+        if (prettyFlow)
+            writeIndent();
+
+        indent = popIndent();
+        flowLevel--;
+        writeIndicator("}", false, false, false);
+        popCollection();
+    }
+
+    // Node handlers
+
+    private void setContext(boolean mapping, boolean simpleKey) {
+        this.mappingContext = mapping;
+        this.simpleKeyContext = simpleKey;
+    }
+
+    private void writeNode(Node node) throws IOException {
+        if (node.getNodeId() == NodeId.anchor) {
+            node = ((AnchorNode) node).getRealNode();
+        }
+
+        String anchor = anchors.get(node);
+        if (!serializedNodes.add(node)) {
+            writeIndicator("*" + prepareAnchor(anchor), true, false, false);
+            return;
+        }
+
+        if (node.getNodeId() == NodeId.scalar) {
+            ScalarNode scalarNode = (ScalarNode) node;
+            writeScalar(anchor, node.getTag(), getScalarValue(scalarNode), scalarNode.getScalarStyle());
+            return;
+        }
+
+        if (anchor != null)
+            writeIndicator("&" + prepareAnchor(anchor), true, false, false);
+
+        boolean flow = flowLevel != 0 || ((CollectionNode<?>) node).getFlowStyle() == DumperOptions.FlowStyle.FLOW;
+        if (node.getNodeId() == NodeId.sequence) {
+            writeCollectionTag(node.getTag(), RESOLVER.resolve(NodeId.sequence, null, true));
+            List<Node> items = ((SequenceNode) node).getValue();
+            if (flow || items.isEmpty()) {
+                writeFlowSequence(items);
+            }
+            else {
+                writeBlockSequence(items);
+            }
+        }
+        else {
+            writeCollectionTag(node.getTag(), RESOLVER.resolve(NodeId.mapping, null, true));
+            List<NodeTuple> tuples = ((MappingNode) node).getValue();
+            if (flow || tuples.isEmpty()) {
+                writeFlowMapping(tuples);
+            }
+            else {
+                writeBlockMapping(tuples);
+            }
+        }
+    }
+
+    private static String getScalarValue(ScalarNode node) {
+        // Don't trigger the comment injection of comment keys
+        return node instanceof CommentScalarNode ? ((CommentScalarNode) node).getRawValue() : node.getValue();
+    }
+
+    private static String[] getComments(Node node) {
+        return node instanceof CommentScalarNode ? ((CommentScalarNode) node).getComments() : null;
+    }
+
+    private void writeCollectionTag(Tag tag, Tag implicitTag) throws IOException {
+        if (!tag.equals(implicitTag))
+            writeIndicator(prepareTag(tag.getValue()), true, false, false);
+    }
+
+    private void writeFlowSequence(List<Node> items) throws IOException {
+        pushCollection(true);
+        writeIndicator("[", true, true, false);
+        flowLevel++;
+        increaseIndent(true, false);
+        if (prettyFlow)
+            writeIndent();
+
+        boolean first = true;
+        for (Node item : items) {
+            if (!first)
+                writeIndicator(",", false, false, false);
+
+            if ((column > bestWidth && splitLines) || prettyFlow)
+                writeIndent();
+
+            setContext(false, false);
+            writeNode(item);
+            first = false;
+        }
+
+        indent = popIndent();
+        flowLevel--;
+        writeIndicator("]", false, false, false);
+        if (!first && prettyFlow)
+            writeIndent();
+
+        popCollection();
+    }
+
+    private void writeFlowMapping(List<NodeTuple> tuples) throws IOException {
+        pushCollection(false);
+        writeIndicator("{", true, true, false);
+        flowLevel++;
+        increaseIndent(true, false);
+        if (prettyFlow)
+            writeIndent();
+
+        boolean first = true;
+        for (NodeTuple tuple : tuples) {
+            Node key = tuple.getKeyNode();
+            writeComments(getComments(key));
+            if (!first)
+                writeIndicator(",", false, false, false);
+
+            if ((column > bestWidth && splitLines) || prettyFlow)
+                writeIndent();
+
+            if (checkSimpleKey(key)) {
+                setContext(true, true);
+                writeNode(key);
+                writeIndicator(":", false, false, false);
+            }
+            else {
+                writeIndicator("?", true, false, false);
+                setContext(true, false);
+                writeNode(key);
+                if (column > bestWidth || prettyFlow)
+                    writeIndent();
+
+                writeIndicator(":", true, false, false);
+            }
+
+            setContext(true, false);
+            writeNode(tuple.getValueNode());
+            first = false;
+        }
+
+        indent = popIndent();
+        flowLevel--;
+        if (!first && prettyFlow)
+            writeIndent();
+
+        writeIndicator("}", false, false, false);
+        popCollection();
+    }
+
+    private void writeBlockSequence(List<Node> items) throws IOException {
+        pushCollection(true);
+        increaseIndent(false, mappingContext && !indention);
+        for (Node item : items) {
+            writeIndent();
+            writeWhitespace(indicatorIndent);
+            writeIndicator("-", true, false, true);
+            setContext(false, false);
+            writeNode(item);
+        }
+
+        indent = popIndent();
+        popCollection();
+    }
+
+    private void writeBlockMapping(List<NodeTuple> tuples) throws IOException {
+        pushCollection(false);
+        increaseIndent(false, false);
+        for (NodeTuple tuple : tuples) {
+            Node key = tuple.getKeyNode();
+            writeComments(getComments(key));
+            writeIndent();
+            if (checkSimpleKey(key)) {
+                setContext(true, true);
+                writeNode(key);
+                writeIndicator(":", false, false, false);
+            }
+            else {
+                writeIndicator("?", true, false, true);
+                setContext(true, false);
+                writeNode(key);
+                writeIndent();
+                writeIndicator(":", true, false, true);
+            }
+
+            setContext(true, false);
+            writeNode(tuple.getValueNode());
+        }
+
+        indent = popIndent();
+        popCollection();
+    }
+
+    // Checkers
+
+    private boolean checkSimpleKey(Node key) {
+        if (key.getNodeId() == NodeId.anchor) {
+            key = ((AnchorNode) key).getRealNode();
+        }
+
+        String anchor = anchors.get(key);
+        if (serializedNodes.contains(key))
+            return anchor == null || prepareAnchor(anchor).length() < maxSimpleKeyLength;
+
+        if (key.getNodeId() == NodeId.scalar)
+            return checkSimpleScalarKey(anchor, key.getTag().getValue(), getScalarValue((ScalarNode) key));
+
+        int length = prepareTag(key.getTag().getValue()).length();
+        if (anchor != null)
+            length += prepareAnchor(anchor).length();
+
+        boolean empty = key.getNodeId() == NodeId.sequence ? ((SequenceNode) key).getValue().isEmpty()
+                                                           : ((MappingNode) key).getValue().isEmpty();
+        return length < maxSimpleKeyLength && empty;
+    }
+
+    private boolean checkSimpleScalarKey(String anchor, String tag, String value) {
+        int length = prepareTag(tag).length();
+        if (anchor != null)
+            length += prepareAnchor(anchor).length();
+
+        analysis = analyzeScalar(value);
+        length += value.length();
+        return length < maxSimpleKeyLength && !analysis.isEmpty() && !analysis.isMultiline();
+    }
+
+    // Anchor, tag and scalar processors
+
+    private void writeScalar(String anchor, Tag tag, String value, DumperOptions.ScalarStyle nodeStyle) throws IOException {
+        if (anchor != null)
+            writeIndicator("&" + prepareAnchor(anchor), true, false, false);
+
+        if (analysis == null)
+            analysis = analyzeScalar(value);
+
+        boolean plainImplicit = tag.equals(RESOLVER.resolve(NodeId.scalar, value, true));
+        boolean nonPlainImplicit = tag.equals(RESOLVER.resolve(NodeId.scalar, value, false));
+        DumperOptions.ScalarStyle style = chooseScalarStyle(nodeStyle, plainImplicit);
+        if (!((style == null && plainImplicit) || (style != null && nonPlainImplicit)))
+            writeIndicator(prepareTag(tag.getValue()), true, false, false);
+
+        increaseIndent(true, false);
+        String text = analysis.getScalar();
+        boolean split = !simpleKeyContext && splitLines;
+        if (style == null) {
+            writePlain(text, split);
+        }
+        else {
+            switch (style) {
+                case DOUBLE_QUOTED:
+                    writeDoubleQuoted(text, split);
+                    break;
+                case SINGLE_QUOTED:
+                    writeSingleQuoted(text, split);
+                    break;
+                case FOLDED:
+                    writeFolded(text, split);
+                    break;
+                default:
+                    writeLiteral(text);
+            }
+        }
+
+        analysis = null;
+        indent = popIndent();
+    }
+
+    // Returns null for plain scalars
+    private DumperOptions.ScalarStyle chooseScalarStyle(DumperOptions.ScalarStyle nodeStyle, boolean plainImplicit) {
+        boolean plain = nodeStyle == DumperOptions.ScalarStyle.PLAIN;
+        if (nodeStyle == DumperOptions.ScalarStyle.DOUBLE_QUOTED)
+            return DumperOptions.ScalarStyle.DOUBLE_QUOTED;
+
+        if (plain && plainImplicit) {
+            if (!(simpleKeyContext && (analysis.isEmpty() || analysis.isMultiline()))
+                    && ((flowLevel != 0 && analysis.isAllowFlowPlain()) || (flowLevel == 0 && analysis.isAllowBlockPlain()))) {
+                return null;
+            }
+        }
+
+        if (nodeStyle == DumperOptions.ScalarStyle.LITERAL || nodeStyle == DumperOptions.ScalarStyle.FOLDED) {
+            if (flowLevel == 0 && !simpleKeyContext && analysis.isAllowBlock())
+                return nodeStyle;
+        }
+
+        if (plain || nodeStyle == DumperOptions.ScalarStyle.SINGLE_QUOTED) {
+            if (analysis.isAllowSingleQuoted() && !(simpleKeyContext && analysis.isMultiline()))
+                return DumperOptions.ScalarStyle.SINGLE_QUOTED;
+        }
+
+        return DumperOptions.ScalarStyle.DOUBLE_QUOTED;
+    }
+
+    private static String prepareTag(String tag) {
+        if (tag.isEmpty())
+            throw new EmitterException("tag must not be empty");
+
+        if ("!".equals(tag))
+            return tag;
+
+        if (tag.startsWith(Tag.PREFIX) && Tag.PREFIX.length() < tag.length())
+            return "!!" + tag.substring(Tag.PREFIX.length());
+
+        if (tag.startsWith("!"))
+            return tag;
+
+        return "!<" + tag + ">";
+    }
+
+    private static String prepareAnchor(String anchor) {
+        if (anchor.isEmpty())
+            throw new EmitterException("anchor must not be empty");
+
+        if (!ANCHOR_FORMAT.matcher(anchor).matches())
+            throw new EmitterException("invalid character in the anchor: " + anchor);
+
+        return anchor;
+    }
+
+    private ScalarAnalysis analyzeScalar(String scalar) {
+        // Empty scalar is a special case.
+        if (scalar.isEmpty())
+            return new ScalarAnalysis(scalar, true, false, false, true, true, false);
+
+        // Indicators and special characters
+        boolean blockIndicators = false;
+        boolean flowIndicators = false;
+        boolean lineBreaks = false;
+        boolean specialCharacters = false;
+
+        // Important whitespace combinations
+        boolean leadingSpace = false;
+        boolean leadingBreak = false;
+        boolean trailingSpace = false;
+        boolean trailingBreak = false;
+        boolean breakSpace = false;
+        boolean spaceBreak = false;
+
+        // Check document indicators
+        if (scalar.startsWith("---") || scalar.startsWith("...")) {
+            blockIndicators = true;
+            flowIndicators = true;
+        }
+
+        boolean precededByWhitespace = true;
+        boolean followedByWhitespace = scalar.length() == 1 || Constant.NULL_BL_T_LINEBR.has(scalar.codePointAt(1));
+        boolean previousSpace = false;
+        boolean previousBreak = false;
+
+        int index = 0;
+        while (index < scalar.length()) {
+            int c = scalar.codePointAt(index);
+            if (index == 0) {
+                // Leading indicators are special characters
+                if ("#,[]{}&*!|>'\"%@`".indexOf(c) != -1) {
+                    flowIndicators = true;
+                    blockIndicators = true;
+                }
+                if (c == '?' || c == ':') {
+                    flowIndicators = true;
+                    if (followedByWhitespace)
+                        blockIndicators = true;
+                }
+                if (c == '-' && followedByWhitespace) {
+                    flowIndicators = true;
+                    blockIndicators = true;
+                }
+            }
+            else {
+                // Some indicators cannot appear within a scalar as well
+                if (",?[]{}".indexOf(c) != -1)
+                    flowIndicators = true;
+
+                if (c == ':') {
+                    flowIndicators = true;
+                    if (followedByWhitespace)
+                        blockIndicators = true;
+                }
+                if (c == '#' && precededByWhitespace) {
+                    flowIndicators = true;
+                    blockIndicators = true;
+                }
+            }
+
+            // Check for line breaks, special, and unicode characters
+            boolean isLineBreak = Constant.LINEBR.has(c);
+            if (isLineBreak)
+                lineBreaks = true;
+
+            if (!(c == '\n' || (0x20 <= c && c <= 0x7E))) {
+                if (c == 0x85 || (c >= 0xA0 && c <= 0xD7FF) || (c >= 0xE000 && c <= 0xFFFD) || (c >= 0x10000 && c <= 0x10FFFF)) {
+                    if (!allowUnicode)
+                        specialCharacters = true;
+                }
+                else {
+                    specialCharacters = true;
+                }
+            }
+
+            // Detect important whitespace combinations
+            if (c == ' ') {
+                if (index == 0)
+                    leadingSpace = true;
+                if (index == scalar.length() - 1)
+                    trailingSpace = true;
+                if (previousBreak)
+                    breakSpace = true;
+
+                previousSpace = true;
+                previousBreak = false;
+            }
+            else if (isLineBreak) {
+                if (index == 0)
+                    leadingBreak = true;
+                if (index == scalar.length() - 1)
+                    trailingBreak = true;
+                if (previousSpace)
+                    spaceBreak = true;
+
+                previousSpace = false;
+                previousBreak = true;
+            }
+            else {
+                previousSpace = false;
+                previousBreak = false;
+            }
+
+            // Prepare for the next character
+            index += Character.charCount(c);
+            precededByWhitespace = Constant.NULL_BL_T.has(c) || isLineBreak;
+            followedByWhitespace = true;
+            if (index + 1 < scalar.length()) {
+                int nextIndex = index + Character.charCount(scalar.codePointAt(index));
+                if (nextIndex < scalar.length())
+                    followedByWhitespace = Constant.NULL_BL_T.has(scalar.codePointAt(nextIndex)) || isLineBreak;
+            }
+        }
+
+        boolean allowFlowPlain = true;
+        boolean allowBlockPlain = true;
+        boolean allowSingleQuoted = true;
+        boolean allowBlock = true;
+        // Leading and trailing whitespaces are bad for plain scalars
+        if (leadingSpace || leadingBreak || trailingSpace || trailingBreak)
+            allowFlowPlain = allowBlockPlain = false;
+        // Trailing spaces are not permitted for block scalars
+        if (trailingSpace)
+            allowBlock = false;
+        // Spaces at the beginning of a new line are only acceptable for block scalars
+        if (breakSpace)
+            allowFlowPlain = allowBlockPlain = allowSingleQuoted = false;
+        // Spaces followed by breaks, as well as special characters are only allowed for double quoted scalars
+        if (spaceBreak || specialCharacters)
+            allowFlowPlain = allowBlockPlain = allowSingleQuoted = allowBlock = false;
+        // Multiline plain scalars are never written in the flow context
+        if (lineBreaks)
+            allowFlowPlain = false;
+        if (flowIndicators)
+            allowFlowPlain = false;
+        if (blockIndicators)
+            allowBlockPlain = false;
+
+        return new ScalarAnalysis(scalar, false, lineBreaks, allowFlowPlain, allowBlockPlain, allowSingleQuoted, allowBlock);
+    }
+
+    // Indentation and collection stacks
+
+    private void increaseIndent(boolean flow, boolean indentless) {
+        if (indentCount == indents.length)
+            indents = Arrays.copyOf(indents, indentCount * 2);
+
+        indents[indentCount++] = indent;
+        if (indent == -1) {
+            indent = flow ? bestIndent : 0;
+        }
+        else if (!indentless) {
+            indent += bestIndent;
+        }
+    }
+
+    private int popIndent() {
+        return indents[--indentCount];
+    }
+
+    private void pushCollection(boolean sequence) {
+        if (collectionCount == sequenceStack.length)
+            sequenceStack = Arrays.copyOf(sequenceStack, collectionCount * 2);
+
+        sequenceStack[collectionCount++] = sequence;
+    }
+
+    private void popCollection() {
+        collectionCount--;
+    }
+
+    // Comments are written in a sequence if they're in a mapping that's an element of a sequence
+    private boolean isCommentInSequence() {
+        if (collectionCount == 0)
+            return false;
+
+        if (!sequenceStack[collectionCount - 1])
+            return collectionCount > 1 && sequenceStack[collectionCount - 2];
+
+        return true;
+    }
+
+    // Writers
+
+    private void writeComments(String[] comments) throws IOException {
+        if (comments == null || comments.length == 0)
+            return;
+
+        int indentation = Math.max(indent, 0);
+        // By default, always add a newline at the beginning
+        // because the key will also prepend a newline.
+        boolean putNewlineAtStart = true;
+        boolean putNewlineAtEnd = false;
+        int newLineIndent = 0;
+
+        // Only add a newline to the end if nothing has been written on the line yet
+        if (firstComment) {
+            if (column == 0) {
+                putNewlineAtStart = false;
+                putNewlineAtEnd = true;
+            }
+
+            firstComment = false;
+        }
+
+        // Write comments directly next to the "-" character of a sequence
+        // and indent the key on the next line.
+        if (isCommentInSequence()) {
+            putNewlineAtStart = false;
+            putNewlineAtEnd = true;
+            newLineIndent = indentation - 1;
+            indentation = 1;
+        }
+
+        if (putNewlineAtStart)
+            writer.write(bestLineBreak);
+
+        for (int i = 0; i < comments.length; i++) {
+            if (i > 0)
+                writer.write(bestLineBreak);
+
+            String comment = comments[i];
+            writeSpaces(indentation);
+
+            // Prevent comments with newlines from getting written
+            int newLine = comment.indexOf('\n');
+            if (newLine != -1)
+                comment = comment.substring(0, newLine);
+
+            if (!comment.isEmpty()) {
+                if (comment.charAt(0) != '#')
+                    writer.write("# ");
+
+                writer.write(comment);
+            }
+        }
+
+        if (putNewlineAtEnd)
+            writer.write(bestLineBreak);
+
+        writeSpaces(newLineIndent);
+    }
+
+    // Write spaces without tracking them
+    private void writeSpaces(int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            writer.write(' ');
+        }
+    }
+
+    private void writeIndicator(String indicator, boolean needWhitespace, boolean whitespace, boolean indentation) throws IOException {
+        if (!this.whitespace && needWhitespace) {
+            column++;
+            writer.write(SPACE);
+        }
+
+        this.whitespace = whitespace;
+        this.indention = this.indention && indentation;
+        column += indicator.length();
+        writer.write(indicator);
+    }
+
+    private void writeIndent() throws IOException {
+        int indent = Math.max(this.indent, 0);
+        if (!indention || column > indent || (column == indent && !whitespace))
+            writeLineBreak(null);
+
+        writeWhitespace(indent - column);
+    }
+
+    private void writeWhitespace(int length) throws IOException {
+        if (length <= 0)
+            return;
+
+        whitespace = true;
+        column += length;
+        writeSpaces(length);
+    }
+
+    private void writeLineBreak(String data) throws IOException {
+        whitespace = true;
+        indention = true;
+        column = 0;
+        if (data == null) {
+            writer.write(bestLineBreak);
+        }
+        else {
+            writer.write(data);
+        }
+    }
+
+    // Write the line breaks in text[start, end)
+    private void writeLineBreaks(String text, int start, int end) throws IOException {
+        for (int i = start; i < end; i++) {
+            char br = text.charAt(i);
+            writeLineBreak(br == '\n' ? null : String.valueOf(br));
+        }
+    }
+
+    private void writeSingleQuoted(String text, boolean split) throws IOException {
+        writeIndicator("'", true, false, false);
+        boolean spaces = false;
+        boolean breaks = false;
+        int start = 0, end = 0;
+        while (end <= text.length()) {
+            char ch = 0;
+            if (end < text.length())
+                ch = text.charAt(end);
+
+            if (spaces) {
+                if (ch == 0 || ch != ' ') {
+                    if (start + 1 == end && column > bestWidth && split && start != 0 && end != text.length()) {
+                        writeIndent();
+                    }
+                    else {
+                        int len = end - start;
+                        column += len;
+                        writer.write(text, start, len);
+                    }
+                    start = end;
+                }
+            }
+            else if (breaks) {
+                if (ch == 0 || Constant.LINEBR.hasNo(ch)) {
+                    if (text.charAt(start) == '\n')
+                        writeLineBreak(null);
+
+                    writeLineBreaks(text, start, end);
+                    writeIndent();
+                    start = end;
+                }
+            }
+            else if (Constant.LINEBR.has(ch, "\0 '")) {
+                if (start < end) {
+                    int len = end - start;
+                    column += len;
+                    writer.write(text, start, len);
+                    start = end;
+                }
+            }
+
+            if (ch == '\'') {
+                column += 2;
+                writer.write("''");
+                start = end + 1;
+            }
+
+            if (ch != 0) {
+                spaces = ch == ' ';
+                breaks = Constant.LINEBR.has(ch);
+            }
+            end++;
+        }
+        writeIndicator("'", false, false, false);
+    }
+
+    private void writeDoubleQuoted(String text, boolean split) throws IOException {
+        writeIndicator("\"", true, false, false);
+        int start = 0;
+        int end = 0;
+        while (end <= text.length()) {
+            Character ch = null;
+            if (end < text.length())
+                ch = text.charAt(end);
+
+            if (ch == null || "\"\\\u0085\u2028\u2029\uFEFF".indexOf(ch) != -1 || !('\u0020' <= ch && ch <= '\u007E')) {
+                if (start < end) {
+                    int len = end - start;
+                    column += len;
+                    writer.write(text, start, len);
+                    start = end;
+                }
+
+                if (ch != null) {
+                    String data;
+                    if (ESCAPE_REPLACEMENTS.containsKey(ch)) {
+                        data = "\\" + ESCAPE_REPLACEMENTS.get(ch);
+                    }
+                    else if (!allowUnicode || !StreamReader.isPrintable(ch)) {
+                        // The character must be escaped
+                        if (ch <= '\u00FF') {
+                            String s = "0" + Integer.toString(ch, 16);
+                            data = "\\x" + s.substring(s.length() - 2);
+                        }
+                        else if (ch >= '\uD800' && ch <= '\uDBFF') {
+                            if (end + 1 < text.length()) {
+                                char ch2 = text.charAt(++end);
+                                String s = "000" + Long.toHexString(Character.toCodePoint(ch, ch2));
+                                data = "\\U" + s.substring(s.length() - 8);
+                            }
+                            else {
+                                String s = "000" + Integer.toString(ch, 16);
+                                data = "\\u" + s.substring(s.length() - 4);
+                            }
+                        }
+                        else {
+                            String s = "000" + Integer.toString(ch, 16);
+                            data = "\\u" + s.substring(s.length() - 4);
+                        }
+                    }
+                    else {
+                        data = String.valueOf(ch);
+                    }
+
+                    column += data.length();
+                    writer.write(data);
+                    start = end + 1;
+                }
+            }
+
+            if ((0 < end && end < (text.length() - 1)) && (ch == ' ' || start >= end)
+                    && (column + (end - start)) > bestWidth && split) {
+                String data;
+                if (start >= end) {
+                    data = "\\";
+                }
+                else {
+                    data = text.substring(start, end) + "\\";
+                }
+
+                if (start < end)
+                    start = end;
+
+                column += data.length();
+                writer.write(data);
+                writeIndent();
+                whitespace = false;
+                indention = false;
+                if (text.charAt(start) == ' ') {
+                    column++;
+                    writer.write('\\');
+                }
+            }
+            end++;
+        }
+        writeIndicator("\"", false, false, false);
+    }
+
+    private String determineBlockHints(String text) {
+        StringBuilder hints = new StringBuilder();
+        if (Constant.LINEBR.has(text.charAt(0), " "))
+            hints.append(bestIndent);
+
+        char ch1 = text.charAt(text.length() - 1);
+        if (Constant.LINEBR.hasNo(ch1)) {
+            hints.append("-");
+        }
+        else if (text.length() == 1 || Constant.LINEBR.has(text.charAt(text.length() - 2))) {
+            hints.append("+");
+        }
+
+        return hints.toString();
+    }
+
+    private void writeFolded(String text, boolean split) throws IOException {
+        writeIndicator(">" + determineBlockHints(text), true, false, false);
+        writeLineBreak(null);
+        boolean leadingSpace = true;
+        boolean spaces = false;
+        boolean breaks = true;
+        int start = 0, end = 0;
+        while (end <= text.length()) {
+            char ch = 0;
+            if (end < text.length())
+                ch = text.charAt(end);
+
+            if (breaks) {
+                if (ch == 0 || Constant.LINEBR.hasNo(ch)) {
+                    if (!leadingSpace && ch != 0 && ch != ' ' && text.charAt(start) == '\n')
+                        writeLineBreak(null);
+
+                    leadingSpace = ch == ' ';
+                    writeLineBreaks(text, start, end);
+                    if (ch != 0)
+                        writeIndent();
+
+                    start = end;
+                }
+            }
+            else if (spaces) {
+                if (ch != ' ') {
+                    if (start + 1 == end && column > bestWidth && split) {
+                        writeIndent();
+                    }
+                    else {
+                        int len = end - start;
+                        column += len;
+                        writer.write(text, start, len);
+                    }
+                    start = end;
+                }
+            }
+            else if (Constant.LINEBR.has(ch, "\0 ")) {
+                int len = end - start;
+                column += len;
+                writer.write(text, start, len);
+                if (ch == 0)
+                    writeLineBreak(null);
+
+                start = end;
+            }
+
+            if (ch != 0) {
+                breaks = Constant.LINEBR.has(ch);
+                spaces = ch == ' ';
+            }
+            end++;
+        }
+    }
+
+    private void writeLiteral(String text) throws IOException {
+        writeIndicator("|" + determineBlockHints(text), true, false, false);
+        writeLineBreak(null);
+        boolean breaks = true;
+        int start = 0, end = 0;
+        while (end <= text.length()) {
+            char ch = 0;
+            if (end < text.length())
+                ch = text.charAt(end);
+
+            if (breaks) {
+                if (ch == 0 || Constant.LINEBR.hasNo(ch)) {
+                    writeLineBreaks(text, start, end);
+                    if (ch != 0)
+                        writeIndent();
+
+                    start = end;
+                }
+            }
+            else if (ch == 0 || Constant.LINEBR.has(ch)) {
+                writer.write(text, start, end - start);
+                if (ch == 0)
+                    writeLineBreak(null);
+
+                start = end;
+            }
+
+            if (ch != 0)
+                breaks = Constant.LINEBR.has(ch);
+
+            end++;
+        }
+    }
+
+    private void writePlain(String text, boolean split) throws IOException {
+        if (text.isEmpty())
+            return;
+
+        if (!whitespace) {
+            column++;
+            writer.write(SPACE);
+        }
+
+        whitespace = false;
+        indention = false;
+        boolean spaces = false;
+        boolean breaks = false;
+        int start = 0, end = 0;
+        while (end <= text.length()) {
+            char ch = 0;
+            if (end < text.length())
+                ch = text.charAt(end);
+
+            if (spaces) {
+                if (ch != ' ') {
+                    if (start + 1 == end && column > bestWidth && split) {
+                        writeIndent();
+                        whitespace = false;
+                        indention = false;
+                    }
+                    else {
+                        int len = end - start;
+                        column += len;
+                        writer.write(text, start, len);
+                    }
+                    start = end;
+                }
+            }
+            else if (breaks) {
+                if (Constant.LINEBR.hasNo(ch)) {
+                    if (text.charAt(start) == '\n')
+                        writeLineBreak(null);
+
+                    writeLineBreaks(text, start, end);
+                    writeIndent();
+                    whitespace = false;
+                    indention = false;
+                    start = end;
+                }
+            }
+            else if (Constant.LINEBR.has(ch, "\0 ")) {
+                int len = end - start;
+                column += len;
+                writer.write(text, start, len);
+                start = end;
+            }
+
+            if (ch != 0) {
+                spaces = ch == ' ';
+                breaks = Constant.LINEBR.has(ch);
+            }
+            end++;
+        }
+    }
+}
@@ -1,42 +1,93 @@
 package me.Silverwolfg11.CommentConfig.serialization;
 
 import me.Silverwolfg11.CommentConfig.hacks.CommentYAML;
+import me.Silverwolfg11.CommentConfig.hacks.KeyRepresenter;
 import me.Silverwolfg11.CommentConfig.node.CommentKey;
 import me.Silverwolfg11.CommentConfig.node.ConfigNode;
 import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
 import me.Silverwolfg11.CommentConfig.node.ValueConfigNode;
 import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.representer.Represent;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 /**
  * Serialize to serialize the abstract node representation to actual YAML.
+ * <br><br>
+ * A node serializer is thread-safe once it's configured, so a single instance can be shared.
+ * Serializers created through {@link #builder()} can't be changed after they're built.
  */
 public class NodeSerializer {
 
+    private final DumperOptions options;
     private final CommentYAML yaml;
+    private final boolean immutable;
 
     public NodeSerializer() {
-        final DumperOptions options = new DumperOptions();
+        this(false);
+    }
+
+    private NodeSerializer(boolean immutable) {
+        this.options = new DumperOptions();
         options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
         options.setPrettyFlow(true);
         this.yaml = new CommentYAML(options);
+        this.immutable = immutable;
+    }
+
+    /**
+     * Create a builder for an immutable node serializer.
+     *
+     * @return a new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
+    /**
+     * Add a representer to serialize a specific class type.
+     *
+     * @param clazz Class type that the representer handles.
+     * @param representer Representer of the class type.
+     *
+     * @throws IllegalStateException if the serializer was created through a {@link Builder}.
+     */
     public void addSerializer(Class<?> clazz, Represent representer) {
+        if (immutable)
+            throw new IllegalStateException("Can't change a NodeSerializer that was created through a builder!");
+
         yaml.addSerializer(clazz, representer);
     }
 
+    CommentYAML getYaml() {
+        return yaml;
+    }
+
+    DumperOptions getOptions() {
+        return options;
+    }
+
     /**
      * Serialize a config node to a YAML string.
      *
@@ -46,28 +97,98 @@ public class NodeSerializer {
      * @return serialized YAML string.
      */
     public String serializeToString(ConfigNode node) {
+        StringWriter writer = new StringWriter();
+        try {
+            serialize(node, writer);
+        } catch (IOException e) {
+            // A string writer doesn't throw
+            throw new YAMLException(e);
+        }
+
+        return writer.toString();
+    }
+
+    /**
+     * Serialize a config node to a writer.
+     * The header comments are written first, then the YAML is written as it's produced.
+     * The writer is flushed, but not closed.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param node Node to serialize.
+     * @param writer Writer to write the YAML to.
+     *
+     * @throws IOException if there's an error writing to the writer.
+     */
+    public void serialize(ConfigNode node, Writer writer) throws IOException {
         Objects.requireNonNull(node);
+        Objects.requireNonNull(writer);
 
-        Map<CommentKey, Object> commentMap = new LinkedHashMap<>();
-        serializeToCommentMap(node, commentMap);
-        String dump = yaml.dump(commentMap);
+        // Trees without comments don't need the comment hooks, so they're written straight to the writer
+        if (!hasKeyComments(node)) {
+            new NodeEmitter(writer, this).emit(node);
+            return;
+        }
 
         // Handle root comments a.k.a the header
         if (!node.hasKey() && node.hasComments()) {
-            StringBuilder builder = new StringBuilder();
             for (String comment : node.getComments()) {
                 if (!comment.isEmpty())
-                    builder.append("# ").append(comment);
+                    writer.append("# ").append(comment);
 
-                builder.append("\n");
+                writer.append('\n');
             }
+        }
 
-            dump = builder + dump;
+        try {
+            yaml.dumpNode(representer -> toYamlNode(node, representer), writer);
+        } catch (YAMLException e) {
+            // Report write errors the same way as the other serialize methods
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+
+            throw e;
         }
+    }
 
-        return dump;
+    /**
+     * Serialize a config node to an output stream as UTF-8.
+     * The stream is flushed, but not closed.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param node Node to serialize.
+     * @param out Stream to write the YAML to.
+     *
+     * @throws IOException if there's an error writing to the stream.
+     */
+    public void serialize(ConfigNode node, OutputStream out) throws IOException {
+        Objects.requireNonNull(out);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        serialize(node, writer);
+        writer.flush();
     }
 
+    /**
+     * Serialize a config node to a file as UTF-8.
+     * The file is created if it doesn't exist, and replaced if it does.
+     * <br><br>
+     * <b>None of the arguments can be {@code null}.</b>
+     *
+     * @param node Node to serialize.
+     * @param path Path of the file to write to.
+     *
+     * @throws IOException if there's an error writing to the file.
+     */
+    public void serialize(ConfigNode node, Path path) throws IOException {
+        Objects.requireNonNull(node);
+        Objects.requireNonNull(path);
+
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            serialize(node, writer);
+        }
+    }
 
     /**
      * Serialize a config node to a file.
@@ -87,10 +208,84 @@ public class NodeSerializer {
             throw new FileNotFoundException("File does not exist!");
         }
 
-        String producedYAML = serializeToString(node);
+        serialize(node, file.toPath());
+    }
+
+    // Turn a config node tree straight into the node graph that the comment map of the tree is represented as
+    private static Node toYamlNode(ConfigNode node, KeyRepresenter representer) {
+        List<Object> values = new ArrayList<>();
+        collectValues(node, values);
+        Iterator<Node> valueNodes = representer.representValues(values).iterator();
 
-        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
-            writer.write(producedYAML);
+        List<NodeTuple> rootTuples = new ArrayList<>();
+        addNodeTuples(node, rootTuples, valueNodes, representer);
+        return new MappingNode(Tag.MAP, rootTuples, representer.getDefaultFlowStyle());
+    }
+
+    private static void addNodeTuples(ConfigNode node, List<NodeTuple> parentTuples,
+                                      Iterator<Node> valueNodes, KeyRepresenter representer) {
+        Node nodeVal = null;
+
+        if (node instanceof ParentConfigNode) {
+            // May be a root node
+            ParentConfigNode parentNode = (ParentConfigNode) node;
+            if (parentNode.hasChildren()) {
+                List<NodeTuple> levelTuples = node.hasKey() ? new ArrayList<>() : parentTuples;
+                for (ConfigNode child : parentNode.getChildren()) {
+                    addNodeTuples(child, levelTuples, valueNodes, representer);
+                }
+
+                if (node.hasKey())
+                    nodeVal = new MappingNode(Tag.MAP, levelTuples, representer.getDefaultFlowStyle());
+            }
+        }
+        else if (node instanceof ValueConfigNode && node.hasKey() && ((ValueConfigNode) node).getValue() != null) {
+            // Values were represented in the same order by collectValues
+            nodeVal = valueNodes.next();
+        }
+
+        if (nodeVal != null && node.hasKey()) {
+            parentTuples.add(new NodeTuple(representer.representKey(node.getKey(), node.getComments()), nodeVal));
+        }
+    }
+
+    // Check if any node that is written with a key has comments
+    static boolean hasKeyComments(ConfigNode node) {
+        if (node.hasKey() && node.hasComments())
+            return true;
+
+        if (node instanceof ParentConfigNode) {
+            ParentConfigNode parentNode = (ParentConfigNode) node;
+            if (parentNode.hasChildren()) {
+                for (ConfigNode child : parentNode.getChildren()) {
+                    if (hasKeyComments(child))
+                        return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Collect the values of the value nodes that are serialized, in the order they're serialized.
+     *
+     * @param node Node to collect the values of.
+     * @param values List to add the values to.
+     */
+    static void collectValues(ConfigNode node, List<Object> values) {
+        if (node instanceof ParentConfigNode) {
+            ParentConfigNode parentNode = (ParentConfigNode) node;
+            if (parentNode.hasChildren()) {
+                for (ConfigNode child : parentNode.getChildren()) {
+                    collectValues(child, values);
+                }
+            }
+        }
+        else if (node instanceof ValueConfigNode && node.hasKey()) {
+            Object value = ((ValueConfigNode) node).getValue();
+            if (value != null)
+                values.add(value);
         }
     }
 
@@ -127,4 +322,43 @@ public class NodeSerializer {
         }
     }
 
+    /**
+     * A builder for node serializers that can't be changed after they're built.
+     */
+    public static final class Builder {
+
+        private final Map<Class<?>, Represent> serializers = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a representer to serialize a specific class type.
+         * See {@link NodeSerializer#addSerializer(Class, Represent)}.
+         *
+         * @param clazz Class type that the representer handles.
+         * @param representer Representer of the class type.
+         *
+         * @return this builder.
+         */
+        public Builder addSerializer(Class<?> clazz, Represent representer) {
+            serializers.put(Objects.requireNonNull(clazz), Objects.requireNonNull(representer));
+            return this;
+        }
+
+        /**
+         * Build an immutable node serializer.
+         *
+         * @return the node serializer.
+         */
+        public NodeSerializer build() {
+            NodeSerializer serializer = new NodeSerializer(true);
+            for (Map.Entry<Class<?>, Represent> entry : serializers.entrySet()) {
+                serializer.yaml.addSerializer(entry.getKey(), entry.getValue());
+            }
+
+            return serializer;
+        }
+    }
+
 }
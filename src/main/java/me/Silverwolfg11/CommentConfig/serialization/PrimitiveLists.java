@@ -0,0 +1,250 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lists of numbers that store their elements in a primitive array instead of boxing each element.
+ * <br><br>
+ * The lists are mutable, can grow and behave like any other list of boxed numbers,
+ * except that they cannot hold {@code null} elements.
+ */
+final class PrimitiveLists {
+
+    // Private constructor since it's a utility class
+    private PrimitiveLists() {
+    }
+
+    /**
+     * Check if there's a primitive-backed list for an element type.
+     *
+     * @param elementClass Element type of the list.
+     *
+     * @return if a primitive-backed list can be created for the element type.
+     */
+    static boolean isSupported(Class<?> elementClass) {
+        return elementClass == Integer.class || elementClass == Long.class || elementClass == Double.class;
+    }
+
+    /**
+     * Copy deserialized numbers into a primitive-backed list.
+     * Integers are widened for {@code Long} and {@code Double} lists, just like they would be for primitive fields.
+     *
+     * @param elementClass Element type of the list. Must be {@link #isSupported(Class) supported}.
+     * @param values Deserialized values.
+     *
+     * @return the primitive-backed list or {@code null} if a value can't be stored in the list.
+     */
+    static List<?> copyOf(Class<?> elementClass, List<?> values) {
+        int size = values.size();
+        if (elementClass == Integer.class) {
+            int[] elements = new int[size];
+            for (int i = 0; i < size; i++) {
+                Object value = values.get(i);
+                if (!(value instanceof Integer))
+                    return null;
+
+                elements[i] = (Integer) value;
+            }
+
+            return new IntList(elements);
+        }
+        else if (elementClass == Long.class) {
+            long[] elements = new long[size];
+            for (int i = 0; i < size; i++) {
+                Object value = values.get(i);
+                if (!(value instanceof Long || value instanceof Integer))
+                    return null;
+
+                elements[i] = ((Number) value).longValue();
+            }
+
+            return new LongList(elements);
+        }
+        else {
+            double[] elements = new double[size];
+            for (int i = 0; i < size; i++) {
+                Object value = values.get(i);
+                if (!(value instanceof Double || value instanceof Integer || value instanceof Long))
+                    return null;
+
+                elements[i] = ((Number) value).doubleValue();
+            }
+
+            return new DoubleList(elements);
+        }
+    }
+
+    // New capacity of a full backing array that needs room for one more element
+    private static int grow(int capacity) {
+        return Math.max(capacity + (capacity >> 1), capacity + 1);
+    }
+
+    private static final class IntList extends AbstractList<Integer> implements RandomAccess {
+        private int[] elements;
+        private int size;
+
+        private IntList(int[] elements) {
+            this.elements = elements;
+            this.size = elements.length;
+        }
+
+        @Override
+        public Integer get(int index) {
+            checkIndex(index, size);
+            return elements[index];
+        }
+
+        @Override
+        public Integer set(int index, Integer element) {
+            checkIndex(index, size);
+            int previous = elements[index];
+            elements[index] = element;
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Integer element) {
+            checkPosition(index, size);
+            int value = element;
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, grow(size));
+
+            System.arraycopy(elements, index, elements, index + 1, size - index);
+            elements[index] = value;
+            size++;
+            modCount++;
+        }
+
+        @Override
+        public Integer remove(int index) {
+            checkIndex(index, size);
+            int previous = elements[index];
+            System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+            size--;
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class LongList extends AbstractList<Long> implements RandomAccess {
+        private long[] elements;
+        private int size;
+
+        private LongList(long[] elements) {
+            this.elements = elements;
+            this.size = elements.length;
+        }
+
+        @Override
+        public Long get(int index) {
+            checkIndex(index, size);
+            return elements[index];
+        }
+
+        @Override
+        public Long set(int index, Long element) {
+            checkIndex(index, size);
+            long previous = elements[index];
+            elements[index] = element;
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Long element) {
+            checkPosition(index, size);
+            long value = element;
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, grow(size));
+
+            System.arraycopy(elements, index, elements, index + 1, size - index);
+            elements[index] = value;
+            size++;
+            modCount++;
+        }
+
+        @Override
+        public Long remove(int index) {
+            checkIndex(index, size);
+            long previous = elements[index];
+            System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+            size--;
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class DoubleList extends AbstractList<Double> implements RandomAccess {
+        private double[] elements;
+        private int size;
+
+        private DoubleList(double[] elements) {
+            this.elements = elements;
+            this.size = elements.length;
+        }
+
+        @Override
+        public Double get(int index) {
+            checkIndex(index, size);
+            return elements[index];
+        }
+
+        @Override
+        public Double set(int index, Double element) {
+            checkIndex(index, size);
+            double previous = elements[index];
+            elements[index] = element;
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Double element) {
+            checkPosition(index, size);
+            double value = element;
+            if (size == elements.length)
+                elements = Arrays.copyOf(elements, grow(size));
+
+            System.arraycopy(elements, index, elements, index + 1, size - index);
+            elements[index] = value;
+            size++;
+            modCount++;
+        }
+
+        @Override
+        public Double remove(int index) {
+            checkIndex(index, size);
+            double previous = elements[index];
+            System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+            size--;
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private static void checkPosition(int index, int size) {
+        if (index < 0 || index > size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
@@ -0,0 +1,192 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A pre-resolved generic type that a serialized YAML object is converted to.
+ * <br><br>
+ * The raw class, the generic element / key / value types and how
+ * the serialized object should be converted are resolved once
+ * so that deserialization does not have to inspect the generic type again.
+ */
+final class TypeDescriptor {
+
+    /**
+     * How a serialized object is converted to the described type.
+     */
+    enum Kind {
+        // The type could not be resolved to a class, so the serialized object is used as is.
+        UNKNOWN,
+        ARRAY,
+        ENUM,
+        COLLECTION,
+        MAP,
+        SERIALIZABLE,
+        // A lazy value of the element type
+        LAZY,
+        OTHER
+    }
+
+    private static final TypeDescriptor UNKNOWN_TYPE = new TypeDescriptor(null, null, Kind.UNKNOWN);
+
+    private final Type type;
+    private final Class<?> rawClass;
+    private final Kind kind;
+
+    // Array component type or collection element type
+    private TypeDescriptor elementType;
+    // Map key and value types
+    private TypeDescriptor keyType;
+    private TypeDescriptor valueType;
+
+    // If the elements or entries of a collection or map have to be converted
+    private boolean convertContents;
+    // If the type is an inner member class that needs the enclosing instance to be constructed
+    private boolean innerMemberClass;
+
+    private TypeDescriptor(Type type, Class<?> rawClass, Kind kind) {
+        this.type = type;
+        this.rawClass = rawClass;
+        this.kind = kind;
+    }
+
+    /**
+     * Resolve a generic type to a type descriptor.
+     *
+     * @param type Type to resolve.
+     *
+     * @return the resolved type descriptor.
+     */
+    static TypeDescriptor of(Type type) {
+        Class<?> rawClass = getClassFromType(type);
+
+        if (rawClass == null)
+            return UNKNOWN_TYPE;
+
+        TypeDescriptor descriptor;
+        if (rawClass.isArray()) {
+            descriptor = new TypeDescriptor(type, rawClass, Kind.ARRAY);
+            descriptor.elementType = of(rawClass.getComponentType());
+        }
+        else if (rawClass.isEnum()) {
+            descriptor = new TypeDescriptor(type, rawClass, Kind.ENUM);
+        }
+        else if (Collection.class.isAssignableFrom(rawClass)) {
+            descriptor = new TypeDescriptor(type, rawClass, Kind.COLLECTION);
+            Type[] typeParameters = getParameterizedTypes(type);
+            if (typeParameters != null && typeParameters.length == 1) {
+                descriptor.elementType = of(typeParameters[0]);
+                descriptor.convertContents = isSpeciallyDeserialized(descriptor.elementType.rawClass);
+            }
+        }
+        else if (Map.class.isAssignableFrom(rawClass)) {
+            descriptor = new TypeDescriptor(type, rawClass, Kind.MAP);
+            Type[] typeParameters = getParameterizedTypes(type);
+            if (typeParameters != null && typeParameters.length == 2) {
+                descriptor.keyType = of(typeParameters[0]);
+                descriptor.valueType = of(typeParameters[1]);
+
+                // Maps with plain string keys only need to be converted if their values do.
+                Class<?> keyClass = descriptor.keyType.rawClass;
+                descriptor.convertContents = keyClass != String.class
+                        || isSpeciallyDeserialized(descriptor.valueType.rawClass);
+            }
+        }
+        else if (rawClass == Lazy.class) {
+            descriptor = new TypeDescriptor(type, rawClass, Kind.LAZY);
+            Type[] typeParameters = getParameterizedTypes(type);
+            descriptor.elementType = typeParameters != null ? of(typeParameters[0]) : UNKNOWN_TYPE;
+        }
+        else if (rawClass.isAnnotationPresent(SerializableConfig.class)) {
+            descriptor = new TypeDescriptor(type, rawClass, Kind.SERIALIZABLE);
+            descriptor.innerMemberClass = rawClass.isMemberClass() && !Modifier.isStatic(rawClass.getModifiers());
+        }
+        else {
+            descriptor = new TypeDescriptor(type, rawClass, Kind.OTHER);
+        }
+
+        return descriptor;
+    }
+
+    private static Class<?> getClassFromType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        else if (type instanceof ParameterizedType) {
+            ParameterizedType pType = (ParameterizedType) type;
+            return getClassFromType(pType.getRawType());
+        }
+
+        return null;
+    }
+
+    private static Type[] getParameterizedTypes(Type objectType) {
+        if (!(objectType instanceof ParameterizedType)) {
+            return null;
+        }
+
+        return ((ParameterizedType) objectType).getActualTypeArguments();
+    }
+
+    private static boolean isSpeciallyDeserialized(Class<?> clazz) {
+        if (clazz == null)
+            return false;
+
+        return clazz.isAnnotationPresent(SerializableConfig.class) ||
+                clazz.isEnum() ||
+                clazz == Lazy.class ||
+                Map.class.isAssignableFrom(clazz) ||
+                Collection.class.isAssignableFrom(clazz) ||
+                clazz.isArray();
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    Class<?> getRawClass() {
+        return rawClass;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the array component type, collection element type or lazy value type.
+     *
+     * @return the element type or {@code null} if it could not be resolved.
+     */
+    TypeDescriptor getElementType() {
+        return elementType;
+    }
+
+    TypeDescriptor getKeyType() {
+        return keyType;
+    }
+
+    TypeDescriptor getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Check if the elements of a collection or the entries of a map
+     * need to be converted. If not, the serialized collection or map
+     * can be used as is.
+     *
+     * @return if the contents need to be converted.
+     */
+    boolean shouldConvertContents() {
+        return convertContents;
+    }
+
+    boolean isInnerMemberClass() {
+        return innerMemberClass;
+    }
+}
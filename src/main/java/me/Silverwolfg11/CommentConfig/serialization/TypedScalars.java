@@ -0,0 +1,225 @@
+package me.Silverwolfg11.CommentConfig.serialization;
+
+/**
+ * Converts YAML scalars straight to the type they are deserialized to,
+ * without running them through SnakeYAML's implicit resolvers.
+ * <br><br>
+ * Numbers and booleans are only converted from their common plain forms.
+ * Any other form (hex, octal, underscores, sexagesimal, etc.) is left to SnakeYAML,
+ * so that those values are still constructed the same way.
+ */
+final class TypedScalars {
+
+    /**
+     * Returned if a scalar cannot be converted to a type directly.
+     */
+    static final Object UNHANDLED = new Object();
+
+    // Private constructor since it's a utility class
+    private TypedScalars() {
+    }
+
+    /**
+     * Check if scalars can be converted to a type directly.
+     *
+     * @param clazz Type to check.
+     *
+     * @return if scalars can be converted to the type.
+     */
+    static boolean isTyped(Class<?> clazz) {
+        return clazz == String.class || (clazz != null && clazz.isEnum())
+                || clazz == int.class || clazz == Integer.class
+                || clazz == long.class || clazz == Long.class
+                || clazz == double.class || clazz == Double.class
+                || clazz == boolean.class || clazz == Boolean.class;
+    }
+
+    /**
+     * Convert a scalar to a type.
+     * Enum constants are converted to their name, which the field deserializer then looks up.
+     *
+     * @param clazz Type to convert to. Must be {@link #isTyped(Class) typed}.
+     * @param value Value of the scalar.
+     * @param plain If the scalar is a plain scalar.
+     *
+     * @return the converted value, {@code null} if the scalar is a YAML null or {@link #UNHANDLED}.
+     */
+    static Object convert(Class<?> clazz, String value, boolean plain) {
+        if (!plain) {
+            // Quoted scalars are always strings
+            return clazz == String.class || clazz.isEnum() ? value : UNHANDLED;
+        }
+
+        if (isNull(value))
+            return null;
+
+        if (clazz == String.class || clazz.isEnum())
+            return value;
+
+        if (clazz == int.class || clazz == Integer.class) {
+            if (!isInt(value))
+                return UNHANDLED;
+
+            return Integer.parseInt(value);
+        }
+
+        if (clazz == long.class || clazz == Long.class) {
+            if (!isLong(value))
+                return UNHANDLED;
+
+            return Long.parseLong(value);
+        }
+
+        if (clazz == double.class || clazz == Double.class) {
+            if (!isDouble(value))
+                return UNHANDLED;
+
+            return parseDouble(value);
+        }
+
+        return toBoolean(value);
+    }
+
+    // The checks and parsers below let primitive fields be set from a plain scalar without boxing the value.
+    // A value that doesn't pass its check must be converted through convert(Class, String, boolean).
+
+    static boolean isInt(String value) {
+        return isDecimal(value, 9);
+    }
+
+    static boolean isLong(String value) {
+        return isDecimal(value, 18);
+    }
+
+    static boolean isDouble(String value) {
+        return isDecimal(value, 18) || isFloat(value);
+    }
+
+    static double parseDouble(String value) {
+        // Integers are widened like SnakeYAML's integers would be
+        if (isDecimal(value, 18))
+            return (double) Long.parseLong(value);
+
+        return Double.parseDouble(value);
+    }
+
+    static boolean isBoolean(String value) {
+        return toBoolean(value) != UNHANDLED;
+    }
+
+    static boolean parseBoolean(String value) {
+        return toBoolean(value) == Boolean.TRUE;
+    }
+
+    // Same as the null and empty patterns of SnakeYAML's resolver
+    private static boolean isNull(String value) {
+        switch (value) {
+            case "":
+            case " ":
+            case "~":
+            case "null":
+            case "Null":
+            case "NULL":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static Object toBoolean(String value) {
+        switch (value) {
+            case "yes":
+            case "Yes":
+            case "YES":
+            case "true":
+            case "True":
+            case "TRUE":
+            case "on":
+            case "On":
+            case "ON":
+                return Boolean.TRUE;
+            case "no":
+            case "No":
+            case "NO":
+            case "false":
+            case "False":
+            case "FALSE":
+            case "off":
+            case "Off":
+            case "OFF":
+                return Boolean.FALSE;
+            default:
+                return UNHANDLED;
+        }
+    }
+
+    // [-+]?(0|[1-9][0-9]*) with at most maxDigits digits, so that the value can't overflow
+    private static boolean isDecimal(String value, int maxDigits) {
+        int start = 0;
+        if (!value.isEmpty() && (value.charAt(0) == '-' || value.charAt(0) == '+'))
+            start = 1;
+
+        int digits = value.length() - start;
+        if (digits == 0 || digits > maxDigits)
+            return false;
+
+        // Leading zeros are octal numbers
+        if (value.charAt(start) == '0')
+            return digits == 1;
+
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+        }
+
+        return true;
+    }
+
+    // [-+]?(\.[0-9]+|[0-9]+(\.[0-9]*)?)([eE][-+]?[0-9]+)?
+    private static boolean isFloat(String value) {
+        int i = 0;
+        int length = value.length();
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+            i++;
+
+        int integerDigits = 0;
+        while (i < length && isDigit(value.charAt(i))) {
+            i++;
+            integerDigits++;
+        }
+
+        int fractionDigits = 0;
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(value.charAt(i))) {
+                i++;
+                fractionDigits++;
+            }
+        }
+
+        if (integerDigits == 0 && fractionDigits == 0)
+            return false;
+
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+'))
+                i++;
+
+            int exponentDigits = 0;
+            while (i < length && isDigit(value.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+
+            if (exponentDigits == 0)
+                return false;
+        }
+
+        return i == length;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
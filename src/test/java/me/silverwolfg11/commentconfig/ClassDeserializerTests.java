@@ -1,15 +1,22 @@
 package me.silverwolfg11.commentconfig;
 
+import me.Silverwolfg11.CommentConfig.annotations.Alias;
 import me.Silverwolfg11.CommentConfig.annotations.Comment;
 import me.Silverwolfg11.CommentConfig.annotations.Node;
 import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
 import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import me.Silverwolfg11.CommentConfig.serialization.FieldChanges;
+import me.Silverwolfg11.CommentConfig.serialization.Lazy;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 
 /**
@@ -23,8 +30,12 @@ public class ClassDeserializerTests extends ConfigTesting {
         super("classdeserializertests");
     }
 
-    private <T> T deserializeClassFromFile(String resourceName, Class<T> clazz) {
-        ClassDeserializer deserializer = new ClassDeserializer();
+    protected ClassDeserializer createDeserializer() {
+        return new ClassDeserializer();
+    }
+
+    protected <T> T deserializeClassFromFile(String resourceName, Class<T> clazz) {
+        ClassDeserializer deserializer = createDeserializer();
         File generatedFile = getResourceFile(resourceName);
         return Assertions.assertDoesNotThrow(
                 () -> deserializer.deserializeClass(generatedFile, clazz)
@@ -231,4 +242,384 @@ public class ClassDeserializerTests extends ConfigTesting {
         Assertions.assertFalse(cc.options.option2);
     }
 
+    @SerializableConfig
+    protected static class NodePathClass {
+        private enum TestEnum {
+            TEST1,
+            TEST2
+        }
+
+        @Node({"level1", "level2", "key"})
+        private String nested;
+
+        @Node({"level1", "other"})
+        private int other;
+
+        @Node({"level1", "missing", "key"})
+        private String missing = "default";
+
+        private Map<TestEnum, Integer> enumMap;
+    }
+
+    // Test deserializing nested node paths multiple times with the same class layout.
+    @Test
+    protected void nodePathDeserialization() {
+        for (int i = 0; i < 2; i++) {
+            NodePathClass npc = deserializeClassFromFile("nodepathclass_deserialization.yml", NodePathClass.class);
+
+            Assertions.assertEquals(npc.nested, "value");
+            Assertions.assertEquals(npc.other, 5);
+            Assertions.assertEquals(npc.missing, "default");
+
+            Assertions.assertEquals(npc.enumMap.size(), 2);
+            Assertions.assertEquals(npc.enumMap.get(NodePathClass.TestEnum.TEST1), 1);
+            Assertions.assertEquals(npc.enumMap.get(NodePathClass.TestEnum.TEST2), 2);
+        }
+    }
+
+    @SerializableConfig
+    protected static class PrimitiveClass {
+        private int intValue;
+        private long longValue;
+        private long widenedLong;
+        private double doubleValue;
+        private double widenedDouble;
+        private boolean boolValue;
+        // Not a compile-time constant so reads aren't inlined
+        private final String finalValue = String.valueOf("unset");
+    }
+
+    // Test deserializing primitive and final fields.
+    @Test
+    protected void primitiveDeserialization() {
+        PrimitiveClass pc = deserializeClassFromFile("primitiveclass_deserialization.yml", PrimitiveClass.class);
+
+        Assertions.assertEquals(pc.intValue, 42);
+        Assertions.assertEquals(pc.longValue, 12345678901L);
+        Assertions.assertEquals(pc.widenedLong, 7L);
+        Assertions.assertEquals(pc.doubleValue, 0.25);
+        Assertions.assertEquals(pc.widenedDouble, 3.0);
+        Assertions.assertTrue(pc.boolValue);
+        Assertions.assertEquals(pc.finalValue, "set");
+    }
+
+    @SerializableConfig
+    protected static class LazyClass {
+        @SerializableConfig
+        protected static class Settings {
+            protected int maxPlayers;
+            protected boolean pvp;
+        }
+
+        protected String name;
+        protected Lazy<Settings> settings;
+        protected Lazy<Map<String, Integer>> limits;
+        protected Lazy<List<String>> worlds;
+        protected Lazy<String> missing = Lazy.of("default");
+    }
+
+    // Test deserializing lazy fields.
+    @Test
+    protected void lazyDeserialization() {
+        LazyClass lc = deserializeClassFromFile("lazyclass_deserialization.yml", LazyClass.class);
+
+        Assertions.assertEquals(lc.name, "lazy");
+        Assertions.assertEquals(lc.settings.get().maxPlayers, 20);
+        Assertions.assertTrue(lc.settings.get().pvp);
+        Assertions.assertEquals(lc.limits.get().get("homes"), 3);
+        Assertions.assertEquals(lc.limits.get().get("warps"), 5);
+        Assertions.assertEquals(lc.worlds.get(), Arrays.asList("world", "world_nether"));
+        Assertions.assertEquals(lc.missing.get(), "default");
+    }
+
+    // Test reading a few node paths from a file.
+    @Test
+    protected void readPathsFromFile() {
+        ClassDeserializer deserializer = createDeserializer();
+        File file = getResourceFile("nodepathclass_deserialization.yml");
+        Map<String, Object> values = Assertions.assertDoesNotThrow(
+                () -> deserializer.readPaths(file, "level1.level2.key", "enumMap", "level1.missing")
+        );
+
+        Assertions.assertEquals(values.size(), 2);
+        Assertions.assertEquals(values.get("level1.level2.key"), "value");
+        Assertions.assertEquals(((Map<?, ?>) values.get("enumMap")).get("TEST2"), 2);
+    }
+
+    // Test that reading node paths stops once all paths are found.
+    @Test
+    protected void readPathsStopsEarly() {
+        String yaml = "defaults: &defaults\n"
+                + "  size: 10\n"
+                + "database:\n"
+                + "  pool:\n"
+                + "    <<: *defaults\n"
+                + "    timeout: 30\n"
+                + "  host: localhost\n"
+                + "broken: [this is never parsed\n";
+
+        Map<String, Object> values = Assertions.assertDoesNotThrow(
+                () -> createDeserializer().readPaths(yaml, "database.pool.size", "database.pool.timeout", "database.host")
+        );
+
+        Assertions.assertEquals(values.get("database.pool.size"), 10);
+        Assertions.assertEquals(values.get("database.pool.timeout"), 30);
+        Assertions.assertEquals(values.get("database.host"), "localhost");
+    }
+
+    protected interface Shape {
+    }
+
+    protected static class Circle implements Shape {
+        private final double radius;
+
+        protected Circle(double radius) {
+            this.radius = radius;
+        }
+    }
+
+    @SerializableConfig
+    protected static class CustomClass {
+        private Circle circle;
+        private List<Circle> circles;
+        private Map<String, Circle> circlesByName;
+    }
+
+    // Test that custom deserializers are looked up by supertype for fields, elements and map values.
+    @Test
+    protected void customDeserialization() {
+        ClassDeserializer deserializer = createDeserializer();
+        deserializer.addDeserializer(Shape.class, o -> new Circle(((Number) o).doubleValue()));
+
+        File file = getResourceFile("customclass_deserialization.yml");
+        CustomClass cc = Assertions.assertDoesNotThrow(() -> deserializer.deserializeClass(file, CustomClass.class));
+
+        Assertions.assertEquals(cc.circle.radius, 2.0);
+        Assertions.assertEquals(cc.circles.size(), 2);
+        Assertions.assertEquals(cc.circles.get(1).radius, 3.0);
+        Assertions.assertEquals(cc.circlesByName.get("a").radius, 4.0);
+    }
+
+    @SerializableConfig
+    protected static class AliasEnumClass {
+        private enum Color {
+            RED,
+            @Alias({"lime", "verde"})
+            GREEN,
+            BLUE
+        }
+
+        private List<Color> colors;
+        private Map<Color, Integer> weights;
+        private Color caseless;
+    }
+
+    // Test deserializing enums by alias and regardless of case, both as values and as map keys.
+    @Test
+    protected void aliasEnumDeserialization() {
+        ClassDeserializer deserializer = createDeserializer();
+        deserializer.setCaseInsensitiveEnums(true);
+
+        File file = getResourceFile("aliasenumclass_deserialization.yml");
+        AliasEnumClass aec = Assertions.assertDoesNotThrow(() -> deserializer.deserializeClass(file, AliasEnumClass.class));
+
+        Assertions.assertEquals(aec.colors, Arrays.asList(AliasEnumClass.Color.RED, AliasEnumClass.Color.GREEN, AliasEnumClass.Color.GREEN));
+        Assertions.assertEquals(aec.weights.size(), 2);
+        Assertions.assertEquals(aec.weights.get(AliasEnumClass.Color.GREEN), 1);
+        Assertions.assertEquals(aec.weights.get(AliasEnumClass.Color.BLUE), 2);
+        Assertions.assertEquals(aec.caseless, AliasEnumClass.Color.BLUE);
+    }
+
+    @SerializableConfig
+    protected static class AliasCollisionClass {
+        private enum Shade {
+            BLUE,
+            @Alias({"blue", "navy"})
+            AZURE,
+            @Alias("Navy")
+            COBALT
+        }
+
+        private List<Shade> shades;
+    }
+
+    // Test that names win over aliases that only differ in case, and earlier aliases win over later ones.
+    @Test
+    protected void aliasCollisionEnumDeserialization() {
+        ClassDeserializer deserializer = createDeserializer();
+        deserializer.setCaseInsensitiveEnums(true);
+
+        String yaml = "shades:\n- bLUE\n- blue\n- NAVY\n- Navy\n";
+        AliasCollisionClass acc = deserializer.deserializeClass(yaml, AliasCollisionClass.class);
+
+        Assertions.assertEquals(acc.shades, Arrays.asList(AliasCollisionClass.Shade.BLUE, AliasCollisionClass.Shade.AZURE,
+                AliasCollisionClass.Shade.AZURE, AliasCollisionClass.Shade.COBALT));
+    }
+
+    @SerializableConfig
+    protected static class InnerMemberClass {
+        @SerializableConfig
+        protected class Entry {
+            private String name;
+        }
+
+        private Entry first;
+        private Entry second;
+    }
+
+    // Test deserializing inner member classes, which are constructed with the enclosing instance.
+    @Test
+    protected void innerMemberDeserialization() {
+        InnerMemberClass imc = deserializeClassFromFile("innermemberclass_deserialization.yml", InnerMemberClass.class);
+
+        Assertions.assertEquals(imc.first.name, "one");
+        Assertions.assertEquals(imc.second.name, "two");
+    }
+
+    @SerializableConfig
+    protected static class ErrorConstructorClass {
+        private String name;
+
+        protected ErrorConstructorClass() {
+            throw new AssertionError("Constructor error");
+        }
+    }
+
+    // Test that errors thrown by a constructor are not wrapped like exceptions.
+    @Test
+    protected void constructorErrorDeserialization() {
+        ClassDeserializer deserializer = createDeserializer();
+        AssertionError error = Assertions.assertThrows(AssertionError.class,
+                () -> deserializer.deserializeClass("name: value", ErrorConstructorClass.class));
+        Assertions.assertEquals(error.getMessage(), "Constructor error");
+    }
+
+    @SerializableConfig
+    protected static class PrimitiveArrayClass {
+        private int[] ints;
+        private long[] longs;
+        private double[] doubles;
+        private float[] floats;
+        private boolean[] booleans;
+        private byte[] bytes;
+        private String[] strings;
+    }
+
+    // Test deserializing arrays of primitives and strings.
+    @Test
+    protected void primitiveArrayDeserialization() {
+        PrimitiveArrayClass pac = deserializeClassFromFile("primitivearrayclass_deserialization.yml", PrimitiveArrayClass.class);
+
+        Assertions.assertArrayEquals(pac.ints, new int[] { 1, -2, 3 });
+        Assertions.assertArrayEquals(pac.longs, new long[] { 1, 10000000000L });
+        Assertions.assertArrayEquals(pac.doubles, new double[] { 1.5, 2 });
+        Assertions.assertArrayEquals(pac.floats, new float[] { 0.25f, 4 });
+        Assertions.assertArrayEquals(pac.booleans, new boolean[] { true, false });
+        Assertions.assertArrayEquals(pac.bytes, new byte[] { 127, -128 });
+        Assertions.assertArrayEquals(pac.strings, new String[] { "a", "b" });
+    }
+
+    @SerializableConfig
+    protected static class NumberListClass {
+        private List<Integer> ints;
+        private List<Long> longs;
+        private List<Double> doubles;
+        private List<Integer> mixed;
+    }
+
+    // Test deserializing lists of numbers to primitive-backed lists.
+    @Test
+    protected void primitiveListDeserialization() {
+        ClassDeserializer deserializer = createDeserializer();
+        deserializer.setPrimitiveListMode(true);
+
+        File file = getResourceFile("numberlistclass_deserialization.yml");
+        NumberListClass nlc = Assertions.assertDoesNotThrow(() -> deserializer.deserializeClass(file, NumberListClass.class));
+
+        Assertions.assertEquals(nlc.ints, Arrays.asList(1, 2, 3));
+        Assertions.assertEquals(nlc.longs, Arrays.asList(1L, 10000000000L));
+        Assertions.assertEquals(nlc.doubles, Arrays.asList(1.5, 2.0));
+        Assertions.assertEquals(nlc.mixed, Arrays.asList(1, null));
+
+        nlc.ints.add(4);
+        nlc.ints.remove(0);
+        Assertions.assertEquals(nlc.ints, Arrays.asList(2, 3, 4));
+    }
+
+    @SerializableConfig
+    protected static class ReloadClass {
+        @SerializableConfig
+        protected static class Database {
+            private String host;
+            private int port;
+            private double timeout;
+        }
+
+        private String name;
+        private List<String> worlds;
+        private Map<String, Integer> limits;
+        private Database database;
+    }
+
+    // Test deserializing into an existing instance, which is updated in place.
+    @Test
+    protected void deserializeIntoExisting() {
+        ClassDeserializer deserializer = createDeserializer();
+        File file = getResourceFile("reloadclass_deserialization.yml");
+        ReloadClass rc = Assertions.assertDoesNotThrow(() -> deserializer.deserializeClass(file, ReloadClass.class));
+
+        ReloadClass.Database database = rc.database;
+        List<String> worlds = rc.worlds;
+        Map<String, Integer> limits = rc.limits;
+
+        // Nothing changed
+        FieldChanges unchanged = Assertions.assertDoesNotThrow(() -> deserializer.deserializeInto(file, rc));
+        Assertions.assertTrue(unchanged.isEmpty(), unchanged::toString);
+
+        String yaml = "name: test\n" +
+                "worlds:\n- world\n- nether\n- end\n" +
+                "limits:\n  a: 1\n  b: 2\n" +
+                "database:\n  host: localhost\n  port: 3307\n  timeout: 5\n";
+        FieldChanges changes = deserializer.deserializeInto(yaml, rc);
+
+        Assertions.assertEquals(changes.getChangedFields(), new HashSet<>(Arrays.asList("worlds", "database.port")));
+        Assertions.assertTrue(changes.hasChanged("database"));
+        Assertions.assertFalse(changes.hasChanged("limits"));
+
+        Assertions.assertSame(rc.database, database);
+        Assertions.assertSame(rc.worlds, worlds);
+        Assertions.assertSame(rc.limits, limits);
+        Assertions.assertEquals(rc.worlds, Arrays.asList("world", "nether", "end"));
+        Assertions.assertEquals(rc.database.port, 3307);
+        Assertions.assertEquals(rc.database.timeout, 5.0);
+    }
+
+    @SerializableConfig
+    protected static class RefillClass {
+        private List<String> fixed = Arrays.asList("a", "b");
+        private Map<String, Integer> sorted = new TreeMap<>(Collections.singletonMap("a", 1));
+    }
+
+    // Test that collections that can't take the new contents are replaced without being changed.
+    @Test
+    protected void deserializeIntoRestrictedCollections() {
+        ClassDeserializer deserializer = createDeserializer();
+        RefillClass rc = new RefillClass();
+        List<String> fixed = rc.fixed;
+        Map<String, Integer> sorted = rc.sorted;
+
+        // A tree map can't hold a null key
+        String yaml = "fixed:\n- c\n- d\n" +
+                "sorted:\n  b: 2\n  ~: 3\n";
+        FieldChanges changes = deserializer.deserializeInto(yaml, rc);
+
+        Assertions.assertEquals(changes.getChangedFields(), new HashSet<>(Arrays.asList("fixed", "sorted")));
+        Assertions.assertEquals(rc.fixed, Arrays.asList("c", "d"));
+        Assertions.assertEquals(rc.sorted.get("b"), 2);
+        Assertions.assertEquals(rc.sorted.get(null), 3);
+
+        Assertions.assertEquals(fixed, Arrays.asList("a", "b"));
+        Assertions.assertEquals(sorted, Collections.singletonMap("a", 1));
+    }
+
 }
@@ -2,13 +2,17 @@ package me.silverwolfg11.commentconfig;
 
 import me.Silverwolfg11.CommentConfig.annotations.Comment;
 import me.Silverwolfg11.CommentConfig.annotations.Node;
+import me.Silverwolfg11.CommentConfig.annotations.SequenceComments;
 import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
 import me.Silverwolfg11.CommentConfig.annotations.SnakeSerialize;
 import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
 import me.Silverwolfg11.CommentConfig.serialization.ClassSerializer;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.StringWriter;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -266,4 +270,103 @@ public class ClassSerializerTests extends ConfigTesting {
         serializeClassAndCheckDiff(new ComplexSerializationClass(), "complexclass_serialization.yml");
     }
 
+    @SerializableConfig
+    protected static class NodePathSerializationClass {
+        @Comment("This is a nested node!")
+        @Node({"level1", "level2", "key"})
+        private String nested = "value";
+
+        @Node({"level1", "other"})
+        private int other = 5;
+
+        @Node({"level1", "empty"})
+        private List<String> empty = Arrays.asList();
+    }
+
+    @Test
+    protected void nodePathSerialization() {
+        // Serialize twice to make sure the cached class layout is reused correctly.
+        serializeClassAndCheckDiff(new NodePathSerializationClass(), "nodepathclass_serialization.yml");
+        serializeClassAndCheckDiff(new NodePathSerializationClass(), "nodepathclass_serialization.yml");
+    }
+
+    @SerializableConfig
+    protected static class SequenceCommentsClass {
+        @SerializableConfig
+        private static class Options {
+            @Comment("If the home is public")
+            private boolean open = true;
+        }
+
+        @SerializableConfig
+        private static class Home {
+            @Comment("World of the home")
+            private String world = "world";
+
+            @Comment({"Location of the home", "", "In blocks"})
+            @Node({"location", "x"})
+            private int x;
+
+            @Node({"location", "z"})
+            private int z;
+
+            @Comment("Options of the home")
+            private Options options = new Options();
+
+            Home(int x, int z) {
+                this.x = x;
+                this.z = z;
+            }
+        }
+
+        @Comment("This is a list with the element comments above it!")
+        @SequenceComments
+        private List<Home> homes = Arrays.asList(new Home(1, 2), new Home(3, 4));
+    }
+
+    @Test
+    protected void sequenceCommentsSerialization() {
+        serializeClassAndCheckDiff(new SequenceCommentsClass(), "sequencecommentsclass_serialization.yml");
+    }
+
+    @SerializableConfig
+    protected static class PrimitiveSerializationClass {
+        @Comment("An int field")
+        private int intValue = 42;
+        private long longValue = 12345678901L;
+
+        @Node({"doubles", "value"})
+        private double doubleValue = 0.25;
+
+        @Node({"doubles", "nan"})
+        private double nanValue = Double.NaN;
+
+        @Node({"doubles", "infinity"})
+        private double infinityValue = Double.NEGATIVE_INFINITY;
+
+        @SnakeSerialize
+        private boolean boolValue = true;
+    }
+
+    @Test
+    protected void streamingSerialization() {
+        NodeSerializer serializer = new NodeSerializer();
+        Object[] objects = {
+                new SimpleStringClass(), new EnumClass(), new RawEnumClass(), new RawListSerializationClass(),
+                new SimpleListSerializationClass(), new EnumListClass(), new ComplexListSerializationClass(),
+                new RawMapSerializationClass(), new SimpleMapSerializationClass(), new ComplexMapSerializationClass(),
+                new ComplexSerializationClass(), new NodePathSerializationClass(), new SequenceCommentsClass(),
+                new PrimitiveSerializationClass()
+        };
+
+        // Writing straight to YAML must produce the same output as going through the nodes
+        for (Object obj : objects) {
+            String expected = serializer.serializeToString(ClassSerializer.serializeClass(obj));
+
+            StringWriter writer = new StringWriter();
+            Assertions.assertDoesNotThrow(() -> ClassSerializer.serializeToWriter(obj, writer, serializer));
+            Assertions.assertEquals(expected, writer.toString(), () -> "Streamed YAML differs for " + obj.getClass().getSimpleName());
+        }
+    }
+
 }
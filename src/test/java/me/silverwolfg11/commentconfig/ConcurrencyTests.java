@@ -0,0 +1,143 @@
+package me.silverwolfg11.commentconfig;
+
+import me.Silverwolfg11.CommentConfig.annotations.Comment;
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import me.Silverwolfg11.CommentConfig.serialization.ClassSerializer;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test sharing a single class deserializer and node serializer between threads.
+ */
+public class ConcurrencyTests {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 300;
+
+    protected interface Task {
+        void run(int thread, int iteration) throws Exception;
+    }
+
+    // Run a task on several threads at once and rethrow the first failure
+    private static void runConcurrently(Task task) {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                final int threadId = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        task.run(threadId, i);
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                Assertions.assertDoesNotThrow(() -> future.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @SerializableConfig
+    protected static class SharedClass {
+        @SerializableConfig
+        protected static class Settings {
+            private int port;
+            private List<String> hosts;
+        }
+
+        @Comment("The name of the config.")
+        private String name;
+        private Settings settings;
+        private Version version;
+    }
+
+    protected static class Version {
+        private final String value;
+
+        protected Version(String value) {
+            this.value = value;
+        }
+    }
+
+    // Test deserializing different YAML with one deserializer from several threads.
+    @Test
+    public void sharedClassDeserializer() {
+        ClassDeserializer deserializer = ClassDeserializer.builder()
+                .addDeserializer(Version.class, o -> new Version("v" + o))
+                .build();
+        ClassDeserializer streamingDeserializer = ClassDeserializer.builder()
+                .addDeserializer(Version.class, o -> new Version("v" + o))
+                .setTypedScalarMode(true)
+                .build();
+
+        runConcurrently((thread, i) -> {
+            String yaml = "name: config-" + thread + "-" + i + "\n" +
+                    "settings:\n  port: " + i + "\n  hosts:\n  - host" + thread + "\n  - backup" + i + "\n" +
+                    "version: " + thread + "\n";
+
+            ClassDeserializer currentDeserializer = (i % 2 == 0) ? deserializer : streamingDeserializer;
+            SharedClass sc = currentDeserializer.deserializeClass(yaml, SharedClass.class);
+            Assertions.assertEquals("config-" + thread + "-" + i, sc.name);
+            Assertions.assertEquals(i, sc.settings.port);
+            Assertions.assertEquals(Arrays.asList("host" + thread, "backup" + i), sc.settings.hosts);
+            Assertions.assertEquals("v" + thread, sc.version.value);
+        });
+    }
+
+    // Test serializing different nodes and classes with one serializer from several threads.
+    @Test
+    public void sharedNodeSerializer() {
+        NodeSerializer serializer = NodeSerializer.builder().build();
+
+        runConcurrently((thread, i) -> {
+            ParentConfigNode root = ParentConfigNode.createRoot();
+            root.addChild("thread", thread, "Comment of thread " + thread);
+            root.addSection("section", "Section of iteration " + i).addChild("iteration", i, "Iteration " + i);
+
+            String expected = "# Comment of thread " + thread + "\n" +
+                    "thread: " + thread + "\n" +
+                    "# Section of iteration " + i + "\n" +
+                    "section:\n" +
+                    "  # Iteration " + i + "\n" +
+                    "  iteration: " + i + "\n";
+            Assertions.assertEquals(expected, serializer.serializeToString(root));
+
+            SharedClass sc = new SharedClass();
+            sc.name = "config-" + thread + "-" + i;
+            StringWriter writer = new StringWriter();
+            ClassSerializer.serializeToWriter(sc, writer, serializer);
+            Assertions.assertEquals("# The name of the config.\nname: " + sc.name + "\n", writer.toString());
+        });
+    }
+
+    // Test that deserializers and serializers created by builders can't be changed.
+    @Test
+    public void builtInstancesAreImmutable() {
+        ClassDeserializer deserializer = ClassDeserializer.builder().setStreamingMode(true).build();
+        Assertions.assertThrows(IllegalStateException.class, () -> deserializer.setStreamingMode(false));
+        Assertions.assertThrows(IllegalStateException.class, () -> deserializer.addDeserializer(Version.class, o -> o));
+
+        NodeSerializer serializer = NodeSerializer.builder().build();
+        Assertions.assertThrows(IllegalStateException.class, () -> serializer.addSerializer(Version.class, o -> null));
+    }
+}
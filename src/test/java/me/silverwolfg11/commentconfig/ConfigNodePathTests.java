@@ -0,0 +1,273 @@
+package me.silverwolfg11.commentconfig;
+
+import me.Silverwolfg11.CommentConfig.node.ConfigNode;
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+import me.Silverwolfg11.CommentConfig.node.ValueConfigNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Test looking up and changing config nodes by their dotted path.
+ */
+public class ConfigNodePathTests {
+
+    // Run a test on a tree without and with a path index, since both must behave the same
+    private void testBoth(Consumer<ParentConfigNode> test) {
+        test.accept(ParentConfigNode.createRoot());
+
+        ParentConfigNode indexedRoot = ParentConfigNode.createRoot();
+        indexedRoot.enablePathIndex();
+        test.accept(indexedRoot);
+        Assertions.assertTrue(indexedRoot.hasPathIndex());
+    }
+
+    private static List<String> keys(ParentConfigNode section) {
+        return section.getChildren().stream().map(ConfigNode::getKey).collect(Collectors.toList());
+    }
+
+    @Test
+    public void pathLookup() {
+        testBoth(root -> {
+            ParentConfigNode level1 = root.addSection("level1");
+            ParentConfigNode level2 = level1.addSection("level2");
+            ValueConfigNode key = level2.addChild("key", "value");
+            ValueConfigNode top = root.addChild("top", 5);
+
+            Assertions.assertSame(key, root.get("level1.level2.key"));
+            Assertions.assertSame(level2, root.get("level1.level2"));
+            Assertions.assertSame(top, root.get("top"));
+            Assertions.assertSame(key, level1.get("level2.key"));
+            Assertions.assertSame(key, level2.get("key"));
+
+            Assertions.assertNull(root.get("level1.missing"));
+            Assertions.assertNull(root.get("missing.key"));
+            // Values don't have children
+            Assertions.assertNull(root.get("top.key"));
+            Assertions.assertNull(root.get(""));
+        });
+    }
+
+    @Test
+    public void pathChanges() {
+        testBoth(root -> {
+            ValueConfigNode value = root.set("level1.level2.key", "value");
+            Assertions.assertEquals("value", value.getValue());
+            Assertions.assertSame(value, root.get("level1.level2.key"));
+            Assertions.assertSame(root.get("level1.level2"), root.getOrCreateSection("level1.level2"));
+
+            // Existing values keep their node and comments
+            value.setComments("A comment");
+            Assertions.assertSame(value, root.set("level1.level2.key", "other"));
+            Assertions.assertEquals("other", value.getValue());
+            Assertions.assertArrayEquals(new String[] { "A comment" }, value.getComments());
+
+            // Values and sections replace each other
+            ParentConfigNode section = root.getOrCreateSection("level1.level2.key.deeper");
+            Assertions.assertSame(section, root.get("level1.level2.key.deeper"));
+            Assertions.assertTrue(root.get("level1.level2.key") instanceof ParentConfigNode);
+
+            ValueConfigNode replacement = root.set("level1.level2", 5);
+            Assertions.assertSame(replacement, root.get("level1.level2"));
+            Assertions.assertNull(root.get("level1.level2.key"));
+            Assertions.assertNull(root.get("level1.level2.key.deeper"));
+        });
+    }
+
+    @Test
+    public void treeChanges() {
+        testBoth(root -> {
+            ParentConfigNode section = root.addSection("section");
+            section.addChild("first", 1);
+            ValueConfigNode second = section.addChild("second", 2);
+            ValueConfigNode third = section.addChild("third", 3);
+
+            // Replacing a section replaces its children
+            ParentConfigNode other = root.addSection("other");
+            other.addChild("old", 1);
+            root.addChild("other", "replaced");
+            Assertions.assertNull(root.get("other.old"));
+            Assertions.assertEquals("replaced", ((ValueConfigNode) root.get("other")).getValue());
+            Assertions.assertFalse(other.hasParent());
+
+            Assertions.assertTrue(section.removeChild(second));
+            Assertions.assertNull(root.get("section.second"));
+            Assertions.assertFalse(second.hasParent());
+
+            // Re-keyed nodes keep their position
+            section.addChild(second);
+            root.get("section.first").setKey("renamed");
+            Assertions.assertNull(root.get("section.first"));
+            Assertions.assertEquals(1, ((ValueConfigNode) root.get("section.renamed")).getValue());
+            Assertions.assertSame(root.get("section.renamed"), section.getChild("renamed"));
+            Assertions.assertEquals(Arrays.asList("renamed", "third", "second"), keys(section));
+
+            // Re-keying onto an existing key replaces that node
+            second.setKey("third");
+            Assertions.assertSame(second, root.get("section.third"));
+            Assertions.assertFalse(third.hasParent());
+            Assertions.assertEquals(Arrays.asList("renamed", "third"), keys(section));
+
+            section.setKey("moved");
+            Assertions.assertNull(root.get("section.renamed"));
+            Assertions.assertSame(second, root.get("moved.third"));
+        });
+    }
+
+    @Test
+    public void largeSections() {
+        testBoth(root -> {
+            ParentConfigNode section = root.addSection("section");
+            List<String> expectedKeys = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                section.addChild("key" + i, i);
+                expectedKeys.add("key" + i);
+            }
+
+            Assertions.assertEquals(expectedKeys, keys(section));
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertEquals(i, ((ValueConfigNode) root.get("section.key" + i)).getValue());
+            }
+
+            // Replaced children keep their position
+            section.addChild("key50", "replaced");
+            Assertions.assertEquals(expectedKeys, keys(section));
+            Assertions.assertEquals("replaced", ((ValueConfigNode) section.getChild("key50")).getValue());
+
+            section.getChild("key10").setKey("renamed");
+            expectedKeys.set(10, "renamed");
+            Assertions.assertEquals(expectedKeys, keys(section));
+            Assertions.assertNull(section.getChild("key10"));
+            Assertions.assertNotNull(root.get("section.renamed"));
+
+            // Remove children until the section is small again, from the end, the start and the middle
+            int removals = 0;
+            while (expectedKeys.size() > 3) {
+                int position = removals % 3 == 0 ? expectedKeys.size() - 1 : removals % 3 == 1 ? 0 : expectedKeys.size() / 2;
+                String key = expectedKeys.remove(position);
+                Assertions.assertTrue(section.removeChild(section.getChild(key)));
+                Assertions.assertNull(root.get("section." + key));
+                Assertions.assertNull(section.getChild(key));
+                removals++;
+
+                for (String remainingKey : expectedKeys) {
+                    Assertions.assertEquals(remainingKey, section.getChild(remainingKey).getKey());
+                }
+            }
+
+            Assertions.assertEquals(expectedKeys, keys(section));
+            for (String key : expectedKeys) {
+                Assertions.assertSame(section.getChild(key), root.get("section." + key));
+            }
+        });
+    }
+
+    @Test
+    public void randomSectionChanges() {
+        // "Aa" and "BB" have the same hash code, so keys built from them collide in the child table
+        String[] parts = { "Aa", "BB" };
+        List<String> keyPool = new ArrayList<>();
+        for (String first : parts) {
+            for (String second : parts) {
+                for (String third : parts) {
+                    for (String fourth : parts) {
+                        keyPool.add(first + second + third + fourth);
+                        keyPool.add("key" + keyPool.size());
+                    }
+                }
+            }
+        }
+
+        Random random = new Random(42);
+        ParentConfigNode section = ParentConfigNode.createRoot();
+        Map<String, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            String key = keyPool.get(random.nextInt(keyPool.size()));
+            ConfigNode child = section.getChild(key);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    section.addChild(key, i);
+                    expected.put(key, i);
+                    break;
+                case 2:
+                    if (child != null)
+                        Assertions.assertTrue(section.removeChild(child));
+
+                    expected.remove(key);
+                    break;
+                default:
+                    String newKey = keyPool.get(random.nextInt(keyPool.size()));
+                    if (child == null || newKey.equals(key))
+                        break;
+
+                    // The re-keyed child keeps its position and replaces any child with the new key
+                    child.setKey(newKey);
+                    Map<String, Integer> renamed = new LinkedHashMap<>();
+                    for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+                        if (entry.getKey().equals(key)) {
+                            renamed.put(newKey, entry.getValue());
+                        }
+                        else if (!entry.getKey().equals(newKey)) {
+                            renamed.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+
+                    expected = renamed;
+                    break;
+            }
+
+            Assertions.assertEquals(new ArrayList<>(expected.keySet()), keys(section));
+            for (String poolKey : keyPool) {
+                ConfigNode poolChild = section.getChild(poolKey);
+                Assertions.assertEquals(expected.get(poolKey), poolChild != null ? ((ValueConfigNode) poolChild).getValue() : null);
+            }
+        }
+    }
+
+    @Test
+    public void dottedKeys() {
+        testBoth(root -> {
+            ParentConfigNode section = root.addSection("a.b");
+            section.addChild("c", 1);
+            root.addSection("a").addSection("b").addChild("c", 2);
+
+            // Keys with dots can't be reached through a path
+            Assertions.assertEquals(2, ((ValueConfigNode) root.get("a.b.c")).getValue());
+            Assertions.assertEquals(1, ((ValueConfigNode) section.get("c")).getValue());
+
+            section.addChild("d", 3);
+            Assertions.assertNull(root.get("a.b.d"));
+            Assertions.assertNotNull(section.get("d"));
+        });
+    }
+
+    @Test
+    public void pathIndexLifecycle() {
+        ParentConfigNode root = ParentConfigNode.createRoot();
+        root.set("level1.key", "value");
+
+        // The index includes existing nodes
+        root.enablePathIndex();
+        Assertions.assertEquals("value", ((ValueConfigNode) root.get("level1.key")).getValue());
+
+        // A root that's added to another tree stops keeping an index
+        ParentConfigNode otherRoot = ParentConfigNode.createRoot();
+        otherRoot.enablePathIndex();
+        root.setKey("nested");
+        otherRoot.addChild(root);
+        Assertions.assertFalse(root.hasPathIndex());
+        Assertions.assertSame(root.get("level1.key"), otherRoot.get("nested.level1.key"));
+
+        ParentConfigNode section = root.getOrCreateSection("level1");
+        Assertions.assertThrows(IllegalStateException.class, section::enablePathIndex);
+    }
+}
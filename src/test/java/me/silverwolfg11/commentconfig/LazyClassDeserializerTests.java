@@ -0,0 +1,71 @@
+package me.silverwolfg11.commentconfig;
+
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import me.Silverwolfg11.CommentConfig.serialization.ClassSerializer;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+/**
+ * Run the class deserializer tests in lazy mode.
+ */
+public class LazyClassDeserializerTests extends ClassDeserializerTests {
+
+    @Override
+    protected ClassDeserializer createDeserializer() {
+        ClassDeserializer deserializer = new ClassDeserializer();
+        deserializer.setLazyMode(true);
+        return deserializer;
+    }
+
+    // Test that lazy fields are only deserialized on first access.
+    @Test
+    protected void deferredDeserialization() {
+        LazyClass lc = deserializeClassFromFile("lazyclass_deserialization.yml", LazyClass.class);
+
+        Assertions.assertFalse(lc.settings.isLoaded());
+        Assertions.assertFalse(lc.limits.isLoaded());
+        Assertions.assertFalse(lc.worlds.isLoaded());
+
+        Assertions.assertEquals(lc.settings.get().maxPlayers, 20);
+        Assertions.assertTrue(lc.settings.isLoaded());
+        Assertions.assertFalse(lc.limits.isLoaded());
+    }
+
+    // Test lazy fields that use anchors and aliases, after text with supplementary characters.
+    @Test
+    protected void lazyAliasDeserialization() {
+        String yaml = "name: &name \"\uD83D\uDE00 lazy\"\n"
+                + "limits: &limits\n"
+                + "  homes: 3\n"
+                + "settings:\n"
+                + "  maxPlayers: 20\n"
+                + "  pvp: true\n"
+                + "worlds: [*name, world]\n";
+
+        LazyClass lc = Assertions.assertDoesNotThrow(() -> createDeserializer().deserializeClass(yaml, LazyClass.class));
+
+        Assertions.assertEquals(lc.name, "\uD83D\uDE00 lazy");
+        Assertions.assertEquals(lc.limits.get().get("homes"), 3);
+        Assertions.assertEquals(lc.settings.get().maxPlayers, 20);
+        Assertions.assertEquals(lc.worlds.get(), Arrays.asList("\uD83D\uDE00 lazy", "world"));
+    }
+
+    // Test that lazy fields serialize to the same YAML as their values.
+    @Test
+    protected void lazySerialization() {
+        LazyClass lc = deserializeClassFromFile("lazyclass_deserialization.yml", LazyClass.class);
+
+        String nodeYaml = new NodeSerializer().serializeToString(ClassSerializer.serializeClass(lc));
+        Assertions.assertTrue(nodeYaml.contains("maxPlayers: 20"), nodeYaml);
+        Assertions.assertTrue(nodeYaml.contains("- world_nether"), nodeYaml);
+        Assertions.assertTrue(nodeYaml.contains("missing: default"), nodeYaml);
+
+        StringWriter writer = new StringWriter();
+        Assertions.assertDoesNotThrow(() -> ClassSerializer.serializeToWriter(lc, writer));
+        Assertions.assertEquals(nodeYaml, writer.toString());
+    }
+}
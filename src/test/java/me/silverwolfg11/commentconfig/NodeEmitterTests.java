@@ -0,0 +1,225 @@
+package me.silverwolfg11.commentconfig;
+
+import me.Silverwolfg11.CommentConfig.hacks.CommentYAML;
+import me.Silverwolfg11.CommentConfig.node.CommentKey;
+import me.Silverwolfg11.CommentConfig.node.ConfigNode;
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+import me.Silverwolfg11.CommentConfig.node.ValueConfigNode;
+import me.Silverwolfg11.CommentConfig.serialization.ClassSerializer;
+import me.Silverwolfg11.CommentConfig.serialization.NodeEmitter;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.DumperOptions;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test that the node emitter writes exactly what dumping a comment key map through {@link CommentYAML} writes.
+ * <br><br>
+ * The node serializer writes trees without key comments through the node emitter,
+ * so the expected output is produced through the comment emitter directly instead of the node serializer.
+ */
+public class NodeEmitterTests extends ConfigTesting {
+
+    public NodeEmitterTests() {
+        super("nodeserializertests");
+    }
+
+    private String emit(ConfigNode node) {
+        StringWriter writer = new StringWriter();
+        Assertions.assertDoesNotThrow(() -> new NodeEmitter(writer, new NodeSerializer()).emit(node), "Error emitting node!");
+        return writer.toString();
+    }
+
+    // Dump a node as a comment key map through CommentYAML, like the node serializer did before it had an emitter.
+    // Uses the node serializer's options and a new YAML, because anchor names are numbered per YAML.
+    private static String dumpThroughCommentYAML(ConfigNode node) {
+        Map<CommentKey, Object> commentMap = new LinkedHashMap<>();
+        toCommentMap(node, commentMap);
+
+        StringWriter writer = new StringWriter();
+        // Handle root comments a.k.a the header
+        if (!node.hasKey() && node.hasComments()) {
+            for (String comment : node.getComments()) {
+                if (!comment.isEmpty())
+                    writer.append("# ").append(comment);
+
+                writer.append('\n');
+            }
+        }
+
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setPrettyFlow(true);
+        new CommentYAML(options).dump(commentMap, writer);
+        return writer.toString();
+    }
+
+    private static void toCommentMap(ConfigNode node, Map<CommentKey, Object> parentMap) {
+        Object nodeVal = null;
+
+        if (node instanceof ParentConfigNode) {
+            ParentConfigNode parentNode = (ParentConfigNode) node;
+            if (parentNode.hasChildren()) {
+                Map<CommentKey, Object> levelMap = parentMap;
+                if (node.hasKey())
+                    nodeVal = levelMap = new LinkedHashMap<>();
+
+                for (ConfigNode child : parentNode.getChildren()) {
+                    toCommentMap(child, levelMap);
+                }
+            }
+        }
+        else if (node instanceof ValueConfigNode) {
+            nodeVal = ((ValueConfigNode) node).getValue();
+        }
+
+        if (nodeVal != null && node.hasKey())
+            parentMap.put(new CommentKey(node.getKey(), node.getComments()), nodeVal);
+    }
+
+    // Check that the emitter's output is byte for byte the same as the comment emitter's output,
+    // and that the node serializer writes the same, whichever way it writes the node.
+    private void checkSameOutput(ConfigNode node, String description) {
+        String expected = dumpThroughCommentYAML(node);
+        Assertions.assertEquals(expected, emit(node), () -> "Emitted YAML differs for " + description);
+        Assertions.assertEquals(expected, new NodeSerializer().serializeToString(node), () -> "Serialized YAML differs for " + description);
+    }
+
+    // Emit a node to a file, and check the emitted YAML against a resource YAML.
+    private void emitNodeAndCheckDiff(ConfigNode node, String resourceName) {
+        checkSameOutput(node, resourceName);
+
+        File emittedFile = getTempFile();
+        Assertions.assertDoesNotThrow(() -> Files.write(emittedFile.toPath(), emit(node).getBytes(StandardCharsets.UTF_8)));
+        Path expectedFile = getResource(resourceName);
+        Assertions.assertNotNull(expectedFile, "Error getting resource file '" + resourceName + "'!");
+
+        checkNoDiff(emittedFile.toPath(), expectedFile);
+    }
+
+    @Test
+    public void resourceNodeEmission() {
+        ParentConfigNode noComments = ParentConfigNode.createRoot();
+        noComments.addChild("test", "Hello!");
+        emitNodeAndCheckDiff(noComments, "string_serialization.yml");
+
+        ParentConfigNode header = ParentConfigNode.createRoot();
+        header.addChild("test", "Hello!");
+        header.setComments("This is a test comment!");
+        emitNodeAndCheckDiff(header, "string_comment_serialization.yml");
+
+        ParentConfigNode multiChildren = ParentConfigNode.createRoot();
+        multiChildren.addChild("test", "Hello!", "This is a test comment!");
+        multiChildren.addChild("test2", "World", "This is another test comment!");
+        multiChildren.addChild("test3", "The last one!", "This is the final test comment!");
+        emitNodeAndCheckDiff(multiChildren, "multi_string_comment_serialization.yml");
+
+        ParentConfigNode multiLevel = ParentConfigNode.createRoot();
+        multiLevel.setComments("This is a header comment!");
+        multiLevel.addChild("test", "Hello", "This is the first child comment!");
+        ParentConfigNode parent1 = multiLevel.addSection("testSection", "This is the first section comment!");
+        parent1.addChild("test", "Hello", "This is the second child comment!");
+        ParentConfigNode parent2 = parent1.addSection("testSection", "This is the second section comment!");
+        parent1.addChild("test2", "World", "This is the third child comment!");
+        parent2.addChild("test", "Hello", "This is the fourth child comment!");
+        multiLevel.addChild("test2", "World", "This is the fifth child comment!");
+        emitNodeAndCheckDiff(multiLevel, "multi_level_comment_serialization.yml");
+    }
+
+    @Test
+    public void classNodeEmission() {
+        Object[] objects = {
+                new ClassSerializerTests.SimpleStringClass(), new ClassSerializerTests.EnumClass(),
+                new ClassSerializerTests.RawEnumClass(), new ClassSerializerTests.RawListSerializationClass(),
+                new ClassSerializerTests.SimpleListSerializationClass(), new ClassSerializerTests.EnumListClass(),
+                new ClassSerializerTests.ComplexListSerializationClass(), new ClassSerializerTests.RawMapSerializationClass(),
+                new ClassSerializerTests.SimpleMapSerializationClass(), new ClassSerializerTests.ComplexMapSerializationClass(),
+                new ClassSerializerTests.ComplexSerializationClass(), new ClassSerializerTests.NodePathSerializationClass()
+        };
+
+        for (Object obj : objects) {
+            checkSameOutput(ClassSerializer.serializeClass(obj), obj.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    public void edgeCaseEmission() {
+        checkSameOutput(ParentConfigNode.createRoot(), "an empty root");
+
+        ParentConfigNode emptySections = ParentConfigNode.createRoot();
+        emptySections.addSection("empty", "Never written");
+        emptySections.addSection("nested", "Written as an empty mapping").addSection("empty", "Skipped");
+        checkSameOutput(emptySections, "empty sections");
+
+        ParentConfigNode scalars = ParentConfigNode.createRoot();
+        scalars.setComments("Header", "", "# Already a comment");
+        scalars.addChild("plain", "Hello World", "", "Empty comment line above");
+        scalars.addChild("number-string", "123", "# No prefix added");
+        scalars.addChild("123", "numeric key");
+        scalars.addChild("true", true);
+        scalars.addChild("double", 1.5d);
+        scalars.addChild("long", Long.MAX_VALUE);
+        scalars.addChild("quotes", "It's \"quoted\"", "Comment with\na newline");
+        scalars.addChild("indicators", "- not a list: # nor a comment");
+        scalars.addChild("leading", " spaces ");
+        scalars.addChild("empty", "");
+        scalars.addChild("multiline", "First line\nSecond line\n\nFourth line\n");
+        scalars.addChild("tabs", "a\tb\u0007");
+        scalars.addChild("unicode", "h\u00E9llo w\u00F6rld \u2603 \uD83D\uDE00");
+        scalars.addChild("line-separator", "a\u2028b");
+        scalars.addChild("long-text", String.join(" ", Collections.nCopies(40, "lorem ipsum")));
+        scalars.addChild("long-quoted", String.join(" ", Collections.nCopies(40, "it's")) + " ");
+        scalars.addChild("long-escaped", String.join(" ", Collections.nCopies(40, "tab\there")));
+        scalars.addChild(String.join("", Collections.nCopies(130, "k")), "long key", "Explicit key");
+        scalars.addChild("key: with indicators", "value", "Quoted key");
+        checkSameOutput(scalars, "scalars");
+
+        List<String> shared = new ArrayList<>(Arrays.asList("a", "b"));
+        Map<String, Object> nestedMap = new LinkedHashMap<>();
+        nestedMap.put("list", Arrays.asList(1, 2, 3));
+        nestedMap.put("empty-list", Collections.emptyList());
+        nestedMap.put("empty-map", Collections.emptyMap());
+        nestedMap.put("nested", Collections.singletonMap("deep", Arrays.asList(Arrays.asList("x", "y"), Collections.emptyList())));
+        nestedMap.put(null, "null key");
+
+        ParentConfigNode collections = ParentConfigNode.createRoot();
+        collections.addChild("shared", shared, "First reference");
+        collections.addSection("section").addChild("shared-again", shared, "Second reference");
+        collections.addChild("map", nestedMap, "A map");
+        collections.addChild("lists", Arrays.asList(Arrays.asList(1, 2), Collections.singletonMap("k", "v")));
+        collections.addChild("array", new int[] { 1, 2, 3 });
+        checkSameOutput(collections, "collections");
+    }
+
+    @Test
+    public void keyedRootEmission() {
+        ParentConfigNode root = ParentConfigNode.createRoot();
+        ParentConfigNode section = root.addSection("section", "Section comment");
+        section.addChild("value", 5, "Value comment");
+
+        checkSameOutput(section, "a section");
+        checkSameOutput(section.getChild("value"), "a value");
+    }
+
+    @Test
+    public void emitterWritesOneDocument() {
+        ParentConfigNode root = ParentConfigNode.createRoot();
+        root.addChild("test", "Hello!");
+
+        NodeEmitter emitter = new NodeEmitter(new StringWriter(), new NodeSerializer());
+        Assertions.assertDoesNotThrow(() -> emitter.emit(root));
+        Assertions.assertThrows(IllegalStateException.class, () -> emitter.emit(root));
+    }
+}
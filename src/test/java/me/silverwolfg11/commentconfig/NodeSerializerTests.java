@@ -3,11 +3,23 @@ package me.silverwolfg11.commentconfig;
 import me.Silverwolfg11.CommentConfig.node.ConfigNode;
 import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
 import me.Silverwolfg11.CommentConfig.node.ValueConfigNode;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Test serializing config nodes into a YAML file.
@@ -89,4 +101,63 @@ public class NodeSerializerTests extends ConfigTesting {
         serializeNodeAndCheckDiff(rootNode, "multi_level_comment_serialization.yml");
     }
 
+    @Test
+    public void streamingSerializationTest() throws IOException {
+        ParentConfigNode rootNode = ParentConfigNode.createRoot();
+        rootNode.setComments("This is a header comment!", "");
+        rootNode.addChild("test", "H\u00E9llo", "This is the first child comment!");
+        rootNode.addSection("testSection", "This is a section comment!").addChild("list", Arrays.asList(1, 2, 3));
+
+        NodeSerializer serializer = new NodeSerializer();
+        String expected = serializer.serializeToString(rootNode);
+
+        StringWriter writer = new StringWriter();
+        serializer.serialize(rootNode, writer);
+        Assertions.assertEquals(expected, writer.toString());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(rootNode, out);
+        Assertions.assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        // Files are created if they don't exist
+        Path path = getTempFile().toPath();
+        serializer.serialize(rootNode, path);
+        Assertions.assertEquals(expected, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void noCommentFastPathTest() {
+        List<Integer> shared = Arrays.asList(1, 2, 3);
+
+        ParentConfigNode rootNode = ParentConfigNode.createRoot();
+        rootNode.setComments("Only a header comment");
+        rootNode.addChild("test", "Hello!");
+        rootNode.addSection("empty");
+        ParentConfigNode section = rootNode.addSection("section");
+        section.addChild("list", shared);
+        section.addChild("shared", shared);
+        rootNode.addChild("number", 5);
+
+        Map<String, Object> sectionMap = new LinkedHashMap<>();
+        sectionMap.put("list", shared);
+        sectionMap.put("shared", shared);
+        Map<String, Object> rootMap = new LinkedHashMap<>();
+        rootMap.put("test", "Hello!");
+        rootMap.put("section", sectionMap);
+        rootMap.put("number", 5);
+
+        // Same options as the node serializer
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setPrettyFlow(true);
+        String expected = "# Only a header comment\n" + new Yaml(options).dump(rootMap);
+
+        Assertions.assertEquals(expected, new NodeSerializer().serializeToString(rootNode));
+
+        // A comment on any key still writes comments
+        section.getChild("list").setComments("List comment");
+        String commented = new NodeSerializer().serializeToString(rootNode);
+        Assertions.assertTrue(commented.contains("# List comment\n"), commented);
+    }
+
 }
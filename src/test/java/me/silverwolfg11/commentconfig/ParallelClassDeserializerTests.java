@@ -0,0 +1,63 @@
+package me.silverwolfg11.commentconfig;
+
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run the class deserializer tests in parallel mode.
+ * The threshold is lowered so that every field and collection is deserialized in parallel.
+ */
+public class ParallelClassDeserializerTests extends ClassDeserializerTests {
+
+    @Override
+    protected ClassDeserializer createDeserializer() {
+        ClassDeserializer deserializer = new ClassDeserializer();
+        deserializer.setParallelMode(true);
+        deserializer.setParallelThreshold(1);
+        return deserializer;
+    }
+
+    @SerializableConfig
+    protected static class CatalogClass {
+        @SerializableConfig
+        private static class Item {
+            private String name;
+            private int price;
+        }
+
+        private List<Item> items;
+        private Map<String, Item> itemsByName;
+    }
+
+    // Test that parallel deserialization keeps the order of large collections.
+    @Test
+    protected void largeParallelDeserialization() {
+        StringBuilder yaml = new StringBuilder("items:\n");
+        for (int i = 0; i < 5000; i++) {
+            yaml.append("  - name: item").append(i).append("\n    price: ").append(i).append('\n');
+        }
+
+        yaml.append("itemsByName:\n");
+        for (int i = 0; i < 5000; i++) {
+            yaml.append("  item").append(i).append(":\n    name: item").append(i)
+                    .append("\n    price: ").append(i).append('\n');
+        }
+
+        ClassDeserializer deserializer = new ClassDeserializer();
+        deserializer.setParallelMode(true);
+        CatalogClass cc = Assertions.assertDoesNotThrow(() -> deserializer.deserializeClass(yaml.toString(), CatalogClass.class));
+
+        Assertions.assertEquals(cc.items.size(), 5000);
+        Assertions.assertEquals(cc.itemsByName.size(), 5000);
+        for (int i = 0; i < 5000; i++) {
+            Assertions.assertEquals(cc.items.get(i).name, "item" + i);
+            Assertions.assertEquals(cc.items.get(i).price, i);
+            Assertions.assertEquals(cc.itemsByName.get("item" + i).price, i);
+        }
+    }
+}
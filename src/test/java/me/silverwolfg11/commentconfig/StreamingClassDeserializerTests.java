@@ -0,0 +1,71 @@
+package me.silverwolfg11.commentconfig;
+
+import me.Silverwolfg11.CommentConfig.annotations.Node;
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Run the class deserializer tests in streaming mode.
+ */
+public class StreamingClassDeserializerTests extends ClassDeserializerTests {
+
+    @Override
+    protected ClassDeserializer createDeserializer() {
+        ClassDeserializer deserializer = new ClassDeserializer();
+        deserializer.setStreamingMode(true);
+        return deserializer;
+    }
+
+    @SerializableConfig
+    protected static class StreamingClass {
+        @SerializableConfig
+        private static class Options {
+            private int option1;
+            private boolean option2;
+        }
+
+        @SerializableConfig
+        private static class Nested {
+            private String value;
+        }
+
+        @Node({"section", "name"})
+        private String name;
+
+        @Node({"section", "count"})
+        private int count;
+
+        private Options options;
+
+        private Nested nested;
+    }
+
+    // Test skipping unmapped keys while resolving aliases and merge keys.
+    @Test
+    protected void streamingDeserialization() {
+        StreamingClass sc = deserializeClassFromFile("streamingclass_deserialization.yml", StreamingClass.class);
+
+        Assertions.assertEquals(sc.name, "merged");
+        Assertions.assertEquals(sc.count, 5);
+
+        Assertions.assertNotNull(sc.options);
+        Assertions.assertEquals(sc.options.option1, 7);
+        Assertions.assertTrue(sc.options.option2);
+
+        Assertions.assertNotNull(sc.nested);
+        Assertions.assertEquals(sc.nested.value, "streamed");
+    }
+
+    // Test that empty YAML leaves the fields at their defaults.
+    @Test
+    protected void emptyStreamingDeserialization() {
+        ClassDeserializer deserializer = createDeserializer();
+        StreamingClass sc = Assertions.assertDoesNotThrow(() -> deserializer.deserializeClass("", StreamingClass.class));
+
+        Assertions.assertNotNull(sc);
+        Assertions.assertNull(sc.options);
+        Assertions.assertEquals(sc.count, 0);
+    }
+}
@@ -0,0 +1,55 @@
+package me.silverwolfg11.commentconfig;
+
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Run the class deserializer tests with typed scalars.
+ */
+public class TypedClassDeserializerTests extends ClassDeserializerTests {
+
+    @Override
+    protected ClassDeserializer createDeserializer() {
+        ClassDeserializer deserializer = new ClassDeserializer();
+        deserializer.setTypedScalarMode(true);
+        return deserializer;
+    }
+
+    @SerializableConfig
+    protected static class TypedClass {
+        private String text;
+        private String flag;
+        private Long boxedLong;
+        private Double boxedDouble;
+        private int hex;
+        private List<Long> longs;
+        private Map<String, Double> scores;
+        private Map<String, Integer> merged;
+    }
+
+    // Test converting scalars using the declared field types.
+    @Test
+    protected void typedScalarDeserialization() {
+        TypedClass tc = deserializeClassFromFile("typedclass_deserialization.yml", TypedClass.class);
+
+        Assertions.assertEquals(tc.text, "123");
+        Assertions.assertEquals(tc.flag, "yes");
+        Assertions.assertEquals(tc.boxedLong, 7L);
+        Assertions.assertEquals(tc.boxedDouble, 3.0);
+        Assertions.assertEquals(tc.hex, 31);
+        Assertions.assertEquals(tc.longs, Arrays.asList(1L, 2L, 3L));
+
+        Assertions.assertEquals(tc.scores.get("first"), 1.0);
+        Assertions.assertEquals(tc.scores.get("second"), 2.5);
+
+        Assertions.assertEquals(tc.merged.size(), 2);
+        Assertions.assertEquals(tc.merged.get("base"), 1);
+        Assertions.assertEquals(tc.merged.get("extra"), 2);
+    }
+}
@@ -0,0 +1,128 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Locale;
+
+/**
+ * Minimal timing harness for the benchmarks in this package.
+ * <br><br>
+ * Benchmarks are plain {@code main} classes so that they are not
+ * picked up by surefire. Run them against the test classpath, e.g.
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes:&lt;snakeyaml jar&gt; \
+ *      me.silverwolfg11.commentconfig.benchmark.ClassSerializerBenchmark
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    // Prevent the JIT from eliminating benchmarked work
+    private static volatile Object blackhole;
+
+    private BenchmarkRunner() {
+    }
+
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    /**
+     * Run an operation repeatedly and print the average time per operation.
+     *
+     * @param name Name to print next to the result.
+     * @param warmupOps Number of un-timed operations to run first.
+     * @param measuredOps Number of timed operations.
+     * @param op Operation to benchmark.
+     *
+     * @return average nanoseconds per operation.
+     */
+    public static double run(String name, int warmupOps, int measuredOps, Operation op) throws Exception {
+        for (int i = 0; i < warmupOps; i++) {
+            blackhole = op.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < measuredOps; i++) {
+            blackhole = op.run();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double nsPerOp = (double) elapsed / measuredOps;
+        System.out.println(String.format(Locale.ROOT, "%-45s %12.1f ns/op", name, nsPerOp));
+        return nsPerOp;
+    }
+
+    /**
+     * Estimate the heap currently in use after requesting a few garbage collections.
+     *
+     * @return the used heap in bytes.
+     */
+    public static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Run an operation once and print the peak heap used while it ran.
+     * The peak is the sum of the peaks of all heap memory pools, so it's an upper bound.
+     *
+     * @param name Name to print next to the result.
+     * @param op Operation to measure.
+     *
+     * @return the peak heap used in bytes.
+     */
+    public static long peakHeap(String name, Operation op) throws Exception {
+        usedHeap();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+
+        blackhole = op.run();
+
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        }
+
+        System.out.println(String.format(Locale.ROOT, "%-45s %12.1f MB peak", name, peak / (1024.0 * 1024.0)));
+        return peak;
+    }
+
+    /**
+     * Run an operation repeatedly and print the average bytes allocated per operation.
+     * Requires a JVM that supports measuring thread allocations.
+     *
+     * @param name Name to print next to the result.
+     * @param ops Number of measured operations.
+     * @param op Operation to measure.
+     *
+     * @return average bytes allocated per operation.
+     */
+    public static double allocated(String name, int ops, Operation op) throws Exception {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ops; i++) {
+            blackhole = op.run();
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - start;
+
+        double bytesPerOp = (double) allocated / ops;
+        System.out.println(String.format(Locale.ROOT, "%-45s %12.1f B/op", name, bytesPerOp));
+        return bytesPerOp;
+    }
+
+}
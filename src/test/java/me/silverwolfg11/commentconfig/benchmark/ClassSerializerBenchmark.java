@@ -0,0 +1,82 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.annotations.Comment;
+import me.Silverwolfg11.CommentConfig.annotations.ConfigVersion;
+import me.Silverwolfg11.CommentConfig.annotations.Node;
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassSerializer;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark serializing many instances of a small per-player config class
+ * to the node representation.
+ */
+public class ClassSerializerBenchmark {
+
+    private enum Rank {
+        MEMBER,
+        MODERATOR,
+        ADMIN
+    }
+
+    @SerializableConfig
+    @ConfigVersion(1.0)
+    @Comment("Player data")
+    static class PlayerConfig {
+        @Comment("The player's name")
+        private String name = "Steve";
+
+        @Node({"stats", "kills"})
+        @Comment("Number of kills")
+        private int kills = 10;
+
+        @Node({"stats", "deaths"})
+        private int deaths = 4;
+
+        @Node({"stats", "playtime"})
+        private long playtime = 123456789L;
+
+        private Rank rank = Rank.MODERATOR;
+
+        @Comment("Homes of the player")
+        private List<String> homes = Arrays.asList("home", "base", "farm");
+
+        private Map<Rank, Integer> limits = new EnumMap<>(Rank.class);
+
+        @Comment("Player settings")
+        private Settings settings = new Settings();
+
+        PlayerConfig() {
+            limits.put(Rank.MEMBER, 1);
+            limits.put(Rank.ADMIN, 10);
+        }
+    }
+
+    @SerializableConfig
+    static class Settings {
+        @Comment("Whether chat is enabled")
+        private boolean chat = true;
+        private double volume = 0.5;
+        private String language = "en_US";
+    }
+
+    public static void main(String[] args) throws Exception {
+        PlayerConfig[] players = new PlayerConfig[1000];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new PlayerConfig();
+        }
+
+        BenchmarkRunner.run("ClassSerializer.serializeClass (1000 objects)", 2000, 2000, () -> {
+            Object last = null;
+            for (PlayerConfig player : players) {
+                last = ClassSerializer.serializeClass(player);
+            }
+            return last;
+        });
+    }
+
+}
@@ -0,0 +1,43 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+import me.Silverwolfg11.CommentConfig.serialization.NodeEmitter;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+
+import java.io.StringWriter;
+
+/**
+ * Benchmark dumping a comment-dense node tree, where every key has a comment,
+ * through the node serializer and through the node emitter.
+ */
+public class CommentDumpBenchmark {
+
+    private static final int WARMUP_OPS = 1_000;
+    private static final int MEASURED_OPS = 2_000;
+
+    private static ParentConfigNode createNodes(int sections, int entries) {
+        ParentConfigNode root = ParentConfigNode.createRoot();
+        for (int i = 0; i < sections; i++) {
+            ParentConfigNode section = root.addSection("section" + i, "Section " + i, "Second comment line");
+            for (int j = 0; j < entries; j++) {
+                section.addChild("entry" + j, j, "Entry " + j + " of section " + i);
+            }
+        }
+
+        return root;
+    }
+
+    public static void main(String[] args) throws Exception {
+        NodeSerializer serializer = new NodeSerializer();
+        ParentConfigNode root = createNodes(50, 20);
+
+        BenchmarkRunner.run("dump 1050 commented keys", WARMUP_OPS, MEASURED_OPS,
+                () -> serializer.serializeToString(root).length());
+
+        BenchmarkRunner.run("emit 1050 commented keys", WARMUP_OPS, MEASURED_OPS, () -> {
+            StringWriter writer = new StringWriter();
+            new NodeEmitter(writer, serializer).emit(root);
+            return writer.getBuffer().length();
+        });
+    }
+}
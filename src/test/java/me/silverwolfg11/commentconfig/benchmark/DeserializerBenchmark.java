@@ -0,0 +1,92 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark deserializing a number- and string-heavy config
+ * in the default, streaming and typed scalar modes.
+ */
+public class DeserializerBenchmark {
+
+    private static final int WARMUP_OPS = 2_000;
+    private static final int MEASURED_OPS = 5_000;
+
+    @SerializableConfig
+    static class DataConfig {
+        private Map<String, Integer> limits;
+        private Map<String, Double> prices;
+        private List<String> worlds;
+        private List<Long> ids;
+        private Settings settings;
+    }
+
+    @SerializableConfig
+    static class Settings {
+        private String name;
+        private int maxPlayers;
+        private long seed;
+        private double spawnRadius;
+        private boolean pvp;
+    }
+
+    private static String createYaml(int size) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("limits:\n");
+        for (int i = 0; i < size; i++) {
+            sb.append("  limit").append(i).append(": ").append(i * 7).append('\n');
+        }
+
+        sb.append("prices:\n");
+        for (int i = 0; i < size; i++) {
+            sb.append("  item").append(i).append(": ").append(i).append(".25\n");
+        }
+
+        sb.append("worlds:\n");
+        for (int i = 0; i < size; i++) {
+            sb.append("  - world_").append(i).append('\n');
+        }
+
+        sb.append("ids:\n");
+        for (int i = 0; i < size; i++) {
+            sb.append("  - ").append(1_000_000_000_000L + i).append('\n');
+        }
+
+        sb.append("settings:\n")
+                .append("  name: Survival\n")
+                .append("  maxPlayers: 100\n")
+                .append("  seed: 123456789012\n")
+                .append("  spawnRadius: 16.5\n")
+                .append("  pvp: true\n");
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String yaml = createYaml(100);
+
+        ClassDeserializer defaultDeserializer = new ClassDeserializer();
+
+        ClassDeserializer streamingDeserializer = new ClassDeserializer();
+        streamingDeserializer.setStreamingMode(true);
+
+        ClassDeserializer typedDeserializer = new ClassDeserializer();
+        typedDeserializer.setTypedScalarMode(true);
+
+        BenchmarkRunner.run("deserialize (default)", WARMUP_OPS, MEASURED_OPS,
+                () -> defaultDeserializer.deserializeClass(yaml, DataConfig.class));
+        BenchmarkRunner.run("deserialize (streaming)", WARMUP_OPS, MEASURED_OPS,
+                () -> streamingDeserializer.deserializeClass(yaml, DataConfig.class));
+        BenchmarkRunner.run("deserialize (typed scalars)", WARMUP_OPS, MEASURED_OPS,
+                () -> typedDeserializer.deserializeClass(yaml, DataConfig.class));
+
+        BenchmarkRunner.allocated("deserialize (default)", MEASURED_OPS,
+                () -> defaultDeserializer.deserializeClass(yaml, DataConfig.class));
+        BenchmarkRunner.allocated("deserialize (streaming)", MEASURED_OPS,
+                () -> streamingDeserializer.deserializeClass(yaml, DataConfig.class));
+        BenchmarkRunner.allocated("deserialize (typed scalars)", MEASURED_OPS,
+                () -> typedDeserializer.deserializeClass(yaml, DataConfig.class));
+    }
+}
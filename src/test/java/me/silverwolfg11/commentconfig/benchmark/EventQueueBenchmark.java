@@ -0,0 +1,71 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.hacks.CommentEvent;
+import me.Silverwolfg11.CommentConfig.hacks.RingBufferQueue;
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ImplicitTuple;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Benchmark the per-event cost of the emitter's event queue for a document with 1M commented keys.
+ * <br><br>
+ * The queue benchmarks replay the events of the document the way SnakeYAML's emitter uses its queue:
+ * every event is added, then peeked and polled. The dump benchmark serializes the whole document.
+ */
+public class EventQueueBenchmark {
+
+    private static final int KEYS = 1_000_000;
+    // A comment, key and value event per key
+    private static final int EVENTS = KEYS * 3;
+
+    private static final Event COMMENT_EVENT = new CommentEvent("Comment");
+    private static final Event SCALAR_EVENT = new ScalarEvent(null, null, new ImplicitTuple(true, false), "key",
+            null, null, DumperOptions.ScalarStyle.PLAIN);
+
+    private static int replay(Queue<Event> queue) {
+        int polled = 0;
+        for (int i = 0; i < KEYS; i++) {
+            queue.add(COMMENT_EVENT);
+            queue.add(SCALAR_EVENT);
+            queue.add(SCALAR_EVENT);
+            while (queue.peek() != null) {
+                queue.poll();
+                polled++;
+            }
+        }
+
+        return polled;
+    }
+
+    private static void printPerEvent(String name, double nsPerOp, int events) {
+        System.out.println(String.format(Locale.ROOT, "%-45s %12.2f ns/event", name, nsPerOp / events));
+    }
+
+    public static void main(String[] args) throws Exception {
+        double blocking = BenchmarkRunner.run("ArrayBlockingQueue replay", 5, 10,
+                () -> replay(new ArrayBlockingQueue<>(100)));
+        double ringBuffer = BenchmarkRunner.run("RingBufferQueue replay", 5, 10,
+                () -> replay(new RingBufferQueue<>()));
+        printPerEvent("ArrayBlockingQueue", blocking, EVENTS);
+        printPerEvent("RingBufferQueue", ringBuffer, EVENTS);
+
+        ParentConfigNode root = ParentConfigNode.createRoot();
+        for (int i = 0; i < KEYS; i++) {
+            root.addChild("key" + i, i, "Comment " + i);
+        }
+
+        NodeSerializer serializer = new NodeSerializer();
+        // Stream, document and mapping events around the events of every key
+        int documentEvents = EVENTS + 6;
+        double dump = BenchmarkRunner.run("dump 1M commented keys", 1, 3,
+                () -> serializer.serializeToString(root).length());
+        printPerEvent("dump 1M commented keys", dump, documentEvents);
+    }
+}
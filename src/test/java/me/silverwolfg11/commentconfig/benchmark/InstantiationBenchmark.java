@@ -0,0 +1,63 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+
+import java.util.List;
+
+/**
+ * Benchmark deserializing a config that constructs many small
+ * serializable class instances, both static nested and inner member classes.
+ */
+public class InstantiationBenchmark {
+
+    private static final int WARMUP_OPS = 50;
+    private static final int MEASURED_OPS = 200;
+    private static final int ITEMS = 5_000;
+
+    @SerializableConfig
+    static class EntryConfig {
+        private List<Entry> entries;
+    }
+
+    @SerializableConfig
+    static class Entry {
+        private String id;
+    }
+
+    @SerializableConfig
+    static class MemberConfig {
+        @SerializableConfig
+        class Member {
+            private String id;
+        }
+
+        private Member first;
+        private Member second;
+        private Member third;
+    }
+
+    private static String createListYaml() {
+        StringBuilder sb = new StringBuilder("entries:\n");
+        for (int i = 0; i < ITEMS; i++) {
+            sb.append("- id: e").append(i).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String listYaml = createListYaml();
+        String memberYaml = "first:\n  id: a\nsecond:\n  id: b\nthird:\n  id: c\n";
+
+        ClassDeserializer deserializer = new ClassDeserializer();
+
+        BenchmarkRunner.run("deserialize " + ITEMS + " list elements", WARMUP_OPS, MEASURED_OPS,
+                () -> deserializer.deserializeClass(listYaml, EntryConfig.class));
+        BenchmarkRunner.run("deserialize inner member classes", WARMUP_OPS * 100, MEASURED_OPS * 100,
+                () -> deserializer.deserializeClass(memberYaml, MemberConfig.class));
+
+        BenchmarkRunner.allocated("deserialize " + ITEMS + " list elements", MEASURED_OPS,
+                () -> deserializer.deserializeClass(listYaml, EntryConfig.class));
+    }
+}
@@ -0,0 +1,80 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import me.Silverwolfg11.CommentConfig.serialization.Lazy;
+
+import java.util.Map;
+
+/**
+ * Benchmark deserializing a config with large sections of which only one is used,
+ * with and without lazy mode.
+ */
+public class LazyDeserializerBenchmark {
+
+    private static final int SECTION_SIZE = 2_000;
+
+    @SerializableConfig
+    static class SectionedConfig {
+        private Lazy<Map<String, Home>> section0;
+        private Lazy<Map<String, Home>> section1;
+        private Lazy<Map<String, Home>> section2;
+        private Lazy<Map<String, Home>> section3;
+        private Lazy<Map<String, Home>> section4;
+        private Lazy<Map<String, Home>> section5;
+        private Lazy<Map<String, Home>> section6;
+        private Lazy<Map<String, Home>> section7;
+    }
+
+    @SerializableConfig
+    static class Home {
+        private String world;
+        private int x;
+        private int z;
+    }
+
+    private static String createYaml() {
+        StringBuilder sb = new StringBuilder();
+        for (int section = 0; section < 8; section++) {
+            sb.append("section").append(section).append(":\n");
+            for (int i = 0; i < SECTION_SIZE; i++) {
+                sb.append("  home").append(i).append(":\n")
+                        .append("    world: world\n")
+                        .append("    x: ").append(i).append('\n')
+                        .append("    z: ").append(-i).append('\n');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String yaml = createYaml();
+
+        ClassDeserializer eagerDeserializer = new ClassDeserializer();
+        eagerDeserializer.setStreamingMode(true);
+
+        ClassDeserializer lazyDeserializer = new ClassDeserializer();
+        lazyDeserializer.setLazyMode(true);
+
+        // Only one section is used
+        BenchmarkRunner.run("deserialize + use one section (eager)", 20, 50,
+                () -> eagerDeserializer.deserializeClass(yaml, SectionedConfig.class).section0.get().size());
+        BenchmarkRunner.run("deserialize + use one section (lazy)", 20, 50,
+                () -> lazyDeserializer.deserializeClass(yaml, SectionedConfig.class).section0.get().size());
+
+        long baseline = BenchmarkRunner.usedHeap();
+        SectionedConfig eager = eagerDeserializer.deserializeClass(yaml, SectionedConfig.class);
+        eager.section0.get();
+        long eagerHeap = BenchmarkRunner.usedHeap() - baseline;
+        System.out.printf("%-45s %12.1f MB retained%n", "eager", eagerHeap / (1024.0 * 1024.0));
+        eager = null;
+
+        baseline = BenchmarkRunner.usedHeap();
+        SectionedConfig lazy = lazyDeserializer.deserializeClass(yaml, SectionedConfig.class);
+        lazy.section0.get();
+        long lazyHeap = BenchmarkRunner.usedHeap() - baseline;
+        System.out.printf("%-45s %12.1f MB retained%n", "lazy", lazyHeap / (1024.0 * 1024.0));
+        System.out.println(lazy.section1.isLoaded());
+    }
+}
@@ -0,0 +1,86 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.hacks.CommentYAML;
+import me.Silverwolfg11.CommentConfig.hacks.KeyRepresenter;
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Benchmark dumping a node tree without comments through the comment emitter,
+ * which the node serializer used for every tree, and through the node serializer,
+ * which writes trees without comments with a {@link me.Silverwolfg11.CommentConfig.serialization.NodeEmitter}.
+ */
+public class NoCommentDumpBenchmark {
+
+    private static final int WARMUP_OPS = 1_000;
+    private static final int MEASURED_OPS = 2_000;
+
+    private static final int SECTIONS = 50;
+    private static final int ENTRIES = 20;
+
+    private static ParentConfigNode createNodes() {
+        ParentConfigNode root = ParentConfigNode.createRoot();
+        for (int i = 0; i < SECTIONS; i++) {
+            ParentConfigNode section = root.addSection("section" + i);
+            for (int j = 0; j < ENTRIES; j++) {
+                section.addChild("entry" + j, j);
+            }
+        }
+
+        return root;
+    }
+
+    // Build the same node graph as the node serializer does for the tree of createNodes()
+    private static Node createYamlNode(KeyRepresenter representer) {
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < SECTIONS; i++) {
+            for (int j = 0; j < ENTRIES; j++) {
+                values.add(j);
+            }
+        }
+
+        Iterator<Node> valueNodes = representer.representValues(values).iterator();
+        List<NodeTuple> rootTuples = new ArrayList<>();
+        for (int i = 0; i < SECTIONS; i++) {
+            List<NodeTuple> sectionTuples = new ArrayList<>();
+            for (int j = 0; j < ENTRIES; j++) {
+                sectionTuples.add(new NodeTuple(representer.representKey("entry" + j, null), valueNodes.next()));
+            }
+
+            Node section = new MappingNode(Tag.MAP, sectionTuples, representer.getDefaultFlowStyle());
+            rootTuples.add(new NodeTuple(representer.representKey("section" + i, null), section));
+        }
+
+        return new MappingNode(Tag.MAP, rootTuples, representer.getDefaultFlowStyle());
+    }
+
+    private static int dump(CommentYAML yaml) {
+        StringWriter writer = new StringWriter();
+        yaml.dumpNode(NoCommentDumpBenchmark::createYamlNode, writer);
+        return writer.getBuffer().length();
+    }
+
+    public static void main(String[] args) throws Exception {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setPrettyFlow(true);
+        CommentYAML yaml = new CommentYAML(options);
+
+        BenchmarkRunner.run("comment emitter (1050 keys)", WARMUP_OPS, MEASURED_OPS, () -> dump(yaml));
+
+        NodeSerializer serializer = new NodeSerializer();
+        ParentConfigNode root = createNodes();
+        BenchmarkRunner.run("node serializer (1050 keys)", WARMUP_OPS, MEASURED_OPS,
+                () -> serializer.serializeToString(root).length());
+    }
+}
@@ -0,0 +1,58 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+
+import java.util.Locale;
+
+/**
+ * Benchmark the heap used by synthetic node trees with 1M nodes.
+ * <br><br>
+ * The small section tree has 250k sections with three values each, which is where per-section overhead dominates.
+ * The wide section tree has 1000 sections with 999 values each, which uses the hash table of large sections.
+ * Keys and values are shared constants, so only the nodes and their storage are measured.
+ */
+public class NodeHeapBenchmark {
+
+    private static final String[] KEYS = new String[1000];
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEYS[i] = "key" + i;
+        }
+    }
+
+    private static final Integer VALUE = 1;
+
+    private static ParentConfigNode createTree(int sections, int values) {
+        ParentConfigNode root = ParentConfigNode.createRoot();
+        for (int i = 0; i < sections; i++) {
+            // Sections are nested in groups of a thousand, so that their keys can be shared too
+            ParentConfigNode group = root.addSection(KEYS[i / KEYS.length % KEYS.length]);
+            ParentConfigNode section = group.addSection(KEYS[i % KEYS.length]);
+            for (int j = 0; j < values; j++) {
+                section.addChild(KEYS[j], VALUE);
+            }
+        }
+
+        return root;
+    }
+
+    private static void measure(String name, int sections, int values) {
+        long baseHeap = BenchmarkRunner.usedHeap();
+        ParentConfigNode root = createTree(sections, values);
+        long treeHeap = BenchmarkRunner.usedHeap() - baseHeap;
+
+        long nodes = (long) sections * (values + 1);
+        System.out.println(String.format(Locale.ROOT, "%-45s %12.1f MB %8.1f B/node", name,
+                treeHeap / (1024.0 * 1024.0), (double) treeHeap / nodes));
+
+        // Keep the tree reachable until it's measured
+        if (!root.hasChildren())
+            throw new IllegalStateException();
+    }
+
+    public static void main(String[] args) {
+        measure("small sections (1M nodes)", 250_000, 3);
+        measure("wide sections (1M nodes)", 1_000, 999);
+    }
+}
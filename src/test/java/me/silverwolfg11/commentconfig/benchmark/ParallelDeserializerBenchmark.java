@@ -0,0 +1,73 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmark deserializing a large item catalog sequentially and in parallel.
+ * Loading the YAML is timed on its own, since only the conversion to the config class runs in parallel.
+ */
+public class ParallelDeserializerBenchmark {
+
+    private static final int ITEMS = 10_000;
+
+    @SerializableConfig
+    static class Catalog {
+        private List<Item> weapons;
+        private List<Item> armor;
+        private Map<String, Item> consumables;
+        private Map<String, Item> materials;
+    }
+
+    @SerializableConfig
+    static class Item {
+        private String name;
+        private int price;
+        private double weight;
+        private List<String> tags;
+    }
+
+    private static String createYaml() {
+        StringBuilder sb = new StringBuilder();
+        for (String list : new String[] { "weapons", "armor" }) {
+            sb.append(list).append(":\n");
+            for (int i = 0; i < ITEMS; i++) {
+                sb.append("  - name: ").append(list).append(i).append('\n')
+                        .append("    price: ").append(i).append('\n')
+                        .append("    weight: ").append(i).append(".5\n")
+                        .append("    tags: [common, tradeable]\n");
+            }
+        }
+
+        for (String map : new String[] { "consumables", "materials" }) {
+            sb.append(map).append(":\n");
+            for (int i = 0; i < ITEMS; i++) {
+                sb.append("  ").append(map).append(i).append(":\n")
+                        .append("    name: ").append(map).append(i).append('\n')
+                        .append("    price: ").append(i).append('\n')
+                        .append("    weight: ").append(i).append(".5\n")
+                        .append("    tags: [common, tradeable]\n");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String yaml = createYaml();
+
+        ClassDeserializer sequentialDeserializer = new ClassDeserializer();
+        ClassDeserializer parallelDeserializer = new ClassDeserializer();
+        parallelDeserializer.setParallelMode(true);
+
+        BenchmarkRunner.run("load YAML", 2, 5, () -> new Yaml().load(yaml));
+        BenchmarkRunner.run("deserialize (sequential)", 5, 10,
+                () -> sequentialDeserializer.deserializeClass(yaml, Catalog.class));
+        BenchmarkRunner.run("deserialize (parallel)", 5, 10,
+                () -> parallelDeserializer.deserializeClass(yaml, Catalog.class));
+    }
+}
@@ -0,0 +1,66 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.node.ConfigNode;
+import me.Silverwolfg11.CommentConfig.node.ParentConfigNode;
+
+/**
+ * Benchmark looking up deep paths in a large node tree by walking the tree and through the path index.
+ */
+public class PathLookupBenchmark {
+
+    private static final int WARMUP_OPS = 20;
+    private static final int MEASURED_OPS = 50;
+
+    // 8 sections wide and 6 sections deep, with values at the bottom
+    private static final int WIDTH = 8;
+    private static final int DEPTH = 6;
+
+    private static void addSections(ParentConfigNode section, int depth) {
+        for (int i = 0; i < WIDTH; i++) {
+            if (depth == DEPTH) {
+                section.addChild("key" + i, i);
+            }
+            else {
+                addSections(section.addSection("section" + i), depth + 1);
+            }
+        }
+    }
+
+    private static String[] createPaths(int count) {
+        String[] paths = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder path = new StringBuilder();
+            int seed = i;
+            for (int depth = 1; depth < DEPTH; depth++) {
+                path.append("section").append(seed % WIDTH).append('.');
+                seed = seed * 31 + 7;
+            }
+
+            paths[i] = path.append("key").append(i % WIDTH).toString();
+        }
+
+        return paths;
+    }
+
+    private static long lookUp(ParentConfigNode root, String[] paths) {
+        long found = 0;
+        for (String path : paths) {
+            ConfigNode node = root.get(path);
+            if (node != null)
+                found++;
+        }
+
+        return found;
+    }
+
+    public static void main(String[] args) throws Exception {
+        ParentConfigNode root = ParentConfigNode.createRoot();
+        addSections(root, 1);
+        String[] paths = createPaths(100_000);
+
+        BenchmarkRunner.run("walk 100k deep paths", WARMUP_OPS, MEASURED_OPS, () -> lookUp(root, paths));
+
+        root.enablePathIndex();
+        BenchmarkRunner.run("index 100k deep paths", WARMUP_OPS, MEASURED_OPS, () -> lookUp(root, paths));
+    }
+}
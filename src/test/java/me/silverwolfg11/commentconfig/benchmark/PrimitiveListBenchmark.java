@@ -0,0 +1,77 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassDeserializer;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmark the time and retained heap of deserializing a large numeric table
+ * with and without primitive-backed lists, and of deserializing primitive arrays.
+ */
+public class PrimitiveListBenchmark {
+
+    private static final int WARMUP_OPS = 20;
+    private static final int MEASURED_OPS = 50;
+    private static final int ITEMS = 20_000;
+
+    @SerializableConfig
+    static class TableConfig {
+        private List<Integer> ids;
+        private List<Double> weights;
+    }
+
+    @SerializableConfig
+    static class ArrayConfig {
+        private int[] ids;
+        private double[] weights;
+    }
+
+    private static String createYaml() {
+        StringBuilder sb = new StringBuilder("ids:\n");
+        for (int i = 0; i < ITEMS; i++) {
+            sb.append("- ").append(1000 + i).append('\n');
+        }
+
+        sb.append("weights:\n");
+        for (int i = 0; i < ITEMS; i++) {
+            sb.append("- ").append(i).append(".5\n");
+        }
+
+        return sb.toString();
+    }
+
+    // Retained heap of the deserialized config, measured by keeping a few copies alive
+    private static void retained(String name, ClassDeserializer deserializer, String yaml, Class<?> clazz) throws Exception {
+        Object[] copies = new Object[10];
+        long before = BenchmarkRunner.usedHeap();
+        for (int i = 0; i < copies.length; i++) {
+            copies[i] = deserializer.deserializeClass(yaml, clazz);
+        }
+        long after = BenchmarkRunner.usedHeap();
+
+        double mb = (after - before) / (double) copies.length / (1024.0 * 1024.0);
+        System.out.println(String.format(Locale.ROOT, "%-45s %12.2f MB retained (%d)", name, mb, copies.length));
+    }
+
+    public static void main(String[] args) throws Exception {
+        String yaml = createYaml();
+
+        ClassDeserializer boxedDeserializer = new ClassDeserializer();
+
+        ClassDeserializer primitiveDeserializer = new ClassDeserializer();
+        primitiveDeserializer.setPrimitiveListMode(true);
+
+        BenchmarkRunner.run("deserialize lists (boxed)", WARMUP_OPS, MEASURED_OPS,
+                () -> boxedDeserializer.deserializeClass(yaml, TableConfig.class));
+        BenchmarkRunner.run("deserialize lists (primitive)", WARMUP_OPS, MEASURED_OPS,
+                () -> primitiveDeserializer.deserializeClass(yaml, TableConfig.class));
+        BenchmarkRunner.run("deserialize arrays", WARMUP_OPS, MEASURED_OPS,
+                () -> boxedDeserializer.deserializeClass(yaml, ArrayConfig.class));
+
+        retained("lists (boxed)", boxedDeserializer, yaml, TableConfig.class);
+        retained("lists (primitive)", primitiveDeserializer, yaml, TableConfig.class);
+        retained("arrays", boxedDeserializer, yaml, ArrayConfig.class);
+    }
+}
@@ -0,0 +1,90 @@
+package me.silverwolfg11.commentconfig.benchmark;
+
+import me.Silverwolfg11.CommentConfig.annotations.Comment;
+import me.Silverwolfg11.CommentConfig.annotations.SerializableConfig;
+import me.Silverwolfg11.CommentConfig.serialization.ClassSerializer;
+import me.Silverwolfg11.CommentConfig.serialization.NodeSerializer;
+
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Benchmark serializing a config with a large map through the node representation
+ * against writing it straight to YAML.
+ */
+public class StreamingSerializerBenchmark {
+
+    @SerializableConfig
+    static class LargeConfig {
+        @Comment("Homes by name")
+        private Map<String, Home> homes = new LinkedHashMap<>();
+
+        LargeConfig(int size) {
+            for (int i = 0; i < size; i++) {
+                homes.put("home" + i, new Home(i));
+            }
+        }
+    }
+
+    @SerializableConfig
+    static class Home {
+        @Comment("World of the home")
+        private String world = "world";
+        private int x;
+        private int z;
+
+        Home(int i) {
+            this.x = i;
+            this.z = -i;
+        }
+    }
+
+    // Writer that counts and discards output, so the output itself doesn't use heap
+    private static final class NullWriter extends Writer {
+        private long written;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            written += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        NodeSerializer serializer = new NodeSerializer();
+
+        LargeConfig small = new LargeConfig(1000);
+        BenchmarkRunner.run("Node serialization (1000 entries)", 200, 200,
+                () -> serializer.serializeToString(ClassSerializer.serializeClass(small)).length());
+        BenchmarkRunner.run("Streaming serialization (1000 entries)", 200, 200, () -> {
+            NullWriter writer = new NullWriter();
+            ClassSerializer.serializeToWriter(small, writer, serializer);
+            return writer.written;
+        });
+
+        LargeConfig large = new LargeConfig(100_000);
+        long baseHeap = BenchmarkRunner.usedHeap();
+        System.out.println(String.format("%-45s %12.1f MB", "Heap used by the config", baseHeap / (1024.0 * 1024.0)));
+
+        // Node serialization also keeps the whole YAML string, so write it to a discarding writer too
+        BenchmarkRunner.peakHeap("Node serialization (100k entries)", () -> {
+            NullWriter writer = new NullWriter();
+            writer.write(serializer.serializeToString(ClassSerializer.serializeClass(large)));
+            return writer.written;
+        });
+        BenchmarkRunner.peakHeap("Streaming serialization (100k entries)", () -> {
+            NullWriter writer = new NullWriter();
+            ClassSerializer.serializeToWriter(large, writer, serializer);
+            return writer.written;
+        });
+    }
+
+}